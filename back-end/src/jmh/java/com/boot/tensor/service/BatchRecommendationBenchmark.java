@@ -0,0 +1,194 @@
+package com.boot.tensor.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.boot.tensor.dto.ActingDTO;
+import com.boot.tensor.dto.BookDTO;
+import com.boot.tensor.dto.MusicDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 일괄 추천 처리량: 감정 벡터 N 개를 NDJSON 으로 내보내기까지 걸린 시간
+ * - batch: BatchRecommendationService.recommend (CHUNK 단위 predictBatch + recommendBatch)
+ * - perVector: 입력마다 predict + 카탈로그별 recommend 를 부르고 같은 형식으로 한 줄씩 쓰는 경로 (비교 기준)
+ * - 카탈로그는 행동/음악/도서 각 600건의 합성 데이터, 모델은 ../tensor 의 act/music/book 모델
+ *   (모델이 없으면 추천만 비교, 시작 시 출력되는 predict 값으로 확인)
+ * - 출력은 바이트 수만 세는 스트림으로 보내 직렬화 비용까지 포함
+ * - 실행: gradle jmh -PjmhArgs="BatchRecommendationBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BatchRecommendationBenchmark {
+
+	private static final long SEED = 20240613L;
+	private static final int CATALOG_SIZE = 600;
+
+	@Param({ "1000", "10000", "100000" })
+	private int vectors;
+
+	private List<Map<String, Object>> input;
+	private ObjectMapper objectMapper;
+	private EmotionModelService emotionModelService;
+	private RecommendationService recommendationService;
+	private BatchRecommendationService batchService;
+	private CountingOutputStream out;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		SplittableRandom random = new SplittableRandom(SEED);
+		CatalogSnapshotService catalogs = new CatalogSnapshotService();
+		set(catalogs, "music", snapshot(musicCatalog(random), CatalogAdapters.MUSIC));
+		set(catalogs, "book", snapshot(bookCatalog(random), CatalogAdapters.BOOK));
+		set(catalogs, "acting", snapshot(actingCatalog(random), CatalogAdapters.ACTING));
+
+		objectMapper = new ObjectMapper();
+		emotionModelService = new EmotionModelService();
+		set(emotionModelService, "modelDir", "../tensor");
+		emotionModelService.init();
+		// 요청 경로 캐시는 일괄 추천이 쓰지 않으므로 비교 기준에서도 끈다
+		recommendationService = new RecommendationService(catalogs, new SimpleMeterRegistry(), false, 0.05, 4096);
+
+		batchService = new BatchRecommendationService();
+		set(batchService, "emotionModelService", emotionModelService);
+		set(batchService, "recommendationService", recommendationService);
+		set(batchService, "objectMapper", objectMapper);
+
+		input = new ArrayList<>(vectors);
+		for (int i = 0; i < vectors; i++) {
+			Map<String, Object> vector = new LinkedHashMap<>();
+			vector.put("happy", random.nextDouble());
+			vector.put("sad", random.nextDouble());
+			vector.put("stressed", random.nextDouble());
+			vector.put("calm", random.nextDouble());
+			vector.put("excited", random.nextDouble());
+			vector.put("tired", random.nextDouble());
+			input.add(vector);
+		}
+		out = new CountingOutputStream();
+
+		batch();
+		long batchBytes = out.count;
+		perVector();
+		// 포크 JVM 출력 인코딩과 무관하게 읽히도록 ASCII 로 출력
+		System.out.printf("vectors=%d predict=%b ndjson batch=%d bytes perVector=%d bytes%n", vectors,
+				emotionModelService.isAvailable(), batchBytes, out.count);
+	}
+
+	@Benchmark
+	public long batch() throws IOException {
+		out.count = 0;
+		batchService.recommend(input, new SplittableRandom(SEED), out);
+		return out.count;
+	}
+
+	@Benchmark
+	public long perVector() throws IOException {
+		out.count = 0;
+		SplittableRandom random = new SplittableRandom(SEED);
+		boolean predict = emotionModelService.isAvailable();
+		JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+		for (int i = 0; i < input.size(); i++) {
+			float[] user = EmotionMatrix.userVector(input.get(i));
+			Map<String, Object> line = new LinkedHashMap<>();
+			line.put("index", i);
+			if (predict) {
+				line.put("tfResult", emotionModelService.predict(user));
+			}
+			line.put("act_dtos", recommendationService.acting().recommend(user, random));
+			line.put("music_dtos", recommendationService.music().recommend(user, random));
+			line.put("book_dtos", recommendationService.book().recommend(user, random));
+			objectMapper.writeValue(generator, line);
+			generator.writeRaw('\n');
+		}
+		generator.flush();
+		return out.count;
+	}
+
+	private static <T> CatalogSnapshot<T> snapshot(List<T> items, CatalogAdapter<T> adapter) {
+		return new CatalogSnapshot<>(items, EmotionMatrix.of(items, adapter), null, 1L, 0, 0L);
+	}
+
+	private static List<MusicDTO> musicCatalog(SplittableRandom random) {
+		List<MusicDTO> items = new ArrayList<>(CATALOG_SIZE);
+		for (int i = 0; i < CATALOG_SIZE; i++) {
+			items.add(new MusicDTO(i, 1 + random.nextInt(6), "곡 " + i, "가수", random.nextInt(101),
+					random.nextInt(101), random.nextInt(101), random.nextInt(101), random.nextInt(101),
+					random.nextInt(101)));
+		}
+		return items;
+	}
+
+	private static List<BookDTO> bookCatalog(SplittableRandom random) {
+		List<BookDTO> items = new ArrayList<>(CATALOG_SIZE);
+		for (int i = 0; i < CATALOG_SIZE; i++) {
+			items.add(new BookDTO(i, 1 + random.nextInt(6), "책 " + i, "작가", random.nextInt(101),
+					random.nextInt(101), random.nextInt(101), random.nextInt(101), random.nextInt(101),
+					random.nextInt(101)));
+		}
+		return items;
+	}
+
+	private static List<ActingDTO> actingCatalog(SplittableRandom random) {
+		List<ActingDTO> items = new ArrayList<>(CATALOG_SIZE);
+		for (int i = 0; i < CATALOG_SIZE; i++) {
+			items.add(new ActingDTO(i, 1 + random.nextInt(6), "행동 " + i, random.nextInt(101),
+					random.nextInt(101), random.nextInt(101), random.nextInt(101), random.nextInt(101),
+					random.nextInt(101)));
+		}
+		return items;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+		Field field = target.getClass().getDeclaredField(name);
+		field.setAccessible(true);
+		if (AtomicReference.class.isAssignableFrom(field.getType())) {
+			((AtomicReference<Object>) field.get(target)).set(value);
+		} else {
+			field.set(target, value);
+		}
+	}
+
+	private static final class CountingOutputStream extends OutputStream {
+		private long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
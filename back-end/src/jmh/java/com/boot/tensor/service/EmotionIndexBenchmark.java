@@ -0,0 +1,129 @@
+package com.boot.tensor.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.boot.tensor.dto.MusicDTO;
+
+/**
+ * 추천 후보 구간: k-d 트리(EmotionIndex.candidates) vs 전수 조사(EmotionMatrix.cosine + TopKSelector)
+ * - 둘 다 RecommendationEngine.candidatePool 과 같은 구간 (k번째 코사인 - JITTER 보다 큰 행)을 구한다
+ * - 시작 전에 모든 질의에서 재현율(전수 조사 구간 중 색인이 찾은 비율)을 계산해 출력하고, 1 이 아니면 실패
+ * - rebuild: 스냅샷이 바뀔 때마다 하는 행렬 + 색인 전체 재구성 비용
+ * - 실행: gradle jmh -PjmhArgs="EmotionIndexBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmotionIndexBenchmark {
+
+	private static final long SEED = 20240613L;
+	private static final int QUERIES = 1024;
+	// 엔진이 색인에 묻는 구간 크기 (RECOMMEND_COUNT * INDEX_WINDOW_FACTOR)
+	private static final int WINDOW = RecommendationEngine.RECOMMEND_COUNT * RecommendationEngine.INDEX_WINDOW_FACTOR;
+
+	@Param({ "1000", "20000", "100000" })
+	private int size;
+
+	private List<MusicDTO> items;
+	private EmotionMatrix matrix;
+	private EmotionIndex index;
+	private float[][] users;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(SEED);
+		items = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			items.add(new MusicDTO(i, 1 + random.nextInt(6), "곡 " + i, "가수", random.nextInt(101),
+					random.nextInt(101), random.nextInt(101), random.nextInt(101), random.nextInt(101),
+					random.nextInt(101)));
+		}
+		matrix = EmotionMatrix.of(items, CatalogAdapters.MUSIC);
+		index = EmotionIndex.build(matrix);
+		users = new float[QUERIES][];
+		for (int q = 0; q < QUERIES; q++) {
+			users[q] = new float[] { random.nextInt(101), random.nextInt(101), random.nextInt(101),
+					random.nextInt(101), random.nextInt(101), random.nextInt(101) };
+		}
+
+		long expected = 0, found = 0, scanned = 0;
+		for (float[] user : users) {
+			int[] fromIndex = index.candidates(user, WINDOW, RecommendationEngine.JITTER);
+			int[] exact = bruteForce(user);
+			for (int row : exact) {
+				if (Arrays.binarySearch(fromIndex, row) >= 0) {
+					found++;
+				}
+			}
+			expected += exact.length;
+			scanned += fromIndex.length;
+		}
+		double recall = (double) found / expected;
+		// 포크 JVM 출력 인코딩과 무관하게 읽히도록 ASCII 로 출력
+		System.out.printf("size=%d recall=%.4f avgCandidates index=%.1f bruteForce=%.1f%n", size, recall,
+				(double) scanned / QUERIES, (double) expected / QUERIES);
+		if (found != expected) {
+			throw new IllegalStateException("색인 후보 구간 누락: recall=" + recall);
+		}
+	}
+
+	@Benchmark
+	public int[] indexCandidates() {
+		return index.candidates(nextUser(), WINDOW, RecommendationEngine.JITTER);
+	}
+
+	@Benchmark
+	public int[] cosineBruteForce() {
+		return bruteForce(nextUser());
+	}
+
+	@Benchmark
+	public EmotionIndex rebuild() {
+		return EmotionIndex.build(EmotionMatrix.of(items, CatalogAdapters.MUSIC));
+	}
+
+	private float[] nextUser() {
+		float[] user = users[next];
+		next = (next + 1) & (QUERIES - 1);
+		return user;
+	}
+
+	// RecommendationEngine.candidatePool 의 색인 없는 경로와 같은 계산 (구간 크기만 WINDOW)
+	private int[] bruteForce(float[] user) {
+		float[] similarities = matrix.cosine(user);
+		TopKSelector top = new TopKSelector(WINDOW);
+		for (int i = 0; i < similarities.length; i++) {
+			top.offer(i, similarities[i]);
+		}
+		double threshold = top.minScore() - RecommendationEngine.JITTER;
+		int count = 0;
+		int[] rows = new int[similarities.length];
+		for (int i = 0; i < similarities.length; i++) {
+			if (similarities[i] > threshold) {
+				rows[count++] = i;
+			}
+		}
+		return Arrays.copyOf(rows, count);
+	}
+}
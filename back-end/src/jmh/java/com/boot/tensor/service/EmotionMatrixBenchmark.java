@@ -0,0 +1,161 @@
+package com.boot.tensor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.boot.tensor.dto.MusicDTO;
+
+/**
+ * 점수 계산 단계: 예전 MusicServiceImpl 경로(항목마다 double[] 추출 + 코사인 + MusicScore 객체) vs
+ * EmotionMatrix.cosine(열 단위 float[] + 미리 계산한 norm 역수)
+ * - 예전 경로는 EmotionMatrix 도입 전 MusicServiceImpl.generateSmartRecommendations 의 반복문 그대로
+ *   (항목마다 new Random() 으로 더하던 5% 무작위 값만 빼서 코사인 계산끼리 비교)
+ * - 시작 전에 두 경로의 유사도가 같은지 확인하고, 다르면 실패
+ * - 실행: gradle jmh -PjmhArgs="EmotionMatrixBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmotionMatrixBenchmark {
+
+	private static final long SEED = 20240613L;
+	private static final int QUERIES = 1024;
+
+	@Param({ "600", "100000", "1000000" })
+	private int size;
+
+	private List<MusicDTO> items;
+	private EmotionMatrix matrix;
+	private float[][] users;
+	private double[][] legacyUsers;
+	private float[] out;
+	private int next;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		SplittableRandom random = new SplittableRandom(SEED);
+		items = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			items.add(new MusicDTO(i, 1 + random.nextInt(6), "곡 " + i, "가수", random.nextInt(101),
+					random.nextInt(101), random.nextInt(101), random.nextInt(101), random.nextInt(101),
+					random.nextInt(101)));
+		}
+		matrix = EmotionMatrix.of(items, CatalogAdapters.MUSIC);
+		out = new float[size];
+		users = new float[QUERIES][];
+		legacyUsers = new double[QUERIES][];
+		for (int q = 0; q < QUERIES; q++) {
+			users[q] = new float[EmotionMatrix.DIMENSIONS];
+			legacyUsers[q] = new double[EmotionMatrix.DIMENSIONS];
+			for (int d = 0; d < EmotionMatrix.DIMENSIONS; d++) {
+				int value = random.nextInt(101);
+				users[q][d] = value;
+				legacyUsers[q][d] = value;
+			}
+		}
+
+		// 코사인은 크기와 무관하므로 예전 경로(0~1 정규화)와 같은 값이어야 한다
+		double maxError = 0;
+		for (int q = 0; q < 16; q++) {
+			float[] fast = matrix.cosine(users[q]);
+			List<MusicScore> legacy = legacyScores(legacyUsers[q]);
+			for (int i = 0; i < size; i++) {
+				maxError = Math.max(maxError, Math.abs(fast[i] - legacy.get(i).getScore()));
+			}
+		}
+		// 포크 JVM 출력 인코딩과 무관하게 읽히도록 ASCII 로 출력
+		System.out.printf("size=%d maxError=%.2e%n", size, maxError);
+		if (maxError > 1e-5) {
+			throw new IllegalStateException("두 경로의 유사도가 다름: maxError=" + maxError);
+		}
+	}
+
+	@Benchmark
+	public List<MusicScore> legacyDoubleScores() {
+		return legacyScores(legacyUsers[nextQuery()]);
+	}
+
+	@Benchmark
+	public float[] matrixCosine() {
+		matrix.cosine(users[nextQuery()], out);
+		return out;
+	}
+
+	private int nextQuery() {
+		int q = next;
+		next = (next + 1) & (QUERIES - 1);
+		return q;
+	}
+
+	// 예전 generateSmartRecommendations 의 점수 계산 반복문
+	private List<MusicScore> legacyScores(double[] userEmotionVector) {
+		List<MusicScore> scoredMusic = new ArrayList<>();
+		for (MusicDTO music : items) {
+			double[] musicVector = extractMusicEmotionVector(music);
+			double similarity = calculateCosineSimilarity(userEmotionVector, musicVector);
+			scoredMusic.add(new MusicScore(music, similarity));
+		}
+		return scoredMusic;
+	}
+
+	private static double[] extractMusicEmotionVector(MusicDTO music) {
+		double happy = music.getHappy() / 100.0;
+		double sad = music.getSad() / 100.0;
+		double stressed = music.getStress() / 100.0;
+		double calm = music.getCalm() / 100.0;
+		double excited = music.getExcited() / 100.0;
+		double tired = music.getTired() / 100.0;
+		return new double[] { happy, sad, stressed, calm, excited, tired };
+	}
+
+	private static double calculateCosineSimilarity(double[] vectorA, double[] vectorB) {
+		if (vectorA.length != vectorB.length) {
+			throw new IllegalArgumentException("벡터 길이가 다릅니다.");
+		}
+		double dotProduct = 0.0;
+		double normA = 0.0;
+		double normB = 0.0;
+		for (int i = 0; i < vectorA.length; i++) {
+			dotProduct += vectorA[i] * vectorB[i];
+			normA += vectorA[i] * vectorA[i];
+			normB += vectorB[i] * vectorB[i];
+		}
+		normA = Math.sqrt(normA);
+		normB = Math.sqrt(normB);
+		if (normA == 0.0 || normB == 0.0) {
+			return 0.0;
+		}
+		return dotProduct / (normA * normB);
+	}
+
+	public static final class MusicScore {
+		private final MusicDTO music;
+		private final double score;
+
+		MusicScore(MusicDTO music, double score) {
+			this.music = music;
+			this.score = score;
+		}
+
+		public MusicDTO getMusic() { return music; }
+		public double getScore() { return score; }
+	}
+}
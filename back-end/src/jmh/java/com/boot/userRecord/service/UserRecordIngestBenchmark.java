@@ -0,0 +1,172 @@
+package com.boot.userRecord.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.boot.userRecord.dto.UserRecordDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 감정 기록 저장 큐 처리량: 기록 N 개를 큐에 넣고 종료(남은 기록 모두 저장)까지 걸린 시간
+ * - h2: H2(MODE=Oracle) 메모리 DB 에 실제 insertUserRecord(selectKey 시퀀스 포함)를 JDBC 배치로 실행
+ * - simulated: Oracle 왕복을 흉내 (배치마다 3ms + 기록마다 20us), 네트워크 왕복이 있는 DB 에서의 배치 효과 확인용
+ * - 큐가 가득 차면 생산자는 거절(503)된 요청을 바로 다시 보내는 클라이언트처럼 다시 넣는다
+ * - 실행: gradle jmh -PjmhArgs="UserRecordIngestBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class UserRecordIngestBenchmark {
+
+	private static final String MAPPER = "mybatis/mappers/userRecordMapper.xml";
+
+	@Param({ "1000", "10000", "50000" })
+	private int records;
+
+	@Param({ "h2", "simulated" })
+	private String sink;
+
+	private UserRecordDTO[] input;
+	private Path deadLetterDir;
+	private Connection keepAlive;
+	private UserRecordIngestQueue queue;
+
+	@Setup(Level.Trial)
+	public void setUpTrial() throws IOException {
+		input = new UserRecordDTO[records];
+		Timestamp createdAt = Timestamp.valueOf("2024-06-13 09:30:00");
+		for (int i = 0; i < records; i++) {
+			UserRecordDTO record = new UserRecordDTO();
+			record.setUserNumber(i % 1000);
+			record.setHappy(i % 100);
+			record.setSad((i * 7) % 100);
+			record.setStress((i * 13) % 100);
+			record.setCalm((i * 17) % 100);
+			record.setExcited((i * 19) % 100);
+			record.setTired((i * 23) % 100);
+			record.setMusic_ids("1,2,3");
+			record.setAction_ids("4,5,6");
+			record.setBook_ids("7,8,9");
+			record.setCreated_at_ts(createdAt);
+			input[i] = record;
+		}
+		deadLetterDir = Files.createTempDirectory("user-record-ingest");
+	}
+
+	@Setup(Level.Invocation)
+	public void setUp() throws Exception {
+		SqlSessionFactory factory = null;
+		if ("h2".equals(sink)) {
+			factory = h2();
+		}
+		queue = "h2".equals(sink) ? new UserRecordIngestQueue(new SimpleMeterRegistry(), 20000)
+				: new UserRecordIngestQueue(new SimpleMeterRegistry(), 20000) {
+					@Override
+					void writeBatch(List<UserRecordDTO> batch) {
+						LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(3) + TimeUnit.MICROSECONDS.toNanos(20) * batch.size());
+					}
+				};
+		// 운영 기본값과 같게
+		set("sqlSessionFactory", factory);
+		set("emotionTrendService", new EmotionTrendService(new SimpleMeterRegistry()));
+		set("batchSize", 500);
+		set("flushIntervalMs", 1000L);
+		set("enqueueTimeoutMs", 100L);
+		set("shutdownTimeoutMs", 60_000L);
+		set("maxAttempts", 5);
+		set("retryBackoffMs", 200L);
+		set("maxBackoffMs", 5000L);
+		set("deadLetterPath", deadLetterDir.resolve("dead-letter.ndjson").toString());
+		queue.start();
+	}
+
+	@TearDown(Level.Invocation)
+	public void tearDown() throws SQLException {
+		if (keepAlive != null) {
+			// 모두 저장됐는지 확인
+			try (Statement statement = keepAlive.createStatement();
+					ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM userRecord")) {
+				rs.next();
+				if (rs.getInt(1) != records) {
+					throw new IllegalStateException("저장된 기록 " + rs.getInt(1) + "개, 기대 " + records + "개");
+				}
+			}
+			keepAlive.close();
+			keepAlive = null;
+		}
+	}
+
+	@Benchmark
+	public int ingest() {
+		for (UserRecordDTO record : input) {
+			while (!queue.offer(record)) {
+				// 큐가 가득 참 -> 다시 시도
+			}
+		}
+		queue.shutdown();
+		return queue.size();
+	}
+
+	// 호출마다 새 메모리 DB (마지막 연결이 닫히면 사라지므로 keepAlive 로 붙잡아 둠)
+	private SqlSessionFactory h2() throws Exception {
+		UnpooledDataSource dataSource = new UnpooledDataSource("org.h2.Driver",
+				"jdbc:h2:mem:ingest" + System.nanoTime() + ";MODE=Oracle", "sa", "");
+		keepAlive = dataSource.getConnection();
+		try (Statement statement = keepAlive.createStatement()) {
+			statement.execute("CREATE TABLE userRecord (id NUMBER(19) PRIMARY KEY, userNumber NUMBER(10), "
+					+ "happy NUMBER(3), sad NUMBER(3), stress NUMBER(3), calm NUMBER(3), excited NUMBER(3), "
+					+ "tired NUMBER(3), music_ids VARCHAR2(200), action_ids VARCHAR2(200), "
+					+ "book_ids VARCHAR2(200), created_at DATE)");
+			statement.execute("CREATE SEQUENCE USERRECORD_SEQ START WITH 1 CACHE 500");
+		}
+		Configuration configuration = new Configuration(
+				new Environment("bench", new JdbcTransactionFactory(), dataSource));
+		try (InputStream in = Resources.getResourceAsStream(MAPPER)) {
+			new XMLMapperBuilder(in, configuration, MAPPER, configuration.getSqlFragments()).parse();
+		}
+		return new SqlSessionFactoryBuilder().build(configuration);
+	}
+
+	private void set(String name, Object value) throws ReflectiveOperationException {
+		Field field = UserRecordIngestQueue.class.getDeclaredField(name);
+		field.setAccessible(true);
+		field.set(queue, value);
+	}
+}
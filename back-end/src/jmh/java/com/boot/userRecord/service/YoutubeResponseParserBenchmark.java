@@ -0,0 +1,142 @@
+package com.boot.userRecord.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 유튜브 응답 파싱: 스트리밍 파서(YoutubeResponseParser) vs 기존 org.json (String 변환 + JSONObject 트리)
+ * - search: id 가 객체, videos: id 가 문자열
+ * - 항목마다 실제 응답처럼 설명, 썸네일 5종, 태그, localized, contentDetails, statistics 포함
+ * - 실행: gradle jmh -PjmhArgs="YoutubeResponseParserBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class YoutubeResponseParserBenchmark {
+
+	@Param({ "search", "videos" })
+	private String endpoint;
+
+	@Param({ "1", "50" })
+	private int items;
+
+	private byte[] body;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		body = response("search".equals(endpoint), items).getBytes(StandardCharsets.UTF_8);
+		// 두 방식이 같은 결과인지 먼저 확인
+		List<Map<String, String>> expected = orgJson();
+		List<Map<String, String>> actual = streaming();
+		if (!expected.equals(actual)) {
+			throw new IllegalStateException("파싱 결과가 다름: " + expected + " / " + actual);
+		}
+	}
+
+	@Benchmark
+	public List<Map<String, String>> streaming() throws IOException {
+		if ("search".equals(endpoint)) {
+			return YoutubeResponseParser.parseItems(body);
+		}
+		return new ArrayList<>(YoutubeResponseParser.parseItemsById(body).values());
+	}
+
+	// 기존 YoutubeServiceImpl: 응답 전체를 String 으로 만든 뒤 JSONObject 로 파싱
+	@Benchmark
+	public List<Map<String, String>> orgJson() {
+		boolean search = "search".equals(endpoint);
+		JSONArray array = new JSONObject(new String(body, StandardCharsets.UTF_8)).getJSONArray("items");
+		List<Map<String, String>> results = new ArrayList<>();
+		for (int i = 0; i < array.length(); i++) {
+			JSONObject item = array.getJSONObject(i);
+			JSONObject snippet = item.getJSONObject("snippet");
+			String videoId = search ? item.getJSONObject("id").getString("videoId") : item.getString("id");
+
+			Map<String, String> data = new HashMap<>();
+			data.put("title", snippet.getString("title"));
+			data.put("channel", snippet.getString("channelTitle"));
+			data.put("thumbnail", snippet.getJSONObject("thumbnails").getJSONObject("high").getString("url"));
+			data.put("videoUrl", "https://www.youtube.com/watch?v=" + videoId);
+			results.add(data);
+		}
+		return results;
+	}
+
+	private static String response(boolean search, int count) {
+		StringBuilder json = new StringBuilder();
+		json.append("{\"kind\":\"youtube#").append(search ? "searchListResponse" : "videoListResponse")
+				.append("\",\"etag\":\"q4ibjmYp1KA3RqMF4jFLl6PBwOg\",\"nextPageToken\":\"CAUQAA\",\"regionCode\":\"KR\",")
+				.append("\"pageInfo\":{\"totalResults\":1000000,\"resultsPerPage\":").append(count).append("},\"items\":[");
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				json.append(',');
+			}
+			String videoId = String.format("vid%08d", i);
+			json.append("{\"kind\":\"youtube#").append(search ? "searchResult" : "video")
+					.append("\",\"etag\":\"Q6Zp9qDyqOQ4kYb3r1A2w0tU8aM").append(i).append("\",\"id\":");
+			if (search) {
+				json.append("{\"kind\":\"youtube#video\",\"videoId\":\"").append(videoId).append("\"}");
+			} else {
+				json.append('"').append(videoId).append('"');
+			}
+			json.append(",\"snippet\":{\"publishedAt\":\"2020-08-21T03:58:10Z\",\"channelId\":\"UC3IZKseVpdzPSBaWxBxundA\",")
+					.append("\"title\":\"노래 제목 ").append(i).append(" (Official MV) \\\"live\\\"\",")
+					.append("\"description\":\"").append(description(i)).append("\",\"thumbnails\":{");
+			String[][] sizes = { { "default", "120", "90" }, { "medium", "320", "180" }, { "high", "480", "360" },
+					{ "standard", "640", "480" }, { "maxres", "1280", "720" } };
+			for (int s = 0; s < sizes.length; s++) {
+				if (s > 0) {
+					json.append(',');
+				}
+				json.append('"').append(sizes[s][0]).append("\":{\"url\":\"https://i.ytimg.com/vi/").append(videoId)
+						.append('/').append(sizes[s][0]).append(".jpg\",\"width\":").append(sizes[s][1])
+						.append(",\"height\":").append(sizes[s][2]).append('}');
+			}
+			json.append("},\"channelTitle\":\"HYBE LABELS\",\"tags\":[\"BTS\",\"방탄소년단\",\"Dynamite\",\"K-pop\",\"MV\"],")
+					.append("\"categoryId\":\"10\",\"liveBroadcastContent\":\"none\",")
+					.append("\"localized\":{\"title\":\"노래 제목 ").append(i).append("\",\"description\":\"")
+					.append(description(i)).append("\"},\"defaultAudioLanguage\":\"ko\"}");
+			if (!search) {
+				json.append(",\"contentDetails\":{\"duration\":\"PT3M43S\",\"dimension\":\"2d\",\"definition\":\"hd\",")
+						.append("\"caption\":\"true\",\"regionRestriction\":{\"blocked\":[\"CU\",\"KP\"]},\"contentRating\":{}},")
+						.append("\"statistics\":{\"viewCount\":\"1800000000\",\"likeCount\":\"38000000\",")
+						.append("\"commentCount\":\"9000000\"}");
+			}
+			json.append('}');
+		}
+		return json.append("]}").toString();
+	}
+
+	// 실제 응답처럼 여러 줄 설명 (약 1KB)
+	private static String description(int i) {
+		StringBuilder text = new StringBuilder();
+		for (int line = 0; line < 12; line++) {
+			text.append("설명 ").append(i).append('-').append(line)
+					.append(" Stream / Download: https://example.com/track?id=").append(line).append("\\n");
+		}
+		return text.toString();
+	}
+}
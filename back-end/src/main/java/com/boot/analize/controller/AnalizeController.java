@@ -1,11 +1,9 @@
 package com.boot.analize.controller;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -20,7 +18,6 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.boot.analize.dto.AnalizeContactDTO;
 import com.boot.analize.dto.AnalizeFeedbackDTO;
-import com.boot.analize.dto.UserChurnDTO;
 import com.boot.analize.service.ChurnDetectionService;
 import com.boot.analize.service.ContactAnalize;
 import com.boot.analize.service.FeedbackAnalize;
@@ -116,32 +113,17 @@ public class AnalizeController {
 	}
 
 	// 사용자 이탈 분석 : (Churn Analysis)
+	// DB 조회는 컨트롤러가 반환된 뒤 응답을 쓰는 동안 실행되므로 아래 catch 로 잡히지 않는다
+	// - 조회 도중 DB 오류가 나면 200 상태로 JSON 이 중간에 끊긴다 (tensor /train-churn-model 은 features/labels 가 배열이 아니면 학습하지 않음)
+	// - 끊긴 응답이 재사용되지 않도록 캐시하지 않는다 (no-store)
 	@GetMapping("/analize-churn-train")
 	public ResponseEntity<?> churnAnalize(HttpServletRequest request) {
 		try {
-			// 캐시 헤더 설정 (선택)
 			HttpHeaders headers = new HttpHeaders();
-			headers.setCacheControl("max-age=300"); // 5분 캐시
+			headers.setCacheControl("no-store");
 
-			List<UserChurnDTO> dtos = churnDetectionService.getChurnDTO();
-
-			// features 및 labels 추출
-			List<List<Double>> features = dtos.stream().map(dto -> Arrays.asList(dto.getFeedbackScore(),
-					(double) dto.getRecommendCount(), (double) dto.getRecentActivityCount()))
-					.collect(Collectors.toList());
-
-			List<Integer> labels = dtos.stream().map(UserChurnDTO::getChurn) // 0 or 1
-					.collect(Collectors.toList());
-
-			Map<String, Object> response = new HashMap<>();
-			response.put("features", features);
-			response.put("labels", labels);
-			response.put("count", dtos.size());
-
-			log.info("@# churn features_count => " + features.size());
-			log.info("@# churn labels_count => " + labels.size());
-
-			return ResponseEntity.ok().headers(headers).body(response);
+			// 테이블 전체를 목록으로 만들지 않고 DB 에서 읽는 대로 응답에 쓴다
+			return ResponseEntity.ok().headers(headers).body(churnDetectionService.getChurnTrainingJson());
 
 		} catch (Exception e) {
 			log.error("churnAnalize 오류: ", e);
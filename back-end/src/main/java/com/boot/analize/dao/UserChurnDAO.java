@@ -2,8 +2,13 @@ package com.boot.analize.dao;
 
 import java.util.List;
 
+import org.apache.ibatis.session.ResultHandler;
+
 import com.boot.analize.dto.UserChurnDTO;
 
 public interface UserChurnDAO {
 	public List<UserChurnDTO> getUserChurnDTO();
+
+	// 한 행씩 handler 로 전달 (목록을 만들지 않음)
+	public void streamUserChurnDTO(ResultHandler<UserChurnDTO> handler);
 }
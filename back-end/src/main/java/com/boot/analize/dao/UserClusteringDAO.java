@@ -3,6 +3,8 @@ package com.boot.analize.dao;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import com.boot.analize.dto.UserClusteringDTO;
 
@@ -10,4 +12,5 @@ import com.boot.analize.dto.UserClusteringDTO;
 public interface UserClusteringDAO {
     List<UserClusteringDTO> findRecentEmotionData();
     List<UserClusteringDTO> findEmotionDataByDate(String created_at);
+    void streamEmotionScoresByDate(@Param("created_at") String created_at, ResultHandler<UserClusteringDTO> handler);
 }
@@ -1,13 +1,21 @@
 package com.boot.analize.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 import org.apache.ibatis.session.SqlSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.boot.analize.dao.UserChurnDAO;
 import com.boot.analize.dto.UserChurnDTO;
+import com.boot.tensor.service.StreamingJson;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -17,9 +25,84 @@ public class ChurnDetectionService {
 	@Autowired
 	private SqlSession session;
 
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
 	public List<UserChurnDTO> getChurnDTO() {
 		UserChurnDAO dao = session.getMapper(UserChurnDAO.class);
 		List<UserChurnDTO> dtos = dao.getUserChurnDTO();
 		return dtos;
 	}
+
+	/**
+	 * 이탈 분석 학습 데이터 {features, labels, count} 를 DB 에서 한 행씩 읽어 응답에 바로 쓴다
+	 * - features([피드백 평균, 추천 이용 횟수, 최근 활동 횟수]) 는 읽는 즉시 쓴다
+	 * - labels 는 features 뒤에 와야 하므로 같은 조회를 한 번 더 하며 쓴다 (행 수와 관계없이 메모리 사용 일정)
+	 * - 두 번의 조회가 같은 행을 같은 순서로 보도록 읽기 전용 SERIALIZABLE 트랜잭션 하나에서 정렬해 읽는다
+	 *   (Oracle 은 트랜잭션 시작 시점 스냅샷을 보므로 그 사이 바뀐 행이 한쪽에만 보이지 않음)
+	 */
+	public StreamingJson getChurnTrainingJson() {
+		return new StreamingJson() {
+			@Override
+			public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+				try {
+					snapshotTransaction().executeWithoutResult(status -> writeTrainingJson(gen));
+				} catch (UncheckedIOException e) {
+					throw e.getCause();
+				}
+			}
+		};
+	}
+
+	private TransactionTemplate snapshotTransaction() {
+		TransactionTemplate template = new TransactionTemplate(transactionManager);
+		template.setReadOnly(true);
+		template.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+		return template;
+	}
+
+	private void writeTrainingJson(JsonGenerator gen) {
+		UserChurnDAO dao = session.getMapper(UserChurnDAO.class);
+		try {
+			gen.writeStartObject();
+			gen.writeArrayFieldStart("features");
+			long[] features = new long[1];
+			dao.streamUserChurnDTO(context -> {
+				UserChurnDTO dto = context.getResultObject();
+				try {
+					gen.writeStartArray();
+					gen.writeNumber(dto.getFeedbackScore());
+					gen.writeNumber((double) dto.getRecommendCount());
+					gen.writeNumber((double) dto.getRecentActivityCount());
+					gen.writeEndArray();
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				features[0]++;
+			});
+			gen.writeEndArray();
+
+			gen.writeArrayFieldStart("labels");
+			long[] labels = new long[1];
+			dao.streamUserChurnDTO(context -> {
+				try {
+					gen.writeNumber(context.getResultObject().getChurn()); // 0 or 1
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				labels[0]++;
+			});
+			gen.writeEndArray();
+			// 같은 스냅샷이라 어긋날 수 없지만, 어긋나면 tensor 쪽 길이 검사에서 학습을 거절한다
+			if (labels[0] != features[0]) {
+				log.warn("이탈 학습 데이터 features {}행, labels {}행으로 다름", features[0], labels[0]);
+			}
+			gen.writeNumberField("count", features[0]);
+			gen.writeEndObject();
+
+			log.info("@# churn features_count => " + features[0]);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
 }
@@ -0,0 +1,173 @@
+package com.boot.analize.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.boot.analize.dto.UserClusteringDTO;
+
+/**
+ * 여섯 감정 점수의 평균 / 공분산(co-moment) / 10 단위 구간 개수를 한 번에 누적 (Welford 방식)
+ * - 행마다 6x6 상삼각 21칸만 갱신, 원시 배열만 사용 (점수 목록을 만들지 않음)
+ * - 평균에서의 편차로 누적하므로 합/제곱합 방식보다 큰 값, 많은 행에서도 오차가 작다
+ * - merge 로 나눠서 누적한 결과를 합칠 수 있다 (Chan 병합 공식, 순서와 관계없이 같은 결과)
+ * - 한 인스턴스는 한 스레드에서만 누적 (병렬로 나눌 때는 파티션마다 하나씩 만들고 merge)
+ * - 감정 순서: 0 happy, 1 sad, 2 tired, 3 excited, 4 calm, 5 stress
+ */
+public final class EmotionMoments {
+
+	public static final int DIMENSIONS = 6;
+
+	// 0~9, 10~19, ..., 100 (점수 0~100), 범위 밖은 overflow
+	private static final int BIN_WIDTH = 10;
+	private static final int BINS = 11;
+
+	private long count;
+	private final double[] mean = new double[DIMENSIONS];
+	// 편차 곱의 합, [i * DIMENSIONS + j] (j >= i 만 사용)
+	private final double[] comoment = new double[DIMENSIONS * DIMENSIONS];
+	private final long[] bins = new long[DIMENSIONS * BINS];
+	private TreeMap<Integer, Long>[] overflow;
+
+	private final double[] delta = new double[DIMENSIONS];
+	private final int[] scores = new int[DIMENSIONS];
+
+	// ResultHandler 에서 바로 넘기는 용도
+	public void add(UserClusteringDTO dto) {
+		scores[0] = dto.getHappy();
+		scores[1] = dto.getSad();
+		scores[2] = dto.getTired();
+		scores[3] = dto.getExcited();
+		scores[4] = dto.getCalm();
+		scores[5] = dto.getStress();
+		add(scores);
+	}
+
+	public void add(int[] values) {
+		count++;
+		for (int i = 0; i < DIMENSIONS; i++) {
+			delta[i] = values[i] - mean[i];
+			mean[i] += delta[i] / count;
+		}
+		// C_ij += (x_i - 이전 평균_i) * (x_j - 새 평균_j)
+		for (int i = 0; i < DIMENSIONS; i++) {
+			for (int j = i; j < DIMENSIONS; j++) {
+				comoment[i * DIMENSIONS + j] += delta[i] * (values[j] - mean[j]);
+			}
+		}
+		for (int i = 0; i < DIMENSIONS; i++) {
+			int bin = values[i] / BIN_WIDTH; // 기존과 같이 0 쪽으로 버림
+			if (bin >= 0 && bin < BINS) {
+				bins[i * BINS + bin]++;
+			} else {
+				overflow(i).merge(bin, 1L, Long::sum);
+			}
+		}
+	}
+
+	/**
+	 * other 의 누적을 이 인스턴스에 합친다 (other 는 바뀌지 않음)
+	 */
+	public EmotionMoments merge(EmotionMoments other) {
+		if (other.count == 0) {
+			return this;
+		}
+		long n = count + other.count;
+		double weight = (double) count * other.count / n;
+		for (int i = 0; i < DIMENSIONS; i++) {
+			delta[i] = other.mean[i] - mean[i];
+		}
+		for (int i = 0; i < DIMENSIONS; i++) {
+			for (int j = i; j < DIMENSIONS; j++) {
+				int k = i * DIMENSIONS + j;
+				comoment[k] += other.comoment[k] + delta[i] * delta[j] * weight;
+			}
+		}
+		for (int i = 0; i < DIMENSIONS; i++) {
+			mean[i] += delta[i] * other.count / n;
+		}
+		count = n;
+		for (int k = 0; k < bins.length; k++) {
+			bins[k] += other.bins[k];
+		}
+		if (other.overflow != null) {
+			for (int i = 0; i < DIMENSIONS; i++) {
+				if (other.overflow[i] != null) {
+					for (Map.Entry<Integer, Long> entry : other.overflow[i].entrySet()) {
+						overflow(i).merge(entry.getKey(), entry.getValue(), Long::sum);
+					}
+				}
+			}
+		}
+		return this;
+	}
+
+	public long count() {
+		return count;
+	}
+
+	public double mean(int i) {
+		return mean[i];
+	}
+
+	/**
+	 * 피어슨 상관계수 (행이 없거나 한쪽 분산이 0 이면 0.0, 기존 계산과 같음)
+	 */
+	public double correlation(int i, int j) {
+		if (count == 0) {
+			return 0.0;
+		}
+		double denominator = Math.sqrt(at(i, i) * at(j, j));
+		if (denominator == 0) {
+			return 0.0;
+		}
+		return at(i, j) / denominator;
+	}
+
+	/**
+	 * i 번째 감정에서 가장 많은 값이 몰린 10 단위 구간의 중심값 (동점이면 낮은 구간, 행이 없으면 4)
+	 */
+	public int mostCohesiveValue(int i) {
+		int maxBin = -1;
+		long maxCount = -1;
+		TreeMap<Integer, Long> outside = overflow == null ? null : overflow[i];
+		if (outside != null) {
+			for (Map.Entry<Integer, Long> entry : outside.headMap(0).entrySet()) {
+				if (entry.getValue() > maxCount) {
+					maxCount = entry.getValue();
+					maxBin = entry.getKey() * BIN_WIDTH;
+				}
+			}
+		}
+		for (int bin = 0; bin < BINS; bin++) {
+			long binCount = bins[i * BINS + bin];
+			if (binCount > 0 && binCount > maxCount) {
+				maxCount = binCount;
+				maxBin = bin * BIN_WIDTH;
+			}
+		}
+		if (outside != null) {
+			for (Map.Entry<Integer, Long> entry : outside.tailMap(BINS).entrySet()) {
+				if (entry.getValue() > maxCount) {
+					maxCount = entry.getValue();
+					maxBin = entry.getKey() * BIN_WIDTH;
+				}
+			}
+		}
+		return maxBin + BIN_WIDTH / 2; // 중심값
+	}
+
+	private double at(int i, int j) {
+		return i <= j ? comoment[i * DIMENSIONS + j] : comoment[j * DIMENSIONS + i];
+	}
+
+	@SuppressWarnings("unchecked")
+	private TreeMap<Integer, Long> overflow(int i) {
+		if (overflow == null) {
+			overflow = new TreeMap[DIMENSIONS];
+		}
+		if (overflow[i] == null) {
+			overflow[i] = new TreeMap<>();
+		}
+		return overflow[i];
+	}
+}
@@ -21,43 +21,36 @@ public class UserClusteringService {
     // 감정 이름 리스트
     private final List<String> emotions = Arrays.asList("happy", "sad", "tired", "excited", "calm", "stress");
 
-    public Map<String, Map<String, Object>> analyzeEmotionCohesion(String created_at) {
-        List<UserClusteringDTO> data = collectEmotionData(created_at);
-
-        // 감정별 값 모음
-        Map<String, List<Double>> emotionMap = new HashMap<>();
-        for (String emotion : emotions) {
-            emotionMap.put(emotion, new ArrayList<>());
-        }
+    // 하루치 감정 점수를 한 번만 읽으면서 누적 (상관계수 30개와 구간 개수를 한 번에)
+    public EmotionMoments collectEmotionMoments(String created_at) {
+        EmotionMoments moments = new EmotionMoments();
+        userClusteringDAO.streamEmotionScoresByDate(created_at, context -> moments.add(context.getResultObject()));
+        return moments;
+    }
 
-        for (UserClusteringDTO dto : data) {
-            emotionMap.get("happy").add((double) dto.getHappy());
-            emotionMap.get("sad").add((double) dto.getSad());
-            emotionMap.get("tired").add((double) dto.getTired());
-            emotionMap.get("excited").add((double) dto.getExcited());
-            emotionMap.get("calm").add((double) dto.getCalm());
-            emotionMap.get("stress").add((double) dto.getStress());
-        }
+    public Map<String, Map<String, Object>> analyzeEmotionCohesion(String created_at) {
+        return analyzeEmotionCohesion(collectEmotionMoments(created_at));
+    }
 
+    // EmotionMoments 의 감정 순서는 emotions 와 같다
+    public Map<String, Map<String, Object>> analyzeEmotionCohesion(EmotionMoments moments) {
         Map<String, Map<String, Object>> result = new LinkedHashMap<>();
 
-        for (String baseEmotion : emotions) {
-            List<Double> baseValues = emotionMap.get(baseEmotion);
-
+        for (int base = 0; base < emotions.size(); base++) {
             // 1. 응집도가 가장 높은 구간 계산
-            int clusterValue = findMostCohesiveCluster(baseValues);
+            int clusterValue = moments.mostCohesiveValue(base);
 
-            // 2. 피어슨 상관계수 계산
+            // 2. 피어슨 상관계수가 가장 높은 감정 (동점이면 emotions 순서상 앞의 것)
             String mostCohesiveEmotion = null;
             double maxCorrelation = Double.NEGATIVE_INFINITY;
 
-            for (String targetEmotion : emotions) {
-                if (baseEmotion.equals(targetEmotion)) continue;
+            for (int target = 0; target < emotions.size(); target++) {
+                if (base == target) continue;
 
-                double corr = calculatePearsonCorrelation(baseValues, emotionMap.get(targetEmotion));
+                double corr = moments.correlation(base, target);
                 if (corr > maxCorrelation) {
                     maxCorrelation = corr;
-                    mostCohesiveEmotion = targetEmotion;
+                    mostCohesiveEmotion = emotions.get(target);
                 }
             }
 
@@ -66,54 +59,9 @@ public class UserClusteringService {
             emotionResult.put("correlationCoefficient", maxCorrelation);
             emotionResult.put("mostCohesiveValue", clusterValue);
 
-            result.put(baseEmotion, emotionResult);
+            result.put(emotions.get(base), emotionResult);
         }
 
         return result;
     }
-
-    // 가장 응집도가 높은 10 단위 구간의 중심값 찾기
-    private int findMostCohesiveCluster(List<Double> values) {
-        Map<Integer, Integer> countMap = new HashMap<>();
-        for (double value : values) {
-            int bin = ((int) value / 10) * 10; // 0~9 -> 0, 10~19 -> 10 ...
-            countMap.put(bin, countMap.getOrDefault(bin, 0) + 1);
-        }
-
-        int maxBin = -1;
-        int maxCount = -1;
-        for (Map.Entry<Integer, Integer> entry : countMap.entrySet()) {
-            if (entry.getValue() > maxCount) {
-                maxCount = entry.getValue();
-                maxBin = entry.getKey();
-            }
-        }
-
-        return maxBin + 5; // 중심값
-    }
-
-    // 피어슨 상관계수 계산
-    private double calculatePearsonCorrelation(List<Double> x, List<Double> y) {
-        if (x.size() != y.size() || x.size() == 0) return 0.0;
-
-        int n = x.size();
-        double sumX = 0, sumY = 0, sumXY = 0;
-        double sumX2 = 0, sumY2 = 0;
-
-        for (int i = 0; i < n; i++) {
-            double xi = x.get(i);
-            double yi = y.get(i);
-            sumX += xi;
-            sumY += yi;
-            sumXY += xi * yi;
-            sumX2 += xi * xi;
-            sumY2 += yi * yi;
-        }
-
-        double numerator = n * sumXY - sumX * sumY;
-        double denominator = Math.sqrt((n * sumX2 - sumX * sumX) * (n * sumY2 - sumY * sumY));
-
-        if (denominator == 0) return 0.0;
-        return numerator / denominator;
-    }
 }
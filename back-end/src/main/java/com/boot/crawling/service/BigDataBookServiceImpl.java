@@ -1,38 +1,70 @@
 package com.boot.crawling.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import com.boot.crawling.dto.BigDataBookDTO;
+import com.boot.z_config.http.OutboundHttpClient;
+import com.boot.z_config.http.SingleFlight;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Service("BigDataBookService")
 public class BigDataBookServiceImpl implements BigDataBookService {
-	private final String BASE_URL = "http://www.nl.go.kr/NL/search/openApi/search.do";
+	// 응답 XML 파서는 스레드 안전하므로 하나만 만들어 재사용 (DTO 에 없는 태그는 무시)
+	private static final XmlMapper XML_MAPPER = XmlMapper.builder()
+			.disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES).build();
+
+	// 국립중앙도서관 검색 API 주소 (로컬 스텁 서버로 바꿔 테스트할 수 있도록 설정으로 분리)
+	@Value("${book.api-url:http://www.nl.go.kr/NL/search/openApi/search.do}")
+	private String BASE_URL;
 
 	@Value("${book.api}")
 	private String SERVICE_KEY;
 
+	@Autowired
+	private OutboundHttpClient outboundHttpClient;
+
+	// 같은 검색 조건(URI)으로 동시에 들어온 요청은 API 를 한 번만 호출하고 결과를 나눠 쓴다
+	private final SingleFlight<URI, BigDataBookDTO> searchFlight;
+
+	public BigDataBookServiceImpl(MeterRegistry registry) {
+		this.searchFlight = new SingleFlight<>("book.search", registry);
+	}
+
 	@Override
 	public BigDataBookDTO searchBooks(String srchTarget, String query, int pageSize, int pageNum, String sort,
 			String category) {
 		log.info("@# searchBooks !!");
 
-		RestTemplate restTemplate = new RestTemplate();
-		restTemplate.getMessageConverters().add(new MappingJackson2XmlHttpMessageConverter());
-
-		log.info("@# searchBooks restTemplate =>" + restTemplate);
-
-		String url = String.format(
-				"%s?key=%s&apiType=xml&srchTarget=%s&kwd=%s&pageSize=%d&pageNum=%d&sort=%s&category=%s", BASE_URL,
-				SERVICE_KEY, srchTarget, query, pageSize, pageNum, sort, category);
+		URI uri = UriComponentsBuilder.fromHttpUrl(BASE_URL)
+				.queryParam("key", SERVICE_KEY)
+				.queryParam("apiType", "xml")
+				.queryParam("srchTarget", srchTarget)
+				.queryParam("kwd", query)
+				.queryParam("pageSize", pageSize)
+				.queryParam("pageNum", pageNum)
+				.queryParam("sort", sort)
+				.queryParam("category", category)
+				.encode().build().toUri();
 
-		log.info("@# searchBooks url =>" + url);
+		log.info("@# searchBooks url =>" + uri.getPath() + " kwd=" + query);
 
-		return restTemplate.getForObject(url, BigDataBookDTO.class);
+		try {
+			return searchFlight.run(uri, () -> XML_MAPPER.readValue(outboundHttpClient.get(uri), BigDataBookDTO.class));
+		} catch (IOException e) {
+			throw new UncheckedIOException("도서 검색 API 호출 실패", e);
+		}
 	}
 }
@@ -1,22 +1,25 @@
 package com.boot.tensor.controller;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.boot.tensor.dto.BookDTO;
-import com.boot.tensor.service.BookService;
+import com.boot.tensor.service.CatalogAdapters;
+import com.boot.tensor.service.CatalogExportService;
+import com.boot.tensor.service.CatalogSnapshot;
+import com.boot.tensor.service.CatalogSnapshotService;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,41 +29,49 @@ import lombok.extern.slf4j.Slf4j;
 public class BookController {
 
     @Autowired
-    private BookService bookService;
+    private CatalogSnapshotService catalogSnapshotService;
 
-    // 학습 데이터
+    @Autowired
+    private CatalogExportService catalogExportService;
+
+    // 학습 데이터 (format=json 기본, format=bin 은 열 단위 바이트 배열 - CatalogExportService 참고)
+    // 두 형식 모두 스냅샷에서 응답 스트림으로 바로 쓴다
+    // 카탈로그 스냅샷이 바뀌지 않았으면 ETag 로 304 응답
     @GetMapping("/book-data")
-    public ResponseEntity<?> getBookData() {
+    public ResponseEntity<?> getBookData(@RequestParam(value = "format", defaultValue = "json") String format,
+            WebRequest webRequest) {
         try {
+            if (!catalogExportService.isSupported(format)) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("status", "error");
+                errorResponse.put("message", "지원하지 않는 형식입니다: " + format);
+                return ResponseEntity.badRequest().body(errorResponse);
+            }
+
+            CatalogSnapshot<BookDTO> snapshot = catalogSnapshotService.book();
+            String etag = catalogExportService.etag("book", format, snapshot);
+            if (webRequest.checkNotModified(etag)) {
+                return null;
+            }
+
             // 캐시 헤더 추가
             HttpHeaders headers = new HttpHeaders();
             headers.setCacheControl("max-age=300"); // 5분 캐시
-            
-            ArrayList<BookDTO> bookList = bookService.getBookDTO();
-            
-            // 스트림을 사용한 더 효율적인 처리
-            List<List<Integer>> features = bookList.parallelStream()
-                .map(dto -> Arrays.asList(
-                    dto.getHappy(), dto.getSad(), dto.getStress(),
-                    dto.getCalm(), dto.getExcited(), dto.getTired()
-                ))
-                .collect(Collectors.toList());
-                
-            List<Integer> labels = bookList.parallelStream()
-                .map(BookDTO::getEmotionNumber)
-                .collect(Collectors.toList());
+            headers.setETag(etag);
 
-            Map<String, Object> response = new HashMap<>();
-            response.put("features", features);
-            response.put("labels", labels);
-            response.put("count", features.size());
+            log.info("@# book export format => " + format + ", count => " + snapshot.size());
 
-            log.info("@# book features_count => " + features.size());
-            log.info("@# book labels_count => " + labels.size());
+            if (CatalogExportService.FORMAT_BIN.equals(format)) {
+                return ResponseEntity.ok()
+                    .headers(headers)
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(catalogExportService.binaryLength(snapshot))
+                    .body(new InputStreamResource(catalogExportService.binary(snapshot, CatalogAdapters.BOOK)));
+            }
 
             return ResponseEntity.ok()
                 .headers(headers)
-                .body(response);
+                .body(catalogExportService.json(snapshot, CatalogAdapters.BOOK));
 
         } catch (Exception e) {
             log.error("BookController getBookData 에러: ", e);
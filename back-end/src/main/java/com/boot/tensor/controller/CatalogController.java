@@ -0,0 +1,42 @@
+package com.boot.tensor.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.boot.tensor.service.CatalogSnapshotService;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("/api")
+public class CatalogController {
+
+	@Autowired
+	private CatalogSnapshotService catalogSnapshotService;
+
+	// 관리자 : 음악/도서/행동 카탈로그 스냅샷 즉시 갱신
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping("/catalog/refresh")
+	public ResponseEntity<?> refreshCatalog() {
+		try {
+			Map<String, Object> result = catalogSnapshotService.refreshAll();
+			log.info("@# catalog refresh =>" + result);
+			return ResponseEntity.ok(result);
+		} catch (Exception e) {
+			log.error("카탈로그 갱신 중 오류 발생: ", e);
+			Map<String, Object> errorResponse = new HashMap<>();
+			errorResponse.put("status", "error");
+			errorResponse.put("message", e.getMessage());
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+		}
+	}
+}
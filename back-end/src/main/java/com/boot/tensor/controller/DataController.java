@@ -1,27 +1,42 @@
 package com.boot.tensor.controller;
 
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.boot.tensor.dto.ActingDTO;
 import com.boot.tensor.dto.BookDTO;
+import com.boot.tensor.dto.ModelPredictionDTO;
 import com.boot.tensor.dto.MusicDTO;
 import com.boot.tensor.service.ActingService;
+import com.boot.tensor.service.BatchRecommendationService;
 import com.boot.tensor.service.BookService;
+import com.boot.tensor.service.EmotionMatrix;
+import com.boot.tensor.service.EmotionModelService;
 import com.boot.tensor.service.MusicService;
-import com.boot.userRecord.dao.YoutubeVideoDAO;
+import com.boot.tensor.service.RecommendStageExecutor;
 import com.boot.userRecord.dto.YoutubeVideoDTO;
-import com.boot.userRecord.service.YoutubeService;
+import com.boot.userRecord.service.YoutubeVideoResolver;
+import com.boot.userRecord.service.YoutubeVideoIdMap;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -40,9 +55,30 @@ public class DataController {
 	private BookService bookService;
 
 	@Autowired
-	private YoutubeVideoDAO youtubeVideoDAO;
+	private RecommendStageExecutor stageExecutor;
+
+	@Autowired
+	private EmotionModelService emotionModelService;
+
+	@Autowired
+	private BatchRecommendationService batchRecommendationService;
+
+	// 일괄 추천 한 번에 받을 수 있는 최대 벡터 수
+	@Value("${recommend.batch.max-size:100000}")
+	private int batchMaxSize;
+
+	// 행동/음악/도서 단계 제한 시간
+	@Value("${recommend.stage-timeout-ms:3000}")
+	private long stageTimeoutMs;
+
+	// 유튜브 조회 제한 시간 (넘기면 대체 정보)
+	@Value("${recommend.youtube-timeout-ms:2000}")
+	private long youtubeTimeoutMs;
+
 	@Autowired
-	private YoutubeService youtubeService;
+	private YoutubeVideoIdMap youtubeVideoIdMap;
+	@Autowired
+	private YoutubeVideoResolver youtubeVideoResolver;
 	
 	@PostMapping("/emotion-result")
 	public ResponseEntity<?> executePredict(@RequestBody Map<String, Object> payload) {
@@ -55,6 +91,11 @@ public class DataController {
 	    
 //	    log.info("@# userEmotionData =>" + userEmotionData);
 	    
+	    // tfResult 가 없으면 userEmotionData 로 서버에서 직접 예측
+	    if (tfResult == null && userEmotionData instanceof Map && emotionModelService.isAvailable()) {
+	        return ResponseEntity.ok(recommendByEmotion((Map<String, Object>) userEmotionData));
+	    }
+
 	    // null 체크
 	    if (tfResult == null) {
 	        return ResponseEntity.badRequest().body("tfResult 데이터가 없습니다.");
@@ -78,55 +119,123 @@ public class DataController {
 //	    log.info("@# musicPredictedClass =>" + musicPredictedClass);
 //	    log.info("@# bookPredictedClass =>" + bookPredictedClass);
 
-	    ArrayList<ActingDTO> act_dtos = actingService.getRandomActing(actPredictedClass + 1, userEmotionData);
-	    ArrayList<MusicDTO> music_dtos = musicService.getRandomMusic(musicPredictedClass + 1, userEmotionData);
-	    ArrayList<BookDTO> book_dtos = bookService.getRandomBook(bookPredictedClass + 1, userEmotionData);
-
-	    
-	    // youtube 정보 추가
-	    List<YoutubeVideoDTO> youtubeVideoDTOs = new ArrayList<>();
+	    Map<String, Object> result = recommend(actPredictedClass, musicPredictedClass, bookPredictedClass,
+	            userEmotionData);
 	    
-	    for (MusicDTO music : music_dtos) {
-	        Long musicNumber = (long) (music.getMusicNumber()%600); // musicNumber 필드 필요
-	        String videoId = youtubeVideoDAO.findVideoIdByMusicNumber(musicNumber);
-
-	        Map<String, String> videoData = new HashMap<>();
-	        if (videoId != null && !videoId.isEmpty()) {
-	            try {
-	                videoData = youtubeService.getVideoDetailsById(videoId);
-	            } catch (IOException e) {
-	                e.printStackTrace();
-	                videoData.put("title", "API 실패");
-	                videoData.put("channel", "API 실패");
-	                videoData.put("thumbnail", "https://i.ytimg.com/vi/" + videoId + "/hqdefault.jpg");
-	                videoData.put("videoUrl", "https://www.youtube.com/watch?v=" + videoId);
-	            }
-	        } else {
-	            videoData.put("title", "영상 없음");
-	            videoData.put("channel", "미등록");
-	            videoData.put("thumbnail", "https://dummyimage.com/480x360/cccccc/000000?text=No+Video");
-	            videoData.put("videoUrl", "#");
+	    log.info("@# result =>" + result);
+
+	    return ResponseEntity.ok(result);
+	}
+
+	// 감정 수치 6개(happy, sad, stressed(또는 stress), calm, excited, tired)만 받아서
+	// 서버 안에서 모델 예측 + 추천까지 한 번에 처리 (Node /predict 왕복 없음)
+	@PostMapping("/emotion-recommend")
+	public ResponseEntity<?> recommendByEmotionValues(@RequestBody Map<String, Object> userEmotionData) {
+	    if (!emotionModelService.isAvailable()) {
+	        Map<String, Object> errorResponse = new HashMap<>();
+	        errorResponse.put("status", "error");
+	        errorResponse.put("message", "감정 분류 모델이 적재되지 않았습니다.");
+	        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+	    }
+	    for (Object value : userEmotionData.values()) {
+	        if (value != null && !(value instanceof Number)) {
+	            return ResponseEntity.badRequest().body("감정 값은 숫자여야 합니다.");
 	        }
+	    }
 
-	        YoutubeVideoDTO videoDTO = new YoutubeVideoDTO(
-	            videoData.get("title"),
-	            videoData.get("channel"),
-	            videoData.get("thumbnail"),
-	            videoData.get("videoUrl")
-	        );
+	    Map<String, Object> result = recommendByEmotion(userEmotionData);
+	    log.info("@# emotion-recommend result =>" + result);
+	    return ResponseEntity.ok(result);
+	}
 
-	        youtubeVideoDTOs.add(videoDTO);
+	// 일괄 예측/추천 (야간 개인화, 부하 테스트용) - 요청: 감정 맵 배열, 응답: NDJSON (입력 순서대로 한 줄씩)
+	@PostMapping("/emotion-recommend/batch")
+	public ResponseEntity<StreamingResponseBody> recommendBatch(@RequestBody List<Map<String, Object>> vectors,
+	        @RequestParam(value = "seed", required = false) Long seed) {
+	    if (vectors.size() > batchMaxSize) {
+	        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+	                "한 번에 최대 " + batchMaxSize + "건까지 요청할 수 있습니다.");
 	    }
-	    
+	    RandomGenerator random = seed != null ? new SplittableRandom(seed) : new SplittableRandom();
+	    StreamingResponseBody body = out -> batchRecommendationService.recommend(vectors, random, out);
+	    return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+	}
+
+	private Map<String, Object> recommendByEmotion(Map<String, Object> userEmotionData) {
+	    Map<String, ModelPredictionDTO> tfResult = emotionModelService.predict(EmotionMatrix.userVector(userEmotionData));
+	    Map<String, Object> result = recommend(
+	            tfResult.get(EmotionModelService.ACT).getPredictedClass(),
+	            tfResult.get(EmotionModelService.MUSIC).getPredictedClass(),
+	            tfResult.get(EmotionModelService.BOOK).getPredictedClass(),
+	            userEmotionData);
+	    result.put("tfResult", tfResult);
+	    return result;
+	}
+
+	/**
+	 * 예측 분류(0~5)와 사용자 감정으로 행동/음악/도서/유튜브 추천 결과 생성
+	 */
+	private Map<String, Object> recommend(int actPredictedClass, int musicPredictedClass, int bookPredictedClass,
+	        Object userEmotionData) {
+	    // 행동/음악/도서는 각자 단계로 동시에 조회하고, 유튜브는 음악 결과가 나오는 대로 곡들의 영상을 한 번에 조회
+	    // 단계가 늦거나 실패하면 해당 항목만 빈 결과(유튜브는 대체 정보)로 응답
+	    List<String> degraded = Collections.synchronizedList(new ArrayList<>());
+
+	    CompletableFuture<ArrayList<ActingDTO>> actFuture = stageExecutor.submit("act",
+	            () -> actingService.getRandomActing(actPredictedClass + 1, userEmotionData),
+	            stageTimeoutMs, () -> degrade(degraded, "act_dtos"));
+	    CompletableFuture<ArrayList<MusicDTO>> musicFuture = stageExecutor.submit("music",
+	            () -> musicService.getRandomMusic(musicPredictedClass + 1, userEmotionData),
+	            stageTimeoutMs, () -> degrade(degraded, "music_dtos"));
+	    CompletableFuture<ArrayList<BookDTO>> bookFuture = stageExecutor.submit("book",
+	            () -> bookService.getRandomBook(bookPredictedClass + 1, userEmotionData),
+	            stageTimeoutMs, () -> degrade(degraded, "book_dtos"));
+
+	    // youtube 정보 추가 (음악 결과가 나오면 곡들의 영상을 한 번에 조회)
+	    // videoId 는 단계 시작 전에 메모리에서 찾아 두고, 시간 초과 시에도 썸네일/링크는 videoId 로 채운다
+	    CompletableFuture<List<YoutubeVideoDTO>> youtubeFuture = musicFuture.thenCompose(musics -> {
+	        List<String> videoIds = videoIds(musics);
+	        return stageExecutor.submit("youtube", () -> youtubeVideoResolver.resolve(videoIds), youtubeTimeoutMs,
+	                () -> {
+	                    degraded.add("youtube_videos");
+	                    return videoIds.stream()
+	                            .map(videoId -> videoId == null ? YoutubeVideoResolver.noVideo()
+	                                    : YoutubeVideoResolver.failed(videoId))
+	                            .collect(Collectors.toList());
+	                });
+	    });
+
+	    ArrayList<ActingDTO> act_dtos = actFuture.join();
+	    ArrayList<MusicDTO> music_dtos = musicFuture.join();
+	    ArrayList<BookDTO> book_dtos = bookFuture.join();
+	    List<YoutubeVideoDTO> youtubeVideoDTOs = youtubeFuture.join();
+
 	    Map<String, Object> result = new HashMap<>();
 	    result.put("act_dtos", act_dtos);
 	    result.put("music_dtos", music_dtos);
 	    result.put("book_dtos", book_dtos);
 	    result.put("youtube_videos", youtubeVideoDTOs);
-	    
-	    log.info("@# result =>" + result);
+	    if (!degraded.isEmpty()) {
+	        result.put("degraded", degraded.stream().distinct().collect(Collectors.toList()));
+	    }
 
-	    return ResponseEntity.ok(result);
+	    return result;
+	}
+
+	// 단계 시간 초과/실패 시 해당 항목을 degraded 에 기록하고 빈 목록으로 대체
+	private <T> ArrayList<T> degrade(List<String> degraded, String section) {
+	    degraded.add(section);
+	    return new ArrayList<>();
+	}
+
+	// 음악 번호로 등록된 유튜브 videoId (없으면 null -> "영상 없음", API 실패 시 "API 실패")
+	private List<String> videoIds(List<MusicDTO> musics) {
+	    List<String> videoIds = new ArrayList<>();
+	    for (MusicDTO music : musics) {
+	        long musicNumber = music.getMusicNumber() % 600; // musicNumber 필드 필요
+	        videoIds.add(youtubeVideoIdMap.videoId(musicNumber));
+	    }
+	    return videoIds;
 	}
 
 	// 해당 감정 통해서 랜덤 3개의 음악, 행동, 도서 추출
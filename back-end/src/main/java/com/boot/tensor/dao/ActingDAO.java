@@ -3,11 +3,15 @@ package com.boot.tensor.dao;
 import java.util.ArrayList;
 
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import com.boot.tensor.dto.ActingDTO;
 
 public interface ActingDAO {
 	public ArrayList<ActingDTO> getActingDTO();
 
+	// 한 행씩 handler 로 전달 (목록을 만들지 않음)
+	public void streamActingDTO(ResultHandler<ActingDTO> handler);
+
 	public ArrayList<ActingDTO> getRandomActing(@Param("actingSubNumber") int actingSubNumber);
 }
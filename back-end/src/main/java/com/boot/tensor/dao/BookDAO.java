@@ -3,12 +3,16 @@ package com.boot.tensor.dao;
 import java.util.ArrayList;
 
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import com.boot.tensor.dto.BookDTO;
 
 public interface BookDAO {
 	public ArrayList<BookDTO> getBookDTO();
 
+	// 한 행씩 handler 로 전달 (목록을 만들지 않음)
+	public void streamBookDTO(ResultHandler<BookDTO> handler);
+
 	public ArrayList<BookDTO> getRandomBook(@Param("bookSubNumber") int bookSubNumber);
 //	public ArrayList<BookDTO> getRandomBook(@Param("emotionNumber") int emotionNumber, @Param("bookSubNumber") int bookSubNumber);
 }
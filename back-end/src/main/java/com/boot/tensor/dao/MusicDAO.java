@@ -3,11 +3,15 @@ package com.boot.tensor.dao;
 import java.util.ArrayList;
 
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import com.boot.tensor.dto.MusicDTO;
 
 public interface MusicDAO {
 	public ArrayList<MusicDTO> getMusicDTO();
 
+	// 한 행씩 handler 로 전달 (목록을 만들지 않음)
+	public void streamMusicDTO(ResultHandler<MusicDTO> handler);
+
 	public ArrayList<MusicDTO> getRandomMusic(@Param("musicSubNumber") int musicSubNumber);
 }
@@ -0,0 +1,14 @@
+package com.boot.tensor.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 모델 하나의 예측 결과 (tensor/app.js /predict 응답의 act/music/book 항목과 같은 형태)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModelPredictionDTO {
+	private int predictedClass;
+	private float[] probabilities;
+}
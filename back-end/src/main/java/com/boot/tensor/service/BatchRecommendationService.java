@@ -0,0 +1,97 @@
+package com.boot.tensor.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.boot.tensor.dto.ActingDTO;
+import com.boot.tensor.dto.BookDTO;
+import com.boot.tensor.dto.ModelPredictionDTO;
+import com.boot.tensor.dto.MusicDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 감정 벡터 여러 건을 한 번에 예측/추천해서 NDJSON(한 줄에 JSON 하나)으로 내보냄
+ * - CHUNK 건씩 묶어 모델 추론(predictBatch)과 카탈로그 점수화(recommendBatch)를 한 번에 처리하고 바로 흘려보낸다
+ * - 카탈로그는 요청 경로와 같은 스냅샷을 사용 (DB 조회 없음), 유튜브 정보는 포함하지 않는다
+ * - 카탈로그가 비어 있으면 해당 항목은 빈 배열
+ */
+@Slf4j
+@Service
+public class BatchRecommendationService {
+
+	public static final int CHUNK = 1024;
+
+	@Autowired
+	private EmotionModelService emotionModelService;
+
+	@Autowired
+	private RecommendationService recommendationService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	public void recommend(List<Map<String, Object>> vectors, RandomGenerator random, OutputStream out)
+			throws IOException {
+		long start = System.currentTimeMillis();
+		int d = EmotionMatrix.DIMENSIONS;
+		boolean predict = emotionModelService.isAvailable();
+
+		JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+		generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+		for (int from = 0; from < vectors.size(); from += CHUNK) {
+			int count = Math.min(CHUNK, vectors.size() - from);
+			float[] users = new float[count * d];
+			for (int u = 0; u < count; u++) {
+				System.arraycopy(EmotionMatrix.userVector(vectors.get(from + u)), 0, users, u * d, d);
+			}
+
+			float[] act = predict ? emotionModelService.model(EmotionModelService.ACT).predictBatch(users, count) : null;
+			float[] music = predict ? emotionModelService.model(EmotionModelService.MUSIC).predictBatch(users, count) : null;
+			float[] book = predict ? emotionModelService.model(EmotionModelService.BOOK).predictBatch(users, count) : null;
+
+			List<List<ActingDTO>> actings = recommendationService.acting().recommendBatch(users, count, random);
+			List<List<MusicDTO>> musics = recommendationService.music().recommendBatch(users, count, random);
+			List<List<BookDTO>> books = recommendationService.book().recommendBatch(users, count, random);
+
+			for (int u = 0; u < count; u++) {
+				Map<String, Object> line = new LinkedHashMap<>();
+				line.put("index", from + u);
+				if (predict) {
+					Map<String, ModelPredictionDTO> tfResult = new LinkedHashMap<>();
+					tfResult.put(EmotionModelService.ACT, prediction(act, count, u));
+					tfResult.put(EmotionModelService.MUSIC, prediction(music, count, u));
+					tfResult.put(EmotionModelService.BOOK, prediction(book, count, u));
+					line.put("tfResult", tfResult);
+				}
+				line.put("act_dtos", actings.get(u));
+				line.put("music_dtos", musics.get(u));
+				line.put("book_dtos", books.get(u));
+				objectMapper.writeValue(generator, line);
+				generator.writeRaw('\n');
+			}
+			generator.flush();
+		}
+
+		log.info("@# 일괄 추천 {}건 완료 ({}ms, 모델 예측 {})", vectors.size(), System.currentTimeMillis() - start, predict);
+	}
+
+	// 평탄화된 [count][classes] 출력에서 row 번째 결과
+	private static ModelPredictionDTO prediction(float[] outputs, int count, int row) {
+		int classes = outputs.length / count;
+		int offset = row * classes;
+		return new ModelPredictionDTO(DenseModel.argMax(outputs, offset, classes),
+				Arrays.copyOfRange(outputs, offset, offset + classes));
+	}
+}
@@ -0,0 +1,20 @@
+package com.boot.tensor.service;
+
+/**
+ * 카탈로그 항목(음악/도서/행동 DTO)을 추천 엔진이 다룰 수 있게 해 주는 어댑터
+ * - 감정 차원 순서: 0 happy, 1 sad, 2 stress, 3 calm, 4 excited, 5 tired
+ */
+public interface CatalogAdapter<T> {
+
+	// 로그/응답에 쓰는 카탈로그 이름 (music, book, acting)
+	String catalogName();
+
+	int number(T item);
+
+	int emotionNumber(T item);
+
+	// 추천 결과 중복 판단 기준이 되는 이름
+	String name(T item);
+
+	int emotion(T item, int dimension);
+}
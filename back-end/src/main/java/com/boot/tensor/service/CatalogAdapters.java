@@ -0,0 +1,119 @@
+package com.boot.tensor.service;
+
+import com.boot.tensor.dto.ActingDTO;
+import com.boot.tensor.dto.BookDTO;
+import com.boot.tensor.dto.MusicDTO;
+
+/**
+ * 음악/도서/행동 DTO 용 CatalogAdapter 모음
+ */
+public final class CatalogAdapters {
+
+	private CatalogAdapters() {
+	}
+
+	public static final CatalogAdapter<MusicDTO> MUSIC = new CatalogAdapter<MusicDTO>() {
+		@Override
+		public String catalogName() {
+			return "music";
+		}
+
+		@Override
+		public int number(MusicDTO item) {
+			return item.getMusicNumber();
+		}
+
+		@Override
+		public int emotionNumber(MusicDTO item) {
+			return item.getEmotionNumber();
+		}
+
+		@Override
+		public String name(MusicDTO item) {
+			return item.getMusicName();
+		}
+
+		@Override
+		public int emotion(MusicDTO item, int dimension) {
+			switch (dimension) {
+			case 0: return item.getHappy();
+			case 1: return item.getSad();
+			case 2: return item.getStress();
+			case 3: return item.getCalm();
+			case 4: return item.getExcited();
+			case 5: return item.getTired();
+			default: throw new IllegalArgumentException("감정 차원은 0~5 입니다: " + dimension);
+			}
+		}
+	};
+
+	public static final CatalogAdapter<BookDTO> BOOK = new CatalogAdapter<BookDTO>() {
+		@Override
+		public String catalogName() {
+			return "book";
+		}
+
+		@Override
+		public int number(BookDTO item) {
+			return item.getBookNumber();
+		}
+
+		@Override
+		public int emotionNumber(BookDTO item) {
+			return item.getEmotionNumber();
+		}
+
+		@Override
+		public String name(BookDTO item) {
+			return item.getBookName();
+		}
+
+		@Override
+		public int emotion(BookDTO item, int dimension) {
+			switch (dimension) {
+			case 0: return item.getHappy();
+			case 1: return item.getSad();
+			case 2: return item.getStress();
+			case 3: return item.getCalm();
+			case 4: return item.getExcited();
+			case 5: return item.getTired();
+			default: throw new IllegalArgumentException("감정 차원은 0~5 입니다: " + dimension);
+			}
+		}
+	};
+
+	public static final CatalogAdapter<ActingDTO> ACTING = new CatalogAdapter<ActingDTO>() {
+		@Override
+		public String catalogName() {
+			return "acting";
+		}
+
+		@Override
+		public int number(ActingDTO item) {
+			return item.getActingNumber();
+		}
+
+		@Override
+		public int emotionNumber(ActingDTO item) {
+			return item.getEmotionNumber();
+		}
+
+		@Override
+		public String name(ActingDTO item) {
+			return item.getActingName();
+		}
+
+		@Override
+		public int emotion(ActingDTO item, int dimension) {
+			switch (dimension) {
+			case 0: return item.getHappy();
+			case 1: return item.getSad();
+			case 2: return item.getStress();
+			case 3: return item.getCalm();
+			case 4: return item.getExcited();
+			case 5: return item.getTired();
+			default: throw new IllegalArgumentException("감정 차원은 0~5 입니다: " + dimension);
+			}
+		}
+	};
+}
@@ -0,0 +1,154 @@
+package com.boot.tensor.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+/**
+ * 학습 데이터(/api/music-data, /api/book-data, /api/act-data) 내보내기
+ * - DB 대신 카탈로그 스냅샷의 감정 열 배열을 그대로 사용
+ * - 두 형식 모두 응답에 쓰는 동안 한 행씩 만들어 낸다 (행 수에 비례하는 복사본 없음)
+ * - json : 기존 형식 그대로 {features: [[6개 감정]], labels: [감정번호], count}
+ * - bin  : 열 단위 바이트 배열 (감정 점수 0~100 은 1바이트)
+ *
+ * <pre>
+ * 헤더 16바이트 (빅 엔디언)
+ *   0  magic "MSEX"
+ *   4  u8  형식 버전 (1)
+ *   5  u8  감정 차원 수 (6)
+ *   6  u16 예약 (0)
+ *   8  u32 행 수 n
+ *   12 u32 카탈로그 지문 (ETag 와 같은 값)
+ * 본문
+ *   happy[n], sad[n], stress[n], calm[n], excited[n], tired[n], labels[n]  (각 u8)
+ * </pre>
+ */
+@Service
+public class CatalogExportService {
+
+	public static final String FORMAT_JSON = "json";
+	public static final String FORMAT_BIN = "bin";
+
+	public static final int HEADER_SIZE = 16;
+	public static final byte FORMAT_VERSION = 1;
+	private static final byte[] MAGIC = { 'M', 'S', 'E', 'X' };
+
+	public boolean isSupported(String format) {
+		return FORMAT_JSON.equals(format) || FORMAT_BIN.equals(format);
+	}
+
+	/**
+	 * 스냅샷 내용이 같으면 재시작 후에도 같은 값 (내용 지문 + 행 수)
+	 */
+	public String etag(String catalog, String format, CatalogSnapshot<?> snapshot) {
+		return "\"" + catalog + "-" + format + "-" + Integer.toHexString(snapshot.getFingerprint()) + "-"
+				+ snapshot.size() + "\"";
+	}
+
+	/**
+	 * {features, labels, count} 를 응답 스트림에 바로 쓰는 본문
+	 * - 스냅샷 감정 열 배열을 한 행씩 읽어 쓰므로 행 수만큼의 목록/배열을 새로 만들지 않는다
+	 */
+	public <T> JsonSerializable json(CatalogSnapshot<T> snapshot, CatalogAdapter<T> adapter) {
+		return new StreamingJson() {
+			@Override
+			public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+				EmotionMatrix matrix = snapshot.getMatrix();
+				List<T> items = snapshot.getItems();
+				int n = snapshot.size();
+				gen.writeStartObject();
+				gen.writeArrayFieldStart("features");
+				for (int row = 0; row < n; row++) {
+					gen.writeStartArray();
+					for (int d = 0; d < EmotionMatrix.DIMENSIONS; d++) {
+						gen.writeNumber((int) matrix.value(row, d));
+					}
+					gen.writeEndArray();
+				}
+				gen.writeEndArray();
+				gen.writeArrayFieldStart("labels");
+				for (int row = 0; row < n; row++) {
+					gen.writeNumber(adapter.emotionNumber(items.get(row)));
+				}
+				gen.writeEndArray();
+				gen.writeNumberField("count", n);
+				gen.writeEndObject();
+			}
+		};
+	}
+
+	public int binaryLength(CatalogSnapshot<?> snapshot) {
+		return HEADER_SIZE + snapshot.size() * (EmotionMatrix.DIMENSIONS + 1);
+	}
+
+	/**
+	 * 바이너리 형식을 읽는 만큼만 만들어 내는 스트림 (전체 바이트 배열을 만들지 않음)
+	 */
+	public <T> InputStream binary(CatalogSnapshot<T> snapshot, CatalogAdapter<T> adapter) {
+		int n = snapshot.size();
+		int dims = EmotionMatrix.DIMENSIONS;
+		byte[] header = ByteBuffer.allocate(HEADER_SIZE).put(MAGIC).put(FORMAT_VERSION).put((byte) dims)
+				.putShort((short) 0).putInt(n).putInt(snapshot.getFingerprint()).array();
+		int length = binaryLength(snapshot);
+		EmotionMatrix matrix = snapshot.getMatrix();
+		List<T> items = snapshot.getItems();
+
+		return new InputStream() {
+			private int position;
+
+			@Override
+			public int read() {
+				if (position >= length) {
+					return -1;
+				}
+				return at(position++) & 0xFF;
+			}
+
+			@Override
+			public int read(byte[] buffer, int offset, int len) {
+				if (len == 0) {
+					return 0;
+				}
+				if (position >= length) {
+					return -1;
+				}
+				int count = Math.min(len, length - position);
+				for (int i = 0; i < count; i++) {
+					buffer[offset + i] = at(position + i);
+				}
+				position += count;
+				return count;
+			}
+
+			@Override
+			public int available() {
+				return length - position;
+			}
+
+			// 헤더 다음은 열 단위: 감정 dims 개 열, 마지막 열은 라벨
+			private byte at(int pos) {
+				if (pos < HEADER_SIZE) {
+					return header[pos];
+				}
+				int column = (pos - HEADER_SIZE) / n;
+				int row = (pos - HEADER_SIZE) % n;
+				if (column < dims) {
+					return toByte((int) matrix.value(row, column));
+				}
+				return toByte(adapter.emotionNumber(items.get(row)));
+			}
+		};
+	}
+
+	// 0~255 범위로 잘라 부호 없는 1바이트로
+	private static byte toByte(int value) {
+		return (byte) Math.max(0, Math.min(255, value));
+	}
+}
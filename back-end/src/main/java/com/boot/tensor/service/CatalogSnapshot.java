@@ -0,0 +1,63 @@
+package com.boot.tensor.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 추천 카탈로그(음악/도서/행동)의 불변 스냅샷
+ * - 시작 시 한 번 적재되고, 갱신 시에는 새 스냅샷으로 통째로 교체된다
+ * - 요청 경로에서는 DB를 조회하지 않고 이 스냅샷만 읽는다
+ * - items 와 matrix 는 같은 행(row) 순서를 가진다
+ * - index 는 카탈로그가 충분히 클 때만 만들어진다 (작으면 null, 전수 조사)
+ */
+public final class CatalogSnapshot<T> {
+
+	private final List<T> items;
+	private final EmotionMatrix matrix;
+	private final EmotionIndex index;
+	private final long version;
+	private final int fingerprint;
+	private final long loadedAt;
+
+	public CatalogSnapshot(List<T> items, EmotionMatrix matrix, EmotionIndex index, long version, int fingerprint, long loadedAt) {
+		this.items = Collections.unmodifiableList(items);
+		this.matrix = matrix;
+		this.index = index;
+		this.version = version;
+		this.fingerprint = fingerprint;
+		this.loadedAt = loadedAt;
+	}
+
+	public static <T> CatalogSnapshot<T> empty() {
+		return new CatalogSnapshot<>(Collections.emptyList(), EmotionMatrix.empty(), null, 0L, 0, 0L);
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+
+	public EmotionMatrix getMatrix() {
+		return matrix;
+	}
+
+	public EmotionIndex getIndex() {
+		return index;
+	}
+
+	public int size() {
+		return items.size();
+	}
+
+	// 내용이 바뀌어 교체될 때마다 증가하는 버전
+	public long getVersion() {
+		return version;
+	}
+
+	public int getFingerprint() {
+		return fingerprint;
+	}
+
+	public long getLoadedAt() {
+		return loadedAt;
+	}
+}
@@ -0,0 +1,140 @@
+package com.boot.tensor.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.SqlSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.boot.tensor.dao.ActingDAO;
+import com.boot.tensor.dao.BookDAO;
+import com.boot.tensor.dao.MusicDAO;
+import com.boot.tensor.dto.ActingDTO;
+import com.boot.tensor.dto.BookDTO;
+import com.boot.tensor.dto.MusicDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 음악/도서/행동 카탈로그 스냅샷 관리
+ * - 기동 시 테이블별로 한 번만 전체 조회
+ * - 주기적으로(또는 관리자 요청 시) 다시 읽어서 내용이 바뀐 경우에만 원자적으로 교체
+ */
+@Slf4j
+@Service
+public class CatalogSnapshotService {
+
+	@Autowired
+	private SqlSession session;
+
+	// 이 크기 이상인 카탈로그만 k-d 트리 색인을 만든다 (작은 카탈로그는 전수 조사가 더 빠르다)
+	// 무작위 감정 분포 기준 2만 건에서는 전수 조사가 더 빠르고 10만 건에서 비슷해진다 (EmotionIndexBenchmark)
+	@Value("${catalog.index-min-size:100000}")
+	private int indexMinSize;
+
+	private final AtomicLong versionSeq = new AtomicLong();
+
+	private final AtomicReference<CatalogSnapshot<MusicDTO>> music = new AtomicReference<>(CatalogSnapshot.empty());
+	private final AtomicReference<CatalogSnapshot<BookDTO>> book = new AtomicReference<>(CatalogSnapshot.empty());
+	private final AtomicReference<CatalogSnapshot<ActingDTO>> acting = new AtomicReference<>(CatalogSnapshot.empty());
+
+	@PostConstruct
+	public void init() {
+		refreshAll();
+	}
+
+	public CatalogSnapshot<MusicDTO> music() {
+		return music.get();
+	}
+
+	public CatalogSnapshot<BookDTO> book() {
+		return book.get();
+	}
+
+	public CatalogSnapshot<ActingDTO> acting() {
+		return acting.get();
+	}
+
+	// 기본 10분마다 재적재 (catalog.refresh-interval-ms 로 조정)
+	@Scheduled(initialDelayString = "${catalog.refresh-interval-ms:600000}", fixedDelayString = "${catalog.refresh-interval-ms:600000}")
+	public void scheduledRefresh() {
+		refreshAll();
+	}
+
+	/**
+	 * 세 카탈로그를 모두 다시 읽는다. 하나가 실패해도 나머지는 갱신되고 실패한 쪽은 이전 스냅샷을 유지한다.
+	 */
+	public synchronized Map<String, Object> refreshAll() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("music", refresh(CatalogAdapters.MUSIC, music,
+				handler -> session.getMapper(MusicDAO.class).streamMusicDTO(handler)));
+		result.put("book", refresh(CatalogAdapters.BOOK, book,
+				handler -> session.getMapper(BookDAO.class).streamBookDTO(handler)));
+		result.put("acting", refresh(CatalogAdapters.ACTING, acting,
+				handler -> session.getMapper(ActingDAO.class).streamActingDTO(handler)));
+		return result;
+	}
+
+	private <T> Map<String, Object> refresh(CatalogAdapter<T> adapter, AtomicReference<CatalogSnapshot<T>> ref,
+			Consumer<ResultHandler<T>> loader) {
+		String name = adapter.catalogName();
+		CatalogSnapshot<T> current = ref.get();
+		Map<String, Object> status = new LinkedHashMap<>();
+		try {
+			List<T> items = load(loader, adapter);
+			// stream*DTO 는 번호순(ORDER BY)이라 내용이 같으면 지문도 같다 (DB 가 행 순서를 바꿔도 교체/ETag 변경 없음)
+			int fingerprint = items.hashCode();
+
+			if (current.getVersion() != 0L && current.getFingerprint() == fingerprint
+					&& current.size() == items.size()) {
+				log.debug("{} 카탈로그 변경 없음 (version={}, size={})", name, current.getVersion(), current.size());
+				status.put("changed", false);
+			} else {
+				EmotionMatrix matrix = EmotionMatrix.of(items, adapter);
+				// 색인은 바뀐 항목만 고치지 않고 새 행렬로 다시 만든다 (행 번호가 스냅샷 순서라 항목이 바뀌면 다시 매겨지고,
+				// 중앙값 분할 트리는 삽입하면 균형이 깨진다). 10만 건에 수십 ms, 갱신 주기마다 지문이 바뀔 때만 실행
+				EmotionIndex index = items.size() >= indexMinSize ? EmotionIndex.build(matrix) : null;
+				CatalogSnapshot<T> next = new CatalogSnapshot<>(items, matrix, index,
+						versionSeq.incrementAndGet(), fingerprint, System.currentTimeMillis());
+				ref.set(next);
+				log.info("{} 카탈로그 스냅샷 교체: version {} -> {}, size {} -> {}, index {}", name, current.getVersion(),
+						next.getVersion(), current.size(), next.size(), index != null);
+				status.put("changed", true);
+			}
+		} catch (Exception e) {
+			log.warn("{} 카탈로그 적재 실패, 이전 스냅샷 유지: {}", name, e.getMessage());
+			status.put("error", e.getMessage());
+		}
+		CatalogSnapshot<T> latest = ref.get();
+		status.put("version", latest.getVersion());
+		status.put("size", latest.size());
+		return status;
+	}
+
+	// 감정 번호 1~6 인 항목만, 번호 기준으로 중복 제거 (이름은 유사할 수 있음)
+	// 조회 결과를 목록으로 받지 않고 한 행씩 받아 바로 걸러낸다 (테이블 전체 목록 + 복사본을 만들지 않음)
+	// 조회 순서(stream*DTO 의 번호순)를 그대로 유지한다 - 지문 비교와 학습 데이터 내보내기(CatalogExportService)가
+	// 같은 입력에 같은 순서를 받도록. 학습/검증 분할 전 섞기는 tensor/app.js 가 SPLIT_SEED 로 한다
+	private <T> List<T> load(Consumer<ResultHandler<T>> loader, CatalogAdapter<T> adapter) {
+		Map<Integer, T> uniqueMap = new LinkedHashMap<>();
+		loader.accept(context -> {
+			T item = context.getResultObject();
+			int emotionNumber = adapter.emotionNumber(item);
+			if (emotionNumber >= 1 && emotionNumber <= 6) {
+				uniqueMap.putIfAbsent(adapter.number(item), item);
+			}
+		});
+		return new ArrayList<>(uniqueMap.values());
+	}
+}
@@ -0,0 +1,223 @@
+package com.boot.tensor.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * TF.js Sequential 모델(model.json + weights.bin)을 JVM 안에서 추론
+ * - tensor/app.js 의 saveModelPureJS 가 저장한 형식: model.json 은 modelTopology, weights.bin 은 float32(리틀 엔디언)
+ *   를 레이어 순서대로 kernel([입력][출력]), bias 로 이어 붙인 것
+ * - Dense(relu, softmax, sigmoid, linear) 만 지원, Dropout 은 추론 시 항등이라 건너뜀
+ * - 가중치는 레이어별 평탄한 float[] 로 보관하고, 만들어진 뒤에는 변경되지 않는다
+ */
+public final class DenseModel {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final String name;
+	private final int[] inputs;
+	private final int[] units;
+	private final float[][] kernels;
+	private final float[][] biases;
+	private final String[] activations;
+	private final int maxUnits;
+
+	private DenseModel(String name, List<int[]> shapes, List<float[]> kernels, List<float[]> biases,
+			List<String> activations) {
+		int layers = shapes.size();
+		this.name = name;
+		this.inputs = new int[layers];
+		this.units = new int[layers];
+		this.kernels = kernels.toArray(new float[0][]);
+		this.biases = biases.toArray(new float[0][]);
+		this.activations = activations.toArray(new String[0]);
+		int max = 0;
+		for (int i = 0; i < layers; i++) {
+			inputs[i] = shapes.get(i)[0];
+			units[i] = shapes.get(i)[1];
+			max = Math.max(max, Math.max(inputs[i], units[i]));
+		}
+		this.maxUnits = max;
+	}
+
+	/**
+	 * dir/model.json, dir/weights.bin 을 읽는다
+	 */
+	public static DenseModel load(Path dir) throws IOException {
+		JsonNode topology = MAPPER.readTree(dir.resolve("model.json").toFile());
+		if (topology.has("modelTopology")) {
+			topology = topology.get("modelTopology");
+		}
+		if (!"Sequential".equals(topology.path("class_name").asText())) {
+			throw new IOException("Sequential 모델만 지원합니다: " + dir);
+		}
+
+		FloatBuffer weights = ByteBuffer.wrap(Files.readAllBytes(dir.resolve("weights.bin")))
+				.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+
+		List<int[]> shapes = new ArrayList<>();
+		List<float[]> kernels = new ArrayList<>();
+		List<float[]> biases = new ArrayList<>();
+		List<String> activations = new ArrayList<>();
+		int previous = -1;
+
+		for (JsonNode layer : topology.path("config").path("layers")) {
+			String className = layer.path("class_name").asText();
+			JsonNode config = layer.path("config");
+			if ("Dropout".equals(className)) {
+				continue;
+			}
+			if (!"Dense".equals(className)) {
+				throw new IOException("지원하지 않는 레이어: " + className + " (" + dir + ")");
+			}
+
+			int in = previous;
+			JsonNode inputShape = config.path("batch_input_shape");
+			if (inputShape.isArray() && inputShape.size() == 2) {
+				in = inputShape.get(1).asInt();
+			}
+			if (in <= 0) {
+				throw new IOException("입력 크기를 알 수 없습니다: " + config.path("name").asText());
+			}
+			int out = config.path("units").asInt();
+			String activation = config.path("activation").asText("linear");
+			if (!activation.equals("relu") && !activation.equals("softmax") && !activation.equals("sigmoid")
+					&& !activation.equals("linear")) {
+				throw new IOException("지원하지 않는 활성화 함수: " + activation);
+			}
+
+			float[] kernel = new float[in * out];
+			weights.get(kernel);
+			float[] bias = new float[out];
+			if (config.path("use_bias").asBoolean(true)) {
+				weights.get(bias);
+			}
+
+			shapes.add(new int[] { in, out });
+			kernels.add(kernel);
+			biases.add(bias);
+			activations.add(activation);
+			previous = out;
+		}
+
+		if (shapes.isEmpty()) {
+			throw new IOException("Dense 레이어가 없습니다: " + dir);
+		}
+		if (weights.hasRemaining()) {
+			throw new IOException("weights.bin 크기가 모델 구조와 맞지 않습니다 (남은 float " + weights.remaining() + "개): " + dir);
+		}
+		return new DenseModel(dir.getFileName().toString(), shapes, kernels, biases, activations);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int inputSize() {
+		return inputs[0];
+	}
+
+	public int outputSize() {
+		return units[units.length - 1];
+	}
+
+	/**
+	 * 한 건 추론. 반환 배열은 출력층 결과 (softmax 면 클래스별 확률)
+	 */
+	public float[] predict(float[] input) {
+		float[] out = new float[outputSize()];
+		predict(input, 0, out, 0, new float[maxUnits], new float[maxUnits]);
+		return out;
+	}
+
+	/**
+	 * 여러 건 추론. input 은 [rows][inputSize] 를 평탄화한 배열, 결과도 [rows][outputSize] 평탄화
+	 */
+	public float[] predictBatch(float[] input, int rows) {
+		int in = inputSize(), outSize = outputSize();
+		float[] out = new float[rows * outSize];
+		float[] a = new float[maxUnits];
+		float[] b = new float[maxUnits];
+		for (int r = 0; r < rows; r++) {
+			predict(input, r * in, out, r * outSize, a, b);
+		}
+		return out;
+	}
+
+	private void predict(float[] input, int inputOffset, float[] out, int outOffset, float[] a, float[] b) {
+		System.arraycopy(input, inputOffset, a, 0, inputs[0]);
+		float[] current = a, next = b;
+		for (int layer = 0; layer < kernels.length; layer++) {
+			dense(layer, current, next);
+			float[] t = current;
+			current = next;
+			next = t;
+		}
+		System.arraycopy(current, 0, out, outOffset, outputSize());
+	}
+
+	// next[j] = act(sum_i x[i] * W[i][j] + b[j])
+	private void dense(int layer, float[] x, float[] next) {
+		int in = inputs[layer], out = units[layer];
+		float[] kernel = kernels[layer];
+		System.arraycopy(biases[layer], 0, next, 0, out);
+		for (int i = 0; i < in; i++) {
+			float xi = x[i];
+			if (xi == 0f) {
+				continue;
+			}
+			int row = i * out;
+			for (int j = 0; j < out; j++) {
+				next[j] += xi * kernel[row + j];
+			}
+		}
+
+		switch (activations[layer]) {
+		case "relu":
+			for (int j = 0; j < out; j++) {
+				if (next[j] < 0f) next[j] = 0f;
+			}
+			break;
+		case "sigmoid":
+			for (int j = 0; j < out; j++) {
+				next[j] = (float) (1.0 / (1.0 + Math.exp(-next[j])));
+			}
+			break;
+		case "softmax":
+			float max = Float.NEGATIVE_INFINITY;
+			for (int j = 0; j < out; j++) {
+				max = Math.max(max, next[j]);
+			}
+			double sum = 0;
+			for (int j = 0; j < out; j++) {
+				next[j] = (float) Math.exp(next[j] - max);
+				sum += next[j];
+			}
+			for (int j = 0; j < out; j++) {
+				next[j] = (float) (next[j] / sum);
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+	public static int argMax(float[] values, int offset, int length) {
+		int best = 0;
+		for (int j = 1; j < length; j++) {
+			if (values[offset + j] > values[offset + best]) {
+				best = j;
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,265 @@
+package com.boot.tensor.service;
+
+import java.util.Arrays;
+
+/**
+ * 6차원 감정 공간의 k-d 트리 (정확한 최근접 탐색)
+ * - 항목 감정 벡터를 단위 벡터로 정규화해 저장한다. 단위 벡터끼리는 cos = 1 - |u - v|^2 / 2 이므로
+ *   코사인 상위 k개 = 유클리드 최근접 k개
+ * - 노드 객체 없이 배열 하나를 중앙값 기준으로 재배치한 암묵적 트리 (구간 [lo, hi) 의 mid 가 분할 노드)
+ * - 영벡터 항목(코사인 0)은 트리에 넣지 않고 따로 보관한다
+ * - 스냅샷과 함께 만들어지며, 만들어진 뒤에는 변경되지 않는다
+ */
+public final class EmotionIndex {
+
+	private static final int D = EmotionMatrix.DIMENSIONS;
+	private static final int LEAF_SIZE = 8;
+	// float 좌표/코사인 계산 오차 보정 (후보를 넓히는 쪽으로만 작용)
+	private static final double EPSILON = 1e-4;
+
+	private final int size;
+	private final float[] coords;
+	private final int[] rows;
+	private final byte[] splitDims;
+	private final int[] zeroRows;
+
+	private EmotionIndex(int size, float[] coords, int[] rows, int[] zeroRows) {
+		this.size = size;
+		this.coords = coords;
+		this.rows = rows;
+		this.splitDims = new byte[size];
+		this.zeroRows = zeroRows;
+	}
+
+	public static EmotionIndex build(EmotionMatrix matrix) {
+		int n = matrix.size();
+		int nonZero = 0;
+		for (int row = 0; row < n; row++) {
+			if (matrix.inverseNorm(row) != 0f) {
+				nonZero++;
+			}
+		}
+
+		float[] coords = new float[nonZero * D];
+		int[] rows = new int[nonZero];
+		int[] zeroRows = new int[n - nonZero];
+		int p = 0, z = 0;
+		for (int row = 0; row < n; row++) {
+			float inv = matrix.inverseNorm(row);
+			if (inv == 0f) {
+				zeroRows[z++] = row;
+				continue;
+			}
+			for (int d = 0; d < D; d++) {
+				coords[p * D + d] = matrix.value(row, d) * inv;
+			}
+			rows[p++] = row;
+		}
+
+		EmotionIndex index = new EmotionIndex(nonZero, coords, rows, zeroRows);
+		index.build(0, nonZero);
+		return index;
+	}
+
+	public int size() {
+		return size + zeroRows.length;
+	}
+
+	/**
+	 * 지터(0 이상 margin 미만)를 더한 점수로 상위 k개를 뽑을 때, 그 k개가 될 수 있는 모든 행을 반환
+	 * - 코사인 k번째 값을 c_k 라 하면 cos <= c_k - margin 인 항목은 지터를 더해도 c_k 를 넘지 못한다
+	 * - 따라서 cos > c_k - margin 인 행만 보면 상위 k개는 전체를 훑은 것과 같다
+	 * - 사용자 벡터가 영벡터거나 트리가 비어 있으면 null (모든 코사인이 0 이므로 전수 조사)
+	 *
+	 * @return 행 번호 오름차순 배열
+	 */
+	public int[] candidates(float[] user, int k, double margin) {
+		double[] q = unit(user);
+		if (q == null || size == 0 || k <= 0) {
+			return null;
+		}
+
+		// 1. 트리 안에서 최근접 k개 -> k번째 코사인
+		int kk = Math.min(k, size);
+		TopKSelector nearest = new TopKSelector(kk);
+		nearest(q, 0, size, nearest);
+		double kthCosine = 1.0 + nearest.minScore() / 2.0;
+		// 트리 항목이 k개보다 적으면 영벡터 항목(코사인 0)까지 k번째 후보가 될 수 있다
+		double bound = kk == k ? kthCosine : Math.min(kthCosine, 0.0);
+
+		// 2. cos > bound - margin 인 항목 수집
+		double threshold = bound - margin - EPSILON;
+		double radius2 = 2.0 * (1.0 - threshold);
+		IntBuffer out = new IntBuffer(Math.max(16, kk * 2));
+		within(q, radius2, 0, size, out);
+		if (threshold < 0.0) {
+			for (int row : zeroRows) {
+				out.add(row);
+			}
+		}
+
+		int[] result = out.toArray();
+		Arrays.sort(result);
+		return result;
+	}
+
+	private static double[] unit(float[] user) {
+		double sq = 0;
+		for (int d = 0; d < D; d++) {
+			sq += (double) user[d] * user[d];
+		}
+		if (sq == 0) {
+			return null;
+		}
+		double inv = 1.0 / Math.sqrt(sq);
+		double[] q = new double[D];
+		for (int d = 0; d < D; d++) {
+			q[d] = user[d] * inv;
+		}
+		return q;
+	}
+
+	private void build(int lo, int hi) {
+		if (hi - lo <= LEAF_SIZE) {
+			return;
+		}
+		int dim = widestDimension(lo, hi);
+		int mid = (lo + hi) >>> 1;
+		select(lo, hi - 1, mid, dim);
+		splitDims[mid] = (byte) dim;
+		build(lo, mid);
+		build(mid + 1, hi);
+	}
+
+	private int widestDimension(int lo, int hi) {
+		int best = 0;
+		float bestSpread = -1f;
+		for (int d = 0; d < D; d++) {
+			float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+			for (int i = lo; i < hi; i++) {
+				float v = coords[i * D + d];
+				if (v < min) min = v;
+				if (v > max) max = v;
+			}
+			if (max - min > bestSpread) {
+				bestSpread = max - min;
+				best = d;
+			}
+		}
+		return best;
+	}
+
+	// quickselect: dim 기준으로 nth 위치에 중앙값이 오도록 [left, right] 재배치
+	private void select(int left, int right, int nth, int dim) {
+		while (right > left) {
+			float pivot = coords[((left + right) >>> 1) * D + dim];
+			int i = left, j = right;
+			while (i <= j) {
+				while (coords[i * D + dim] < pivot) i++;
+				while (coords[j * D + dim] > pivot) j--;
+				if (i <= j) {
+					swap(i++, j--);
+				}
+			}
+			if (nth <= j) {
+				right = j;
+			} else if (nth >= i) {
+				left = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	private void swap(int a, int b) {
+		int ra = a * D, rb = b * D;
+		for (int d = 0; d < D; d++) {
+			float t = coords[ra + d];
+			coords[ra + d] = coords[rb + d];
+			coords[rb + d] = t;
+		}
+		int r = rows[a];
+		rows[a] = rows[b];
+		rows[b] = r;
+	}
+
+	private double distance2(double[] q, int i) {
+		int base = i * D;
+		double sum = 0;
+		for (int d = 0; d < D; d++) {
+			double diff = q[d] - coords[base + d];
+			sum += diff * diff;
+		}
+		return sum;
+	}
+
+	// 점수 = -거리^2 로 두고 TopKSelector 로 최근접 k개 유지 (같은 거리면 행 번호가 작은 쪽)
+	private void nearest(double[] q, int lo, int hi, TopKSelector heap) {
+		if (hi - lo <= LEAF_SIZE) {
+			for (int i = lo; i < hi; i++) {
+				heap.offer(rows[i], -distance2(q, i));
+			}
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		heap.offer(rows[mid], -distance2(q, mid));
+
+		int dim = splitDims[mid];
+		double diff = q[dim] - coords[mid * D + dim];
+		if (diff < 0) {
+			nearest(q, lo, mid, heap);
+			if (!heap.isFull() || diff * diff <= -heap.minScore()) {
+				nearest(q, mid + 1, hi, heap);
+			}
+		} else {
+			nearest(q, mid + 1, hi, heap);
+			if (!heap.isFull() || diff * diff <= -heap.minScore()) {
+				nearest(q, lo, mid, heap);
+			}
+		}
+	}
+
+	private void within(double[] q, double radius2, int lo, int hi, IntBuffer out) {
+		if (hi - lo <= LEAF_SIZE) {
+			for (int i = lo; i < hi; i++) {
+				if (distance2(q, i) < radius2) {
+					out.add(rows[i]);
+				}
+			}
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		if (distance2(q, mid) < radius2) {
+			out.add(rows[mid]);
+		}
+
+		int dim = splitDims[mid];
+		double diff = q[dim] - coords[mid * D + dim];
+		if (diff < 0 || diff * diff < radius2) {
+			within(q, radius2, lo, mid, out);
+		}
+		if (diff >= 0 || diff * diff < radius2) {
+			within(q, radius2, mid + 1, hi, out);
+		}
+	}
+
+	private static final class IntBuffer {
+		private int[] values;
+		private int size;
+
+		IntBuffer(int capacity) {
+			this.values = new int[capacity];
+		}
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package com.boot.tensor.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 카탈로그 감정 점수를 열(column) 단위 float 배열로 보관하는 행렬
+ * - 6개 감정(happy, sad, stress, calm, excited, tired)을 각각 연속된 배열에 저장
+ * - 항목별 L2 norm 의 역수를 미리 계산해 두어 코사인 유사도 계산 시 나눗셈/제곱근이 없다
+ * - 스냅샷과 같은 순서(row)로 만들어지며, 만들어진 뒤에는 변경되지 않는다
+ */
+public final class EmotionMatrix {
+
+	public static final int DIMENSIONS = 6;
+
+	private final int size;
+	private final float[] happy;
+	private final float[] sad;
+	private final float[] stress;
+	private final float[] calm;
+	private final float[] excited;
+	private final float[] tired;
+	private final float[] invNorm;
+
+	private EmotionMatrix(int size) {
+		this.size = size;
+		this.happy = new float[size];
+		this.sad = new float[size];
+		this.stress = new float[size];
+		this.calm = new float[size];
+		this.excited = new float[size];
+		this.tired = new float[size];
+		this.invNorm = new float[size];
+	}
+
+	public static EmotionMatrix empty() {
+		return new EmotionMatrix(0);
+	}
+
+	/**
+	 * 스냅샷 항목 순서대로 감정 열 배열을 만든다
+	 */
+	public static <T> EmotionMatrix of(List<T> items, CatalogAdapter<T> adapter) {
+		EmotionMatrix m = new EmotionMatrix(items.size());
+		for (int i = 0; i < items.size(); i++) {
+			T item = items.get(i);
+			m.set(i, adapter.emotion(item, 0), adapter.emotion(item, 1), adapter.emotion(item, 2),
+					adapter.emotion(item, 3), adapter.emotion(item, 4), adapter.emotion(item, 5));
+		}
+		return m;
+	}
+
+	private void set(int row, float h, float s, float st, float c, float e, float t) {
+		happy[row] = h;
+		sad[row] = s;
+		stress[row] = st;
+		calm[row] = c;
+		excited[row] = e;
+		tired[row] = t;
+		invNorm[row] = inverseNorm(h, s, st, c, e, t);
+	}
+
+	/**
+	 * 사용자 감정 맵(happy, sad, stressed, calm, excited, tired)을 6차원 벡터로 변환
+	 * stressed 가 없으면 tensor/app.js 의 키 이름인 stress 를 사용
+	 */
+	public static float[] userVector(Map<String, Object> userEmotionData) {
+		return new float[] {
+				emotionValue(userEmotionData, "happy"),
+				emotionValue(userEmotionData, "sad"),
+				userEmotionData.containsKey("stressed") ? emotionValue(userEmotionData, "stressed")
+						: emotionValue(userEmotionData, "stress"),
+				emotionValue(userEmotionData, "calm"),
+				emotionValue(userEmotionData, "excited"),
+				emotionValue(userEmotionData, "tired") };
+	}
+
+	private static float emotionValue(Map<String, Object> emotionData, String key) {
+		Object value = emotionData.get(key);
+		if (value instanceof Number) {
+			return ((Number) value).floatValue();
+		}
+		return 0f;
+	}
+
+	public static float inverseNorm(float h, float s, float st, float c, float e, float t) {
+		float sq = h * h + s * s + st * st + c * c + e * e + t * t;
+		return sq == 0f ? 0f : (float) (1.0 / Math.sqrt(sq));
+	}
+
+	/**
+	 * 사용자 벡터와 모든 항목의 코사인 유사도를 out 배열에 기록 (항목별 객체 할당 없음)
+	 * 영벡터(사용자 또는 항목)인 경우 유사도는 0
+	 */
+	public void cosine(float[] user, float[] out) {
+		cosine(user, 0, 0, size, out);
+	}
+
+	/**
+	 * users[userOffset .. userOffset+5] 벡터와 [from, to) 행의 코사인 유사도를 out[0 .. to-from) 에 기록
+	 * (일괄 추천에서 행 블록 단위로 여러 사용자를 계산할 때 사용)
+	 */
+	public void cosine(float[] users, int userOffset, int from, int to, float[] out) {
+		final float u0 = users[userOffset], u1 = users[userOffset + 1], u2 = users[userOffset + 2],
+				u3 = users[userOffset + 3], u4 = users[userOffset + 4], u5 = users[userOffset + 5];
+		final float userInv = inverseNorm(u0, u1, u2, u3, u4, u5);
+		for (int i = from; i < to; i++) {
+			float dot = happy[i] * u0 + sad[i] * u1 + stress[i] * u2
+					+ calm[i] * u3 + excited[i] * u4 + tired[i] * u5;
+			out[i - from] = dot * invNorm[i] * userInv;
+		}
+	}
+
+	// 한 행만 계산 (배열 전체 계산과 같은 연산 순서라 결과도 같다)
+	public float cosine(float[] user, int row) {
+		final float userInv = inverseNorm(user[0], user[1], user[2], user[3], user[4], user[5]);
+		float dot = happy[row] * user[0] + sad[row] * user[1] + stress[row] * user[2]
+				+ calm[row] * user[3] + excited[row] * user[4] + tired[row] * user[5];
+		return dot * invNorm[row] * userInv;
+	}
+
+	public float[] cosine(float[] user) {
+		float[] out = new float[size];
+		cosine(user, out);
+		return out;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public float value(int row, int dimension) {
+		switch (dimension) {
+		case 0: return happy[row];
+		case 1: return sad[row];
+		case 2: return stress[row];
+		case 3: return calm[row];
+		case 4: return excited[row];
+		case 5: return tired[row];
+		default: throw new IllegalArgumentException("감정 차원은 0~5 입니다: " + dimension);
+		}
+	}
+
+	public float inverseNorm(int row) {
+		return invNorm[row];
+	}
+}
@@ -0,0 +1,104 @@
+package com.boot.tensor.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.boot.tensor.dto.ModelPredictionDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 행동/음악/도서 감정 분류 모델을 JVM 안에서 추론
+ * - tensor 디렉터리(tensor.model-dir)의 act_model, music_model, book_model 을 기동 시 한 번 읽어 메모리에 보관
+ * - weights.bin 수정 시각을 주기적으로 확인해 재학습된 모델만 다시 읽는다 (실패 시 이전 모델 유지)
+ */
+@Slf4j
+@Service
+public class EmotionModelService {
+
+	public static final String ACT = "act";
+	public static final String MUSIC = "music";
+	public static final String BOOK = "book";
+
+	@Value("${tensor.model-dir:../tensor}")
+	private String modelDir;
+
+	private final Map<String, DenseModel> models = new ConcurrentHashMap<>();
+	private final Map<String, Long> loadedAt = new ConcurrentHashMap<>();
+
+	@PostConstruct
+	public void init() {
+		reload();
+	}
+
+	// 기본 1분마다 모델 파일 변경 확인
+	@Scheduled(initialDelayString = "${tensor.model-check-interval-ms:60000}", fixedDelayString = "${tensor.model-check-interval-ms:60000}")
+	public void scheduledReload() {
+		reload();
+	}
+
+	public synchronized Map<String, Object> reload() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put(ACT, reload(ACT, "act_model"));
+		result.put(MUSIC, reload(MUSIC, "music_model"));
+		result.put(BOOK, reload(BOOK, "book_model"));
+		return result;
+	}
+
+	private String reload(String key, String directory) {
+		Path dir = Paths.get(modelDir, directory);
+		try {
+			long modified = Files.getLastModifiedTime(dir.resolve("weights.bin")).toMillis();
+			if (models.containsKey(key) && loadedAt.getOrDefault(key, 0L) == modified) {
+				return "unchanged";
+			}
+			DenseModel model = DenseModel.load(dir);
+			if (model.inputSize() != EmotionMatrix.DIMENSIONS) {
+				throw new IllegalStateException("입력 크기가 " + EmotionMatrix.DIMENSIONS + " 가 아닙니다: " + model.inputSize());
+			}
+			models.put(key, model);
+			loadedAt.put(key, modified);
+			log.info("{} 모델 적재: {} (출력 {}개)", key, dir.toAbsolutePath(), model.outputSize());
+			return "loaded";
+		} catch (Exception e) {
+			log.warn("{} 모델 적재 실패 ({}), 이전 모델 유지: {}", key, dir.toAbsolutePath(), e.getMessage());
+			return "error: " + e.getMessage();
+		}
+	}
+
+	public boolean isAvailable() {
+		return models.containsKey(ACT) && models.containsKey(MUSIC) && models.containsKey(BOOK);
+	}
+
+	/**
+	 * 감정 벡터 [happy, sad, stress, calm, excited, tired] 로 세 모델을 모두 예측
+	 * 
+	 * @return act, music, book 키의 예측 결과 (모델이 없는 키는 빠짐)
+	 */
+	public Map<String, ModelPredictionDTO> predict(float[] emotions) {
+		Map<String, ModelPredictionDTO> result = new LinkedHashMap<>();
+		for (String key : new String[] { ACT, MUSIC, BOOK }) {
+			DenseModel model = models.get(key);
+			if (model != null) {
+				float[] probabilities = model.predict(emotions);
+				result.put(key, new ModelPredictionDTO(
+						DenseModel.argMax(probabilities, 0, probabilities.length), probabilities));
+			}
+		}
+		return result;
+	}
+
+	public DenseModel model(String key) {
+		return models.get(key);
+	}
+}
@@ -0,0 +1,67 @@
+package com.boot.tensor.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 추천 요청의 한 단계를 recommendExecutor 에서 실행
+ * - 단계별 제한 시간을 넘기거나 실패/거절되면 fallback 값으로 완료 (예외로 끝나지 않음)
+ * - recommend.stage 타이머에 단계(stage)와 결과(ok, timeout, error, rejected)를 기록
+ */
+@Slf4j
+@Component
+public class RecommendStageExecutor {
+
+	private final ExecutorService executor;
+	private final MeterRegistry meterRegistry;
+
+	public RecommendStageExecutor(@Qualifier("recommendExecutor") ExecutorService executor,
+			MeterRegistry meterRegistry) {
+		this.executor = executor;
+		this.meterRegistry = meterRegistry;
+	}
+
+	public <T> CompletableFuture<T> submit(String stage, Supplier<T> task, long timeoutMs, Supplier<T> fallback) {
+		long start = System.nanoTime();
+		CompletableFuture<T> future;
+		try {
+			future = CompletableFuture.supplyAsync(task, executor);
+		} catch (RejectedExecutionException e) {
+			log.warn("추천 단계 {} 거절 (스레드 풀 포화), 폴백 사용", stage);
+			record(stage, "rejected", start);
+			return CompletableFuture.completedFuture(fallback.get());
+		}
+
+		return future.orTimeout(timeoutMs, TimeUnit.MILLISECONDS).handle((result, ex) -> {
+			if (ex == null) {
+				record(stage, "ok", start);
+				return result;
+			}
+			Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+			if (cause instanceof TimeoutException) {
+				log.warn("추천 단계 {} 시간 초과 ({}ms), 폴백 사용", stage, timeoutMs);
+				record(stage, "timeout", start);
+			} else {
+				log.warn("추천 단계 {} 실패, 폴백 사용: {}", stage, cause.toString());
+				record(stage, "error", start);
+			}
+			return fallback.get();
+		});
+	}
+
+	private void record(String stage, String outcome, long start) {
+		Timer.builder("recommend.stage").tag("stage", stage).tag("outcome", outcome).register(meterRegistry)
+				.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+}
@@ -0,0 +1,167 @@
+package com.boot.tensor.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 격자 양자화한 사용자 감정 벡터 -> 후보 풀(행 번호) 캐시
+ * - 사용자 벡터를 단위 벡터로 정규화한 뒤(각 성분 0~1) step 간격(기본 0.05)으로 반올림한 칸(cell) 단위로 후보 풀을 공유
+ *   (코사인 유사도는 크기와 무관하므로 방향이 같은 벡터는 같은 칸, 점수 범위(0~100 등)와 관계없이 차원당 1/step 칸)
+ * - 음수/NaN/무한대가 섞인 벡터는 칸을 만들지 않고(NO_KEY) 캐시 없이 계산한다
+ * - 후보 풀은 칸 중심 벡터로 계산하고, 요청마다 실제 사용자 벡터로 풀 안의 유사도를 다시 계산해 지터 선택
+ * - 스냅샷 버전이 바뀌면 이전 버전의 풀은 모두 무효
+ * - 최대 maxEntries 칸, 가장 오래 안 쓰인 칸부터 제거 (LRU)
+ */
+@Slf4j
+public final class RecommendationCache {
+
+	// 캐시를 쓸 수 없는 벡터 (정상 키는 60비트 이하의 양수)
+	public static final long NO_KEY = -1L;
+
+	// 차원당 10비트 (0~1023 칸) x 6 = 60비트
+	private static final int BITS = 10;
+	private static final int MAX_LEVEL = (1 << BITS) - 1;
+
+	private final double step;
+	private final Map<Long, CandidatePool> cells;
+	private volatile long version;
+
+	private final Counter hits;
+	private final Counter misses;
+	private final Timer hitLatency;
+	private final Timer missLatency;
+
+	public RecommendationCache(String catalogName, double step, int maxEntries, MeterRegistry registry) {
+		if (!(step > 0) || Math.round(1.0 / step) > MAX_LEVEL) {
+			throw new IllegalArgumentException("격자 간격은 " + (1.0 / MAX_LEVEL) + " 이상이어야 합니다: " + step);
+		}
+		this.step = step;
+		this.cells = new LinkedHashMap<Long, CandidatePool>(64, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, CandidatePool> eldest) {
+				return size() > maxEntries;
+			}
+		};
+
+		this.hits = Counter.builder("recommendation.cache.requests").tag("catalog", catalogName)
+				.tag("result", "hit").register(registry);
+		this.misses = Counter.builder("recommendation.cache.requests").tag("catalog", catalogName)
+				.tag("result", "miss").register(registry);
+		this.hitLatency = Timer.builder("recommendation.latency").tag("catalog", catalogName).tag("cache", "hit")
+				.publishPercentiles(0.5, 0.99).register(registry);
+		this.missLatency = Timer.builder("recommendation.latency").tag("catalog", catalogName).tag("cache", "miss")
+				.publishPercentiles(0.5, 0.99).register(registry);
+		registry.gauge("recommendation.cache.size", Tags.of("catalog", catalogName), this, RecommendationCache::size);
+	}
+
+	/**
+	 * 정규화한 벡터의 칸 번호. 음수/NaN/무한대 성분이 있으면 NO_KEY (영벡터는 모든 성분 0 칸)
+	 */
+	public long key(float[] user) {
+		double sum = 0;
+		for (int d = 0; d < EmotionMatrix.DIMENSIONS; d++) {
+			if (!(user[d] >= 0) || Float.isInfinite(user[d])) {
+				log.warn("추천 캐시를 쓸 수 없는 감정 벡터: {}", Arrays.toString(user));
+				return NO_KEY;
+			}
+			sum += (double) user[d] * user[d];
+		}
+		double norm = Math.sqrt(sum);
+		long key = 0L;
+		for (int d = 0; d < EmotionMatrix.DIMENSIONS; d++) {
+			// 단위 벡터 성분은 0~1 이므로 level 은 0 ~ round(1/step) (생성자에서 MAX_LEVEL 이하 확인)
+			long level = norm == 0 ? 0L : Math.round(user[d] / norm / step);
+			key = (key << BITS) | level;
+		}
+		return key;
+	}
+
+	// 칸 중심 벡터 (단위 벡터 근처, 코사인 계산에는 크기가 상관없음)
+	public float[] center(long key) {
+		float[] center = new float[EmotionMatrix.DIMENSIONS];
+		for (int d = EmotionMatrix.DIMENSIONS - 1; d >= 0; d--) {
+			center[d] = (float) ((key & MAX_LEVEL) * step);
+			key >>>= BITS;
+		}
+		return center;
+	}
+
+	/**
+	 * 현재 스냅샷 버전의 후보 풀. 없거나 다른 버전이면 null
+	 */
+	public CandidatePool get(long key, long snapshotVersion) {
+		synchronized (cells) {
+			// 스냅샷 버전은 계속 증가하므로, 더 새 버전을 처음 보면 전체 무효화
+			if (snapshotVersion > version) {
+				cells.clear();
+				version = snapshotVersion;
+				return null;
+			}
+			if (snapshotVersion != version) {
+				return null;
+			}
+			return cells.get(key);
+		}
+	}
+
+	public void put(long key, CandidatePool pool) {
+		synchronized (cells) {
+			// 계산하는 사이 스냅샷이 바뀌었으면 저장하지 않는다
+			if (pool.getVersion() == version) {
+				cells.put(key, pool);
+			}
+		}
+	}
+
+	public void record(boolean hit, long elapsedNanos) {
+		if (hit) {
+			hits.increment();
+			hitLatency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+		} else {
+			misses.increment();
+			missLatency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	public int size() {
+		synchronized (cells) {
+			return cells.size();
+		}
+	}
+
+	/**
+	 * 한 칸의 후보 풀 - 지터를 더해 상위 topCount 에 들 수 있는 행 번호(오름차순)
+	 */
+	public static final class CandidatePool {
+		private final long version;
+		private final int[] rows;
+		private final int topCount;
+
+		public CandidatePool(long version, int[] rows, int topCount) {
+			this.version = version;
+			this.rows = rows;
+			this.topCount = topCount;
+		}
+
+		public long getVersion() {
+			return version;
+		}
+
+		public int[] getRows() {
+			return rows;
+		}
+
+		public int getTopCount() {
+			return topCount;
+		}
+	}
+}
@@ -0,0 +1,259 @@
+package com.boot.tensor.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+import com.boot.tensor.service.RecommendationCache.CandidatePool;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 감정 벡터 기반 추천 엔진 (음악/도서/행동 공용)
+ * 1. 스냅샷의 감정 행렬로 사용자 벡터와의 코사인 유사도 계산
+ * 2. 유사도에 약간의 무작위성(5%)을 더해 상위 10% 후보만 힙으로 유지
+ * 3. 점수 순으로 이름이 겹치지 않게 3개 선택
+ * 스냅샷에 k-d 트리 색인이 있으면, 지터를 더해도 상위에 들 수 없는 항목은 점수화하지 않는다
+ * (cos <= k번째 코사인 - JITTER 인 항목은 제외해도 선택 결과의 분포가 같다)
+ * 캐시가 있으면 이 후보 풀을 양자화한 사용자 벡터 칸 단위로 재사용한다
+ */
+@Slf4j
+public class RecommendationEngine<T> {
+
+	public static final double TOP_PERCENT = 0.1;
+	public static final int RECOMMEND_COUNT = 3;
+	public static final double JITTER = 0.05;
+	// 색인 사용 시 지터 포함 상위 몇 개까지 정확히 재현할지 (이름 중복 여유분)
+	static final int INDEX_WINDOW_FACTOR = 4;
+	// 일괄 추천 시 한 번에 모든 사용자와 계산할 카탈로그 행 수
+	static final int BATCH_BLOCK = 4096;
+
+	private final CatalogAdapter<T> adapter;
+	private final Supplier<CatalogSnapshot<T>> snapshots;
+	// null 이면 캐시 없이 매 요청 계산
+	private final RecommendationCache cache;
+
+	public RecommendationEngine(CatalogAdapter<T> adapter, Supplier<CatalogSnapshot<T>> snapshots) {
+		this(adapter, snapshots, null);
+	}
+
+	public RecommendationEngine(CatalogAdapter<T> adapter, Supplier<CatalogSnapshot<T>> snapshots,
+			RecommendationCache cache) {
+		this.adapter = adapter;
+		this.snapshots = snapshots;
+		this.cache = cache;
+	}
+
+	public CatalogAdapter<T> getAdapter() {
+		return adapter;
+	}
+
+	public CatalogSnapshot<T> snapshot() {
+		return snapshots.get();
+	}
+
+	// 스마트 추천이 가능한 만큼 항목이 적재되어 있는가
+	public boolean canRecommend() {
+		return snapshot().size() >= RECOMMEND_COUNT;
+	}
+
+	public List<T> recommend(float[] userVector, RandomGenerator random) {
+		CatalogSnapshot<T> snapshot = snapshot();
+		if (snapshot.size() == 0) {
+			return new ArrayList<>();
+		}
+		long key = cache == null ? RecommendationCache.NO_KEY : cache.key(userVector);
+		if (key == RecommendationCache.NO_KEY) {
+			CandidatePool pool = snapshot.getIndex() != null ? candidatePool(snapshot, userVector) : null;
+			return recommend(snapshot, pool, userVector, random, true);
+		}
+
+		// 양자화한 칸의 후보 풀을 재사용하고, 지터 선택은 요청마다 새로 한다
+		long start = System.nanoTime();
+		CandidatePool pool = cache.get(key, snapshot.getVersion());
+		boolean hit = pool != null;
+		if (!hit) {
+			pool = candidatePool(snapshot, cache.center(key));
+			if (pool != null) {
+				cache.put(key, pool);
+			}
+		}
+		List<T> selected = recommend(snapshot, pool, userVector, random, true);
+		cache.record(hit, System.nanoTime() - start);
+		return selected;
+	}
+
+	private List<T> recommend(CatalogSnapshot<T> snapshot, CandidatePool pool, float[] userVector,
+			RandomGenerator random, boolean verbose) {
+		int topCount = topCount(snapshot.size());
+		if (pool != null) {
+			int[] rows = pool.getRows();
+			float[] similarities = new float[rows.length];
+			for (int i = 0; i < rows.length; i++) {
+				similarities[i] = snapshot.getMatrix().cosine(userVector, rows[i]);
+			}
+			List<T> selected = select(snapshot, rows, similarities, random, pool.getTopCount(), verbose);
+			// 구간 안에서 이름이 겹치지 않는 RECOMMEND_COUNT 개를 못 채우면 전수 조사로 다시 계산
+			if (selected.size() == RECOMMEND_COUNT || pool.getTopCount() == topCount) {
+				return selected;
+			}
+			log.debug("{} 후보 풀 부족, 전수 조사로 대체 (후보 {}개)", adapter.catalogName(), rows.length);
+		}
+
+		float[] similarities = snapshot.getMatrix().cosine(userVector);
+		return select(snapshot, null, similarities, random, topCount, verbose);
+	}
+
+	/**
+	 * vector 기준으로 지터를 더해 상위에 들 수 있는 행만 모은 후보 풀
+	 * - 색인이 있으면 k-d 트리로 상위 window 개 구간만, 없으면 전수 조사로 상위 topCount 개 구간
+	 * - 코사인이 k번째 값 - JITTER 이하인 행은 지터를 더해도 상위 k개에 들 수 없다
+	 * - 영벡터라 색인으로 구간을 정할 수 없으면 null
+	 */
+	CandidatePool candidatePool(CatalogSnapshot<T> snapshot, float[] vector) {
+		int topCount = topCount(snapshot.size());
+		EmotionIndex index = snapshot.getIndex();
+		if (index != null) {
+			int window = Math.min(topCount, RECOMMEND_COUNT * INDEX_WINDOW_FACTOR);
+			int[] rows = index.candidates(vector, window, JITTER);
+			return rows == null ? null : new CandidatePool(snapshot.getVersion(), rows, window);
+		}
+
+		float[] similarities = snapshot.getMatrix().cosine(vector);
+		TopKSelector top = new TopKSelector(topCount);
+		for (int i = 0; i < similarities.length; i++) {
+			top.offer(i, similarities[i]);
+		}
+		double threshold = top.minScore() - JITTER;
+		int count = 0;
+		int[] rows = new int[similarities.length];
+		for (int i = 0; i < similarities.length; i++) {
+			if (similarities[i] > threshold) {
+				rows[count++] = i;
+			}
+		}
+		return new CandidatePool(snapshot.getVersion(), Arrays.copyOf(rows, count), topCount);
+	}
+
+	// 상위 퍼센트 계산 (최소 RECOMMEND_COUNT 개는 보장)
+	static int topCount(int size) {
+		return Math.min(Math.max(RECOMMEND_COUNT, (int) (size * TOP_PERCENT)), size);
+	}
+
+	/**
+	 * 상위 퍼센트에서 추천 선택
+	 * - 전체 정렬 없이 상위 후보만 힙으로 유지한 뒤, 점수 순으로 이름이 겹치지 않게 선택
+	 * - rows 가 null 이면 전체 행, 아니면 rows[i] 행의 유사도가 similarities[i]
+	 * - verbose 가 false 면 (일괄 추천) 선택 로그를 남기지 않는다
+	 */
+	List<T> select(CatalogSnapshot<T> snapshot, int[] rows, float[] similarities, RandomGenerator random,
+			int topCount, boolean verbose) {
+		List<T> items = snapshot.getItems();
+		int count = rows == null ? items.size() : rows.length;
+		if (count == 0) {
+			return new ArrayList<>();
+		}
+
+		TopKSelector topCandidates = new TopKSelector(Math.min(topCount, count));
+		for (int i = 0; i < count; i++) {
+			offer(topCandidates, rows == null ? i : rows[i], similarities[i], random);
+		}
+
+		if (verbose) {
+			log.info("{} 상위 {}% 후보 수: {} (점수화: {}, 전체: {})", adapter.catalogName(), (int) (TOP_PERCENT * 100),
+					topCandidates.size(), count, items.size());
+		}
+
+		return pick(items, topCandidates, verbose);
+	}
+
+	/**
+	 * 여러 사용자 벡터를 한 번에 추천 (users 는 [count][6] 평탄화)
+	 * - 색인이 있으면 사용자마다 색인 후보 구간만 점수화
+	 * - 없으면 카탈로그를 BATCH_BLOCK 행씩 나눠 블록 하나를 모든 사용자에 대해 계산한 뒤 다음 블록으로
+	 *   (행렬 열 배열이 캐시에 있는 동안 재사용, 사용자별 TopKSelector 로 상위 window 개 후보 유지)
+	 * - 캐시는 거치지 않는다 (대량 요청이 요청 경로의 LRU 를 밀어내지 않도록)
+	 */
+	public List<List<T>> recommendBatch(float[] users, int count, RandomGenerator random) {
+		CatalogSnapshot<T> snapshot = snapshot();
+		List<List<T>> results = new ArrayList<>(count);
+		int n = snapshot.size();
+		if (n == 0) {
+			for (int u = 0; u < count; u++) {
+				results.add(new ArrayList<>());
+			}
+			return results;
+		}
+
+		int d = EmotionMatrix.DIMENSIONS;
+		if (snapshot.getIndex() != null) {
+			for (int u = 0; u < count; u++) {
+				float[] user = Arrays.copyOfRange(users, u * d, (u + 1) * d);
+				results.add(recommend(snapshot, candidatePool(snapshot, user), user, random, false));
+			}
+			return results;
+		}
+
+		// 상위 topCount 전체 대신 지터 포함 상위 window 개만 유지하고, 그 안에서 이름이 겹치지 않는
+		// RECOMMEND_COUNT 개를 못 채운 사용자만 전수 조사로 다시 계산 (색인 경로와 같은 방식)
+		int topCount = topCount(n);
+		int window = Math.min(topCount, RECOMMEND_COUNT * INDEX_WINDOW_FACTOR);
+		TopKSelector[] selectors = new TopKSelector[count];
+		for (int u = 0; u < count; u++) {
+			selectors[u] = new TopKSelector(window);
+		}
+		float[] block = new float[Math.min(BATCH_BLOCK, n)];
+		for (int from = 0; from < n; from += BATCH_BLOCK) {
+			int to = Math.min(n, from + BATCH_BLOCK);
+			for (int u = 0; u < count; u++) {
+				snapshot.getMatrix().cosine(users, u * d, from, to, block);
+				TopKSelector selector = selectors[u];
+				for (int row = from; row < to; row++) {
+					offer(selector, row, block[row - from], random);
+				}
+			}
+		}
+		for (int u = 0; u < count; u++) {
+			List<T> selected = pick(snapshot.getItems(), selectors[u], false);
+			if (selected.size() < RECOMMEND_COUNT && window < topCount) {
+				selected = recommend(snapshot, null, Arrays.copyOfRange(users, u * d, (u + 1) * d), random, false);
+			}
+			results.add(selected);
+			selectors[u] = null;
+		}
+		return results;
+	}
+
+	// 유사도에 지터(0 이상 JITTER 미만)를 더해 후보로 제시
+	// 지터를 최대로 더해도 현재 k번째 점수를 넘지 못하는 행은 난수를 뽑지 않고 건너뛴다 (선택 분포는 같다)
+	private static void offer(TopKSelector selector, int row, float similarity, RandomGenerator random) {
+		if (selector.isFull() && similarity + JITTER <= selector.minScore()) {
+			return;
+		}
+		selector.offer(row, similarity + random.nextDouble() * JITTER);
+	}
+
+	// 점수 순으로 이름이 겹치지 않게 RECOMMEND_COUNT 개 선택 (selector 는 비워진다)
+	private List<T> pick(List<T> items, TopKSelector topCandidates, boolean verbose) {
+		int[] ranked = topCandidates.drainDescending();
+		List<T> selected = new ArrayList<>();
+		Set<String> usedNames = new HashSet<>();
+
+		for (int rank = 0; rank < ranked.length && selected.size() < RECOMMEND_COUNT; rank++) {
+			T item = items.get(ranked[rank]);
+			if (usedNames.add(adapter.name(item))) {
+				selected.add(item);
+				if (verbose) {
+					log.info("{} 선택: {} (유사도: {}, 감정번호: {})", adapter.catalogName(), adapter.name(item),
+							String.format("%.4f", topCandidates.scoreAt(rank)), adapter.emotionNumber(item));
+				}
+			}
+		}
+
+		return selected;
+	}
+}
@@ -0,0 +1,50 @@
+package com.boot.tensor.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.boot.tensor.dto.ActingDTO;
+import com.boot.tensor.dto.BookDTO;
+import com.boot.tensor.dto.MusicDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 음악/도서/행동 추천 엔진 묶음
+ * - 카탈로그별 엔진은 서로 독립이라 추천 요청의 각 단계에서 동시에 사용할 수 있음
+ */
+@Slf4j
+@Service
+public class RecommendationService {
+
+	private final RecommendationEngine<MusicDTO> musicEngine;
+	private final RecommendationEngine<BookDTO> bookEngine;
+	private final RecommendationEngine<ActingDTO> actingEngine;
+
+	public RecommendationService(CatalogSnapshotService catalogSnapshotService,
+			MeterRegistry meterRegistry,
+			@Value("${recommend.cache.enabled:true}") boolean cacheEnabled,
+			@Value("${recommend.cache.grid-step:0.05}") double gridStep,
+			@Value("${recommend.cache.max-entries:4096}") int maxEntries) {
+		this.musicEngine = new RecommendationEngine<>(CatalogAdapters.MUSIC, catalogSnapshotService::music,
+				cacheEnabled ? new RecommendationCache("music", gridStep, maxEntries, meterRegistry) : null);
+		this.bookEngine = new RecommendationEngine<>(CatalogAdapters.BOOK, catalogSnapshotService::book,
+				cacheEnabled ? new RecommendationCache("book", gridStep, maxEntries, meterRegistry) : null);
+		this.actingEngine = new RecommendationEngine<>(CatalogAdapters.ACTING, catalogSnapshotService::acting,
+				cacheEnabled ? new RecommendationCache("acting", gridStep, maxEntries, meterRegistry) : null);
+		log.info("추천 후보 풀 캐시: enabled={}, grid-step={}, max-entries={}", cacheEnabled, gridStep, maxEntries);
+	}
+
+	public RecommendationEngine<MusicDTO> music() {
+		return musicEngine;
+	}
+
+	public RecommendationEngine<BookDTO> book() {
+		return bookEngine;
+	}
+
+	public RecommendationEngine<ActingDTO> acting() {
+		return actingEngine;
+	}
+}
@@ -0,0 +1,23 @@
+package com.boot.tensor.service;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+/**
+ * 응답 본문으로 반환하면 MappingJackson2HttpMessageConverter 가 serialize 를 호출해 응답 스트림에 바로 쓰는 JSON
+ * - 큰 목록을 Map/List 로 만들어 두지 않고 JsonGenerator 로 한 행씩 쓸 때 사용
+ * - ResponseEntity&lt;?&gt; 에 그대로 담을 수 있어 기존 오류 응답(Map) 처리와 함께 쓸 수 있다
+ * - 직렬화는 컨트롤러가 반환된 뒤에 일어나므로, 이 안에서 난 예외는 컨트롤러의 catch 로 가지 않는다
+ */
+public abstract class StreamingJson extends JsonSerializable.Base {
+
+	@Override
+	public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+			throws IOException {
+		serialize(gen, serializers);
+	}
+}
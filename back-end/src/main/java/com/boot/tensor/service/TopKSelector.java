@@ -0,0 +1,128 @@
+package com.boot.tensor.service;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * 점수 상위 k개의 행(row) 번호만 유지하는 고정 크기 최소 힙
+ * - 전체를 정렬하지 않고 O(n log k) 로 상위 후보를 고른다
+ * - 점수/행 번호를 primitive 배열에 보관하므로 offer 시 객체 할당이 없다
+ * - 점수가 같으면 행 번호가 작은 쪽을 우선한다 (기존 안정 정렬과 같은 순서)
+ */
+public final class TopKSelector {
+
+	private final int capacity;
+	private final double[] scores;
+	private final int[] rows;
+	private int size;
+
+	public TopKSelector(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity 는 1 이상이어야 합니다: " + capacity);
+		}
+		this.capacity = capacity;
+		this.scores = new double[capacity];
+		this.rows = new int[capacity];
+	}
+
+	/**
+	 * 요청 단위 무작위 소스. userEmotionData 에 seed 가 있으면 같은 결과를 재현할 수 있다.
+	 */
+	public static RandomGenerator jitterSource(Map<String, Object> userEmotionData) {
+		Object seed = userEmotionData == null ? null : userEmotionData.get("seed");
+		if (seed instanceof Number) {
+			return new SplittableRandom(((Number) seed).longValue());
+		}
+		return new SplittableRandom();
+	}
+
+	public void offer(int row, double score) {
+		if (size < capacity) {
+			scores[size] = score;
+			rows[size] = row;
+			siftUp(size++);
+		} else if (better(score, row, scores[0], rows[0])) {
+			scores[0] = score;
+			rows[0] = row;
+			siftDown(0, size);
+		}
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isFull() {
+		return size == capacity;
+	}
+
+	// 현재 유지 중인 후보 중 최저 점수 (isFull 일 때 k번째 점수)
+	public double minScore() {
+		return size == 0 ? Double.NEGATIVE_INFINITY : scores[0];
+	}
+
+	/**
+	 * 점수 내림차순으로 정렬된 행 번호를 반환하고 선택기를 비운다 (힙 정렬, O(k log k))
+	 */
+	public int[] drainDescending() {
+		int n = size;
+		for (int end = n - 1; end > 0; end--) {
+			swap(0, end);
+			siftDown(0, end);
+		}
+		int[] result = new int[n];
+		System.arraycopy(rows, 0, result, 0, n);
+		size = 0;
+		return result;
+	}
+
+	// drainDescending 직후 같은 순서의 점수
+	public double scoreAt(int rank) {
+		return scores[rank];
+	}
+
+	// a 가 b 보다 상위인가 (점수가 높거나, 같으면 행 번호가 작을 때)
+	private static boolean better(double scoreA, int rowA, double scoreB, int rowB) {
+		return scoreA > scoreB || (scoreA == scoreB && rowA < rowB);
+	}
+
+	private void siftUp(int i) {
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!better(scores[parent], rows[parent], scores[i], rows[i])) {
+				break;
+			}
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	private void siftDown(int i, int n) {
+		while (true) {
+			int left = 2 * i + 1;
+			if (left >= n) {
+				break;
+			}
+			int worst = left;
+			int right = left + 1;
+			if (right < n && better(scores[worst], rows[worst], scores[right], rows[right])) {
+				worst = right;
+			}
+			if (!better(scores[i], rows[i], scores[worst], rows[worst])) {
+				break;
+			}
+			swap(i, worst);
+			i = worst;
+		}
+	}
+
+	private void swap(int a, int b) {
+		double s = scores[a];
+		scores[a] = scores[b];
+		scores[b] = s;
+		int r = rows[a];
+		rows[a] = rows[b];
+		rows[b] = r;
+	}
+}
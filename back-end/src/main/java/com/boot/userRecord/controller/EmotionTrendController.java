@@ -0,0 +1,56 @@
+package com.boot.userRecord.controller;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.boot.user.dto.BasicUserDTO;
+import com.boot.userRecord.service.EmotionTrendService;
+import com.boot.z_config.security.PrincipalDetails;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("/api")
+public class EmotionTrendController {
+
+	@Autowired
+	private EmotionTrendService emotionTrendService;
+
+	// 내 감정 추이 : 7일/30일 평균, 지수 가중 평균(ewma), 같은 감정 연속 횟수(streak)
+	@GetMapping(value = "/user-emotion-trend", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<?> getTrend(
+			@AuthenticationPrincipal PrincipalDetails principalDetails,
+			HttpServletRequest request
+	) {
+		if (principalDetails == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null); // 인증되지 않은 경우
+		}
+		BasicUserDTO user = (BasicUserDTO) request.getAttribute("user");
+		return ResponseEntity.ok(emotionTrendService.getTrend(user.getUserNumber()));
+	}
+
+	// 관리자 : 전체 기록으로 감정 추이 다시 계산 (이미 실행 중이면 status=running)
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping("/user-emotion-trend/rebuild")
+	public ResponseEntity<?> rebuild() {
+		Map<String, Object> result = emotionTrendService.rebuild();
+		log.info("@# emotion trend rebuild =>" + result);
+		if ("error".equals(result.get("status"))) {
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+		}
+		return ResponseEntity.ok(result);
+	}
+}
@@ -1,7 +1,10 @@
 package com.boot.userRecord.controller;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -11,6 +14,8 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -77,4 +82,61 @@ public class UserRecordController {
 	        return ResponseEntity.noContent().build();
 	    }
     }
+
+    // 기간별 기록 (최신순 페이지), from/to 는 yyyy-MM-dd (기본: 오늘까지 최근 7일), cursor 는 이전 응답의 nextCursor
+    @GetMapping(value = "/test/record/history", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> getHistory(
+    		@RequestParam(value = "from", required = false) String fromStr,
+    		@RequestParam(value = "to", required = false) String toStr,
+    		@RequestParam(value = "cursor", required = false) String cursor,
+    		@RequestParam(value = "size", defaultValue = "20") int size,
+    		@AuthenticationPrincipal PrincipalDetails principalDetails,
+    		HttpServletRequest request
+    ) {
+    	if (principalDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null); // 인증되지 않은 경우
+        }
+        BasicUserDTO user = (BasicUserDTO) request.getAttribute("user");
+
+        try {
+        	LocalDate to = toStr == null ? LocalDate.now() : LocalDate.parse(toStr);
+        	LocalDate from = fromStr == null ? to.minusDays(6) : LocalDate.parse(fromStr);
+        	return ResponseEntity.ok(userRecordService.getHistory(user.getUserNumber(), from, to, cursor, size));
+        } catch (DateTimeParseException | IllegalArgumentException e) { // 잘못된 날짜 형식, 기간, 커서, 크기
+        	Map<String, Object> errorResponse = new HashMap<>();
+        	errorResponse.put("status", "error");
+        	errorResponse.put("message", e.getMessage());
+        	return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    // 감정 기록 저장 (여섯 감정 점수 + 그 세션의 추천 music_ids/action_ids/book_ids), 모아서 저장하므로 202
+    @PostMapping(value = "/test/record", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> submitRecord(
+    		@RequestBody UserRecordDTO record,
+    		@AuthenticationPrincipal PrincipalDetails principalDetails,
+    		HttpServletRequest request
+    ) {
+    	if (principalDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null); // 인증되지 않은 경우
+        }
+        BasicUserDTO user = (BasicUserDTO) request.getAttribute("user");
+        record.setUserNumber(user.getUserNumber());
+
+        Map<String, Object> response = new HashMap<>();
+        try {
+        	if (!userRecordService.submitRecord(record)) {
+        		// 저장 큐가 가득 참 - 잠시 후 다시 시도
+        		response.put("status", "error");
+        		response.put("message", "요청이 많아 잠시 후 다시 시도해 주세요");
+        		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(response);
+        	}
+        } catch (IllegalArgumentException e) { // 추천 번호 목록 형식 오류
+        	response.put("status", "error");
+        	response.put("message", e.getMessage());
+        	return ResponseEntity.badRequest().body(response);
+        }
+        response.put("status", "accepted");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
 }
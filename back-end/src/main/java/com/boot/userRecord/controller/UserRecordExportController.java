@@ -0,0 +1,72 @@
+package com.boot.userRecord.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.boot.user.dto.BasicUserDTO;
+import com.boot.userRecord.service.UserRecordExportService;
+import com.boot.z_config.security.PrincipalDetails;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+public class UserRecordExportController {
+
+	@Autowired
+	private UserRecordExportService userRecordExportService;
+
+	// 내 감정 기록 전체 내보내기 (format: ndjson | csv), 파일로 내려받기
+	@GetMapping("/test/record/export")
+	public ResponseEntity<?> exportMyRecords(
+			@RequestParam(value = "format", defaultValue = "ndjson") String format,
+			@AuthenticationPrincipal PrincipalDetails principalDetails,
+			HttpServletRequest request
+	) {
+		if (principalDetails == null) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null); // 인증되지 않은 경우
+		}
+		BasicUserDTO user = (BasicUserDTO) request.getAttribute("user");
+		return export(user.getUserNumber(), format);
+	}
+
+	// 관리자 : 특정 사용자의 감정 기록 전체 내보내기
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping("/api/user-record/export")
+	public ResponseEntity<?> exportUserRecords(
+			@RequestParam("userNumber") int userNumber,
+			@RequestParam(value = "format", defaultValue = "ndjson") String format
+	) {
+		return export(userNumber, format);
+	}
+
+	private ResponseEntity<?> export(int userNumber, String format) {
+		if (!userRecordExportService.isSupported(format)) {
+			Map<String, Object> errorResponse = new HashMap<>();
+			errorResponse.put("status", "error");
+			errorResponse.put("message", "지원하지 않는 형식입니다: " + format + " (ndjson, csv)");
+			return ResponseEntity.badRequest().body(errorResponse);
+		}
+		// 응답을 쓰는 동안 DB 에서 한 행씩 읽는다 (컨트롤러가 반환된 뒤 실행)
+		StreamingResponseBody body = out -> userRecordExportService.export(userNumber, format, out);
+		String filename = "emotion-records-" + userNumber + "." + format;
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(userRecordExportService.contentType(format)))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+				.body(body);
+	}
+}
@@ -0,0 +1,50 @@
+package com.boot.userRecord.controller;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.boot.userRecord.service.YoutubeCacheWarmer;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@RestController
+@RequestMapping("/api")
+public class YoutubeWarmupController {
+
+	@Autowired
+	private YoutubeCacheWarmer youtubeCacheWarmer;
+
+	// 관리자 : 유튜브 영상 캐시 미리 채우기 진행 상황 / 적중 범위
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping("/youtube/warmup")
+	public ResponseEntity<?> warmupStatus() {
+		return ResponseEntity.ok(youtubeCacheWarmer.status());
+	}
+
+	// 관리자 : 유튜브 영상 캐시 미리 채우기 즉시 시작 (기다리지 않고 상태 반환, 이미 실행 중이면 현재 상태만 반환)
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping("/youtube/warmup")
+	public ResponseEntity<?> runWarmup() {
+		try {
+			Map<String, Object> status = youtubeCacheWarmer.start();
+			log.info("@# youtube warmup started =>" + status);
+			return ResponseEntity.accepted().body(status);
+		} catch (Exception e) {
+			log.error("유튜브 캐시 미리 채우기 중 오류 발생: ", e);
+			Map<String, Object> errorResponse = new HashMap<>();
+			errorResponse.put("status", "error");
+			errorResponse.put("message", e.getMessage());
+			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+		}
+	}
+}
@@ -1,10 +1,12 @@
 package com.boot.userRecord.dao;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import com.boot.userRecord.dto.ActingExceptEmotionDTO;
 import com.boot.userRecord.dto.BookExceptEmotionDTO;
@@ -16,6 +18,16 @@ public interface UserRecordDAO {
 	UserRecordDTO findById(Long id); // id로 데이터 가져오기
 	UserRecordDTO findByNumAndDate(@Param("userNumber") int userNumber, @Param("recordDate") LocalDate date);
 	List<UserRecordDTO> findLatestRecords(int userNumber); // 최신 데이터 7개
+	// [from, to) 구간 최신순 페이지, 커서 (cursorCreatedAt, cursorId) 다음부터 limit 개
+	List<UserRecordDTO> findHistoryPage(@Param("userNumber") int userNumber, @Param("from") LocalDate from,
+			@Param("to") LocalDate to, @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+			@Param("cursorId") Long cursorId, @Param("limit") int limit);
+	// 한 사용자의 전체 기록을 오래된 순으로 (내보내기용)
+	void streamUserRecords(@Param("userNumber") int userNumber, ResultHandler<UserRecordDTO> handler);
+	// id 가 upToId 이하인 기록 전체를 사용자별 시간순으로 (감정 추이 재계산용)
+	void streamEmotionHistory(@Param("upToId") long upToId, ResultHandler<UserRecordDTO> handler);
+	long findMaxId();
+	int insertUserRecord(UserRecordDTO dto);
 	List<ActingExceptEmotionDTO> findInfoByActingNumbers(@Param("actingNumbers") List<Long> actingNumbers);
 	List<BookExceptEmotionDTO> findInfoByBookNumbers(@Param("bookNumbers") List<Long> bookNumbers);
 	List<MusicExceptEmotionDTO> findInfoByMusicNumbers(@Param("musicNumbers") List<Long> musicNumbers);
@@ -1,8 +1,14 @@
 package com.boot.userRecord.dao;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.session.ResultHandler;
+
+import com.boot.userRecord.dto.YoutubeVideoIdDTO;
 
 @Mapper
 public interface YoutubeVideoDAO {
 	String findVideoIdByMusicNumber(Long musicNumber);
-}
\ No newline at end of file
+
+	// 전체 매핑을 음악 번호 순으로 한 행씩 (YoutubeVideoIdMap 적재용)
+	void streamVideoIds(ResultHandler<YoutubeVideoIdDTO> handler);
+}
@@ -1,8 +1,11 @@
 package com.boot.userRecord.dto;
 
 import java.sql.Date;
+import java.sql.Timestamp;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -26,6 +29,9 @@ public class UserRecordDTO {
     private String book_ids;
 
     private Date created_at;
+    // created_at 시각까지 (기간별 조회 커서용, 응답에는 넣지 않음)
+    @JsonIgnore
+    private Timestamp created_at_ts;
     
     private List<MusicExceptEmotionDTO> recommendedMusics;
     private List<ActingExceptEmotionDTO> recommendedActions;
@@ -0,0 +1,14 @@
+package com.boot.userRecord.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// youtubeVideo 테이블 한 행 (음악 번호 -> 유튜브 videoId)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class YoutubeVideoIdDTO {
+    private long musicNumber;
+    private String videoId;
+}
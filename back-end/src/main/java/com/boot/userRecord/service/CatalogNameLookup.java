@@ -0,0 +1,191 @@
+package com.boot.userRecord.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.boot.tensor.dto.ActingDTO;
+import com.boot.tensor.dto.BookDTO;
+import com.boot.tensor.dto.MusicDTO;
+import com.boot.tensor.service.CatalogSnapshot;
+import com.boot.tensor.service.CatalogSnapshotService;
+import com.boot.userRecord.dao.UserRecordDAO;
+import com.boot.userRecord.dto.ActingExceptEmotionDTO;
+import com.boot.userRecord.dto.BookExceptEmotionDTO;
+import com.boot.userRecord.dto.MusicExceptEmotionDTO;
+
+/**
+ * 음악/도서/행동 번호 -> 이름(저자) 조회 (카탈로그 스냅샷 기준, DB 조회 없음)
+ * - 스냅샷마다 번호순으로 정렬한 int[] / String[] 을 한 번 만들어 두고 이분 탐색
+ * - 스냅샷이 교체되면(version 변경) 다음 조회 때 해당 카탈로그만 다시 만든다
+ * - 스냅샷에 없는 번호(감정 번호 1~6 이 아닌 옛 항목, 첫 스냅샷 적재 전 등)는 findInfoBy*Numbers 로 한 번 찾아
+ *   조회 묶음(Names) 안에 결과(없음 포함)를 기억한다 -> 같은 번호는 내보내기 한 번에 최대 한 번만 DB 조회
+ * - DB 에도 없는 번호는 null
+ */
+@Component
+public class CatalogNameLookup {
+
+	@Autowired
+	private CatalogSnapshotService catalogSnapshotService;
+
+	@Autowired
+	private UserRecordDAO userRecordDAO;
+
+	private volatile Index music = Index.EMPTY;
+	private volatile Index book = Index.EMPTY;
+	private volatile Index acting = Index.EMPTY;
+
+	/**
+	 * 지금 스냅샷 기준 조회 묶음 (내보내기 한 번 동안 같은 버전을 쓰도록 한 번만 받아서 사용)
+	 * - 스냅샷에 없는 번호를 기억하므로 한 스레드에서만 사용
+	 */
+	public synchronized Names current() {
+		CatalogSnapshot<MusicDTO> musicSnapshot = catalogSnapshotService.music();
+		if (music.version != musicSnapshot.getVersion()) {
+			music = Index.of(musicSnapshot, MusicDTO::getMusicNumber, MusicDTO::getMusicName, MusicDTO::getMusicAuthor);
+		}
+		CatalogSnapshot<BookDTO> bookSnapshot = catalogSnapshotService.book();
+		if (book.version != bookSnapshot.getVersion()) {
+			book = Index.of(bookSnapshot, BookDTO::getBookNumber, BookDTO::getBookName, BookDTO::getBookAuthor);
+		}
+		CatalogSnapshot<ActingDTO> actingSnapshot = catalogSnapshotService.acting();
+		if (acting.version != actingSnapshot.getVersion()) {
+			acting = Index.of(actingSnapshot, ActingDTO::getActingNumber, ActingDTO::getActingName, item -> null);
+		}
+		return new Names(music, book, acting, userRecordDAO);
+	}
+
+	public static final class Names {
+		private final Index music;
+		private final Index book;
+		private final Index acting;
+		private final UserRecordDAO dao;
+
+		// 스냅샷에 없어 DB 에서 찾은 항목 (DB 에도 없으면 Optional.empty)
+		private final Map<Long, Optional<MusicExceptEmotionDTO>> missingMusics = new HashMap<>();
+		private final Map<Long, Optional<BookExceptEmotionDTO>> missingBooks = new HashMap<>();
+		private final Map<Long, Optional<ActingExceptEmotionDTO>> missingActings = new HashMap<>();
+		private int fallbackQueries;
+
+		private Names(Index music, Index book, Index acting, UserRecordDAO dao) {
+			this.music = music;
+			this.book = book;
+			this.acting = acting;
+			this.dao = dao;
+		}
+
+		public String musicName(long musicNumber) {
+			int i = music.find(musicNumber);
+			if (i >= 0) {
+				return music.names[i];
+			}
+			return missing(missingMusics, musicNumber, dao::findInfoByMusicNumbers)
+					.map(MusicExceptEmotionDTO::getMusicName).orElse(null);
+		}
+
+		public String musicAuthor(long musicNumber) {
+			int i = music.find(musicNumber);
+			if (i >= 0) {
+				return music.authors[i];
+			}
+			return missing(missingMusics, musicNumber, dao::findInfoByMusicNumbers)
+					.map(MusicExceptEmotionDTO::getMusicAuthor).orElse(null);
+		}
+
+		public String bookName(long bookNumber) {
+			int i = book.find(bookNumber);
+			if (i >= 0) {
+				return book.names[i];
+			}
+			return missing(missingBooks, bookNumber, dao::findInfoByBookNumbers)
+					.map(BookExceptEmotionDTO::getBookName).orElse(null);
+		}
+
+		public String bookAuthor(long bookNumber) {
+			int i = book.find(bookNumber);
+			if (i >= 0) {
+				return book.authors[i];
+			}
+			return missing(missingBooks, bookNumber, dao::findInfoByBookNumbers)
+					.map(BookExceptEmotionDTO::getBookAuthor).orElse(null);
+		}
+
+		public String actingName(long actingNumber) {
+			int i = acting.find(actingNumber);
+			if (i >= 0) {
+				return acting.names[i];
+			}
+			return missing(missingActings, actingNumber, dao::findInfoByActingNumbers)
+					.map(ActingExceptEmotionDTO::getActingName).orElse(null);
+		}
+
+		// 스냅샷에 없어 DB 를 조회한 횟수
+		public int fallbackQueries() {
+			return fallbackQueries;
+		}
+
+		private <T> Optional<T> missing(Map<Long, Optional<T>> cache, long number, Function<List<Long>, List<T>> query) {
+			Optional<T> found = cache.get(number);
+			if (found == null) {
+				List<T> rows = query.apply(List.of(number));
+				found = rows.isEmpty() ? Optional.empty() : Optional.ofNullable(rows.get(0));
+				cache.put(number, found);
+				fallbackQueries++;
+			}
+			return found;
+		}
+	}
+
+	private static final class Index {
+		static final Index EMPTY = new Index(0L, new int[0], new String[0], new String[0]);
+
+		final long version;
+		private final int[] numbers;
+		final String[] names;
+		final String[] authors;
+
+		private Index(long version, int[] numbers, String[] names, String[] authors) {
+			this.version = version;
+			this.numbers = numbers;
+			this.names = names;
+			this.authors = authors;
+		}
+
+		// 스냅샷 항목은 번호가 겹치지 않는다 (CatalogSnapshotService 에서 번호 기준 중복 제거)
+		static <T> Index of(CatalogSnapshot<T> snapshot, ToIntFunction<T> number, Function<T, String> name,
+				Function<T, String> author) {
+			List<T> items = snapshot.getItems();
+			int n = items.size();
+			long[] order = new long[n];
+			for (int i = 0; i < n; i++) {
+				// 상위 32비트 번호, 하위 32비트 원래 위치 -> 정렬하면 번호순
+				order[i] = ((long) number.applyAsInt(items.get(i)) << 32) | i;
+			}
+			Arrays.sort(order);
+			int[] numbers = new int[n];
+			String[] names = new String[n];
+			String[] authors = new String[n];
+			for (int i = 0; i < n; i++) {
+				T item = items.get((int) order[i]);
+				numbers[i] = (int) (order[i] >> 32);
+				names[i] = name.apply(item);
+				authors[i] = author.apply(item);
+			}
+			return new Index(snapshot.getVersion(), numbers, names, authors);
+		}
+
+		int find(long number) {
+			if (number < Integer.MIN_VALUE || number > Integer.MAX_VALUE) {
+				return -1;
+			}
+			return Arrays.binarySearch(numbers, (int) number);
+		}
+	}
+}
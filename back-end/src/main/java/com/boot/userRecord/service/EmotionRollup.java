@@ -0,0 +1,141 @@
+package com.boot.userRecord.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.boot.userRecord.dto.UserRecordDTO;
+
+/**
+ * 한 사용자의 감정 누적 상태 (크기 고정, 기록 수와 관계없이 약 1.7KB)
+ * - 최근 30일 일별 합계/건수 원형 버퍼 -> 7일/30일 이동 평균
+ * - 감정별 지수 가중 평균 (EWMA, 기록마다 alpha 만큼 반영)
+ * - 가장 높은 감정(동점이면 EMOTIONS 순서상 앞의 것)이 연속으로 같은 기록 수 (streak)
+ * - 기록은 id 순서(= 저장 순서, 시간 순)로 들어온다고 가정 (30일보다 오래된 기록은 이동 평균에서 제외)
+ * - 마지막으로 반영한 id 이하의 기록은 중복(재계산 중 다시 반영 등)이나 순서 어긋남으로 보고 무시
+ */
+final class EmotionRollup {
+
+	// UserClusteringService 와 같은 순서
+	static final String[] EMOTIONS = { "happy", "sad", "tired", "excited", "calm", "stress" };
+	static final int DAYS = 30;
+
+	private static final int E = EMOTIONS.length;
+	private static final int EMPTY_DAY = Integer.MIN_VALUE;
+
+	private final int[] bucketDay = new int[DAYS];
+	private final int[] bucketCount = new int[DAYS];
+	private final long[] bucketSum = new long[DAYS * E];
+	private final double[] ewma = new double[E];
+
+	private long records;
+	private long lastRecordAt;
+	private long lastRecordId;
+	private int streakEmotion = -1;
+	private int streakLength;
+
+	EmotionRollup() {
+		Arrays.fill(bucketDay, EMPTY_DAY);
+	}
+
+	static int[] scores(UserRecordDTO record) {
+		return new int[] { record.getHappy(), record.getSad(), record.getTired(), record.getExcited(),
+				record.getCalm(), record.getStress() };
+	}
+
+	// 가장 높은 감정의 인덱스 (동점이면 앞의 것)
+	static int dominant(int[] scores) {
+		int best = 0;
+		for (int e = 1; e < E; e++) {
+			if (scores[e] > scores[best]) {
+				best = e;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @return 반영했으면 true, recordId 가 마지막으로 반영한 id 이하라서 무시했으면 false
+	 */
+	synchronized boolean apply(long recordId, long createdAtMillis, int epochDay, int[] scores, double alpha) {
+		if (records > 0 && recordId <= lastRecordId) {
+			return false;
+		}
+		int b = Math.floorMod(epochDay, DAYS);
+		if (bucketDay[b] != epochDay && epochDay > bucketDay[b]) {
+			// 30일 전 같은 자리의 하루를 비우고 새 날짜로
+			bucketDay[b] = epochDay;
+			bucketCount[b] = 0;
+			Arrays.fill(bucketSum, b * E, b * E + E, 0L);
+		}
+		if (bucketDay[b] == epochDay) {
+			bucketCount[b]++;
+			for (int e = 0; e < E; e++) {
+				bucketSum[b * E + e] += scores[e];
+			}
+		}
+
+		for (int e = 0; e < E; e++) {
+			ewma[e] = records == 0 ? scores[e] : ewma[e] + alpha * (scores[e] - ewma[e]);
+		}
+
+		int dominant = dominant(scores);
+		if (dominant == streakEmotion) {
+			streakLength++;
+		} else {
+			streakEmotion = dominant;
+			streakLength = 1;
+		}
+
+		records++;
+		lastRecordAt = createdAtMillis;
+		lastRecordId = recordId;
+		return true;
+	}
+
+	/**
+	 * today 기준 응답용 (최근 7일/30일 평균은 today 를 포함한 그 기간 안의 기록만, 기록이 없으면 null)
+	 */
+	synchronized Map<String, Object> toMap(int today) {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("records", records);
+		result.put("lastRecordAt", records == 0 ? null : lastRecordAt);
+		result.put("avg7", average(today, 7));
+		result.put("avg30", average(today, DAYS));
+		result.put("ewma", records == 0 ? null : named(ewma));
+		Map<String, Object> streak = new LinkedHashMap<>();
+		streak.put("emotion", streakEmotion < 0 ? null : EMOTIONS[streakEmotion]);
+		streak.put("length", streakLength);
+		result.put("streak", streak);
+		return result;
+	}
+
+	private Map<String, Double> average(int today, int days) {
+		long count = 0;
+		double[] sums = new double[E];
+		for (int b = 0; b < DAYS; b++) {
+			int day = bucketDay[b];
+			if (day != EMPTY_DAY && day <= today && day > today - days) {
+				count += bucketCount[b];
+				for (int e = 0; e < E; e++) {
+					sums[e] += bucketSum[b * E + e];
+				}
+			}
+		}
+		if (count == 0) {
+			return null;
+		}
+		for (int e = 0; e < E; e++) {
+			sums[e] /= count;
+		}
+		return named(sums);
+	}
+
+	private static Map<String, Double> named(double[] values) {
+		Map<String, Double> result = new LinkedHashMap<>();
+		for (int e = 0; e < E; e++) {
+			result.put(EMOTIONS[e], values[e]);
+		}
+		return result;
+	}
+}
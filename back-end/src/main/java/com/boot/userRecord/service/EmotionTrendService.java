@@ -0,0 +1,162 @@
+package com.boot.userRecord.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.boot.userRecord.dao.UserRecordDAO;
+import com.boot.userRecord.dto.UserRecordDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 사용자별 감정 추이 (7일/30일 이동 평균, 지수 가중 평균, 같은 감정 연속 횟수)
+ * - 기록이 저장될 때마다(UserRecordIngestQueue 커밋 후) 해당 사용자의 EmotionRollup 만 갱신 -> 조회는 기록 수와 무관
+ * - 기동 직후와 하루 한 번(emotion.trend.rebuild-interval-ms) 전체 기록을 한 행씩 읽어 다시 계산
+ *   (재시작으로 비어 있던 상태 복구, 다른 경로로 들어온 기록 반영)
+ * - 재계산 중 저장된 기록은 따로 모아 두었다가, 재계산이 읽은 범위(id) 밖의 것만 새 상태에 다시 반영
+ *   (EmotionRollup 이 사용자별 마지막 id 이하의 기록을 무시하므로 같은 기록이 두 번 들어가도 한 번만 반영)
+ */
+@Slf4j
+@Service
+public class EmotionTrendService {
+
+	@Autowired
+	private UserRecordDAO userRecordDAO;
+
+	// 지수 가중 평균에서 새 기록의 비중 (0~1, 클수록 최근 기록 위주)
+	@Value("${emotion.trend.ewma-alpha:0.3}")
+	private double alpha;
+
+	private final Clock clock = Clock.systemDefaultZone();
+	private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+	private volatile Map<Integer, EmotionRollup> rollups = new ConcurrentHashMap<>();
+
+	// 재계산 중 저장된 기록 (rebuilding 일 때만 사용, rollups 교체와 함께 this 로 동기화)
+	private List<UserRecordDTO> pending = new ArrayList<>();
+
+	private volatile long lastRebuiltAt;
+	private volatile long lastRebuildMillis;
+
+	public EmotionTrendService(MeterRegistry registry) {
+		registry.gauge("emotion.trend.users", this, service -> service.rollups.size());
+	}
+
+	/**
+	 * 저장이 끝난 기록을 반영 (id, created_at_ts 가 채워져 있어야 함)
+	 */
+	public synchronized void apply(UserRecordDTO record) {
+		if (record.getCreated_at_ts() == null) {
+			return;
+		}
+		// 교체와 같은 락 안에서 반영해야 재계산 결과에 두 번 들어가지 않는다 (쓰기 스레드가 하나라 경합은 거의 없음)
+		if (rebuilding.get()) {
+			pending.add(record);
+		}
+		apply(rollups, record);
+	}
+
+	public synchronized void applyAll(List<UserRecordDTO> records) {
+		for (UserRecordDTO record : records) {
+			apply(record);
+		}
+	}
+
+	/**
+	 * 한 사용자의 감정 추이 (기록이 없으면 records 0, 나머지는 null)
+	 */
+	public Map<String, Object> getTrend(int userNumber) {
+		EmotionRollup rollup = rollups.get(userNumber);
+		Map<String, Object> trend = new LinkedHashMap<>();
+		trend.put("userNumber", userNumber);
+		trend.putAll((rollup == null ? new EmotionRollup() : rollup).toMap(epochDay(LocalDate.now(clock))));
+		return trend;
+	}
+
+	// 기동 후 기본 10초 뒤, 이후 하루마다
+	@Scheduled(initialDelayString = "${emotion.trend.rebuild-initial-delay-ms:10000}", fixedDelayString = "${emotion.trend.rebuild-interval-ms:86400000}")
+	public void scheduledRebuild() {
+		rebuild();
+	}
+
+	/**
+	 * 전체 기록으로 다시 계산해 교체 (이미 실행 중이면 바로 반환, 실패하면 기존 상태 유지)
+	 * @return 실행 결과
+	 */
+	public Map<String, Object> rebuild() {
+		Map<String, Object> result = new HashMap<>();
+		if (!rebuilding.compareAndSet(false, true)) {
+			result.put("status", "running");
+			return result;
+		}
+		long start = clock.millis();
+		try {
+			// 이 시점 이후에 커밋된 기록은 pending 에도 들어가므로 upToId 보다 큰 것만 다시 반영
+			long upToId = userRecordDAO.findMaxId();
+			Map<Integer, EmotionRollup> next = new ConcurrentHashMap<>();
+			long[] rows = new long[1];
+			userRecordDAO.streamEmotionHistory(upToId, context -> {
+				apply(next, context.getResultObject());
+				rows[0]++;
+			});
+			synchronized (this) {
+				for (UserRecordDTO record : pending) {
+					if (record.getId() > upToId) {
+						apply(next, record);
+					}
+				}
+				rollups = next;
+				pending = new ArrayList<>();
+				rebuilding.set(false);
+			}
+			lastRebuiltAt = start;
+			lastRebuildMillis = clock.millis() - start;
+			log.info("감정 추이 재계산 완료: 사용자 {}명, 기록 {}개, {}ms", next.size(), rows[0], lastRebuildMillis);
+			result.put("status", "done");
+			result.put("users", next.size());
+			result.put("records", rows[0]);
+		} catch (RuntimeException e) {
+			log.warn("감정 추이 재계산 실패, 기존 상태 유지: {}", e.getMessage());
+			result.put("status", "error");
+			result.put("message", e.getMessage());
+		} finally {
+			synchronized (this) {
+				if (rebuilding.get()) {
+					pending = new ArrayList<>();
+					rebuilding.set(false);
+				}
+			}
+		}
+		result.put("lastRebuiltAt", lastRebuiltAt);
+		result.put("lastRebuildMillis", lastRebuildMillis);
+		return result;
+	}
+
+	private void apply(Map<Integer, EmotionRollup> target, UserRecordDTO record) {
+		EmotionRollup rollup = target.computeIfAbsent(record.getUserNumber(), userNumber -> new EmotionRollup());
+		LocalDate day = record.getCreated_at_ts().toLocalDateTime().toLocalDate();
+		if (!rollup.apply(record.getId(), record.getCreated_at_ts().getTime(), epochDay(day),
+				EmotionRollup.scores(record), alpha)) {
+			log.debug("감정 추이 중복/순서 어긋난 기록 무시: userNumber={}, id={}", record.getUserNumber(), record.getId());
+		}
+	}
+
+	private static int epochDay(LocalDate day) {
+		return (int) day.toEpochDay();
+	}
+}
@@ -0,0 +1,257 @@
+package com.boot.userRecord.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.boot.userRecord.dao.UserRecordDAO;
+import com.boot.userRecord.dto.UserRecordDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 한 사용자의 감정 기록 전체 내보내기 (오래된 순)
+ * - DB 에서 한 행씩 받아 바로 응답 스트림에 쓴다 (기록 수와 관계없이 메모리 일정)
+ * - 추천 항목 이름/저자는 카탈로그 스냅샷(CatalogNameLookup)에서 찾는다 (기록마다 IN 조회하지 않음, 스냅샷에 없는 번호만 한 번씩 DB 조회)
+ * - ndjson : 한 줄에 기록 하나, 추천 항목은 기존 응답과 같은 필드명 (recommendedMusics 등)
+ * - csv    : 엑셀에서 한글이 깨지지 않도록 UTF-8 BOM, 추천 번호/이름은 칸 안에서 | 로 구분 (같은 순서)
+ * - 잘못 저장된 추천 번호는 건너뛴다 (내보내기 도중 실패하지 않도록)
+ */
+@Slf4j
+@Service
+public class UserRecordExportService {
+
+	public static final String FORMAT_NDJSON = "ndjson";
+	public static final String FORMAT_CSV = "csv";
+
+	// 이 행 수마다 응답으로 내보낸다 (받는 쪽에서 진행 상황이 보이도록)
+	private static final int FLUSH_ROWS = 500;
+
+	// 초가 0 이어도 생략하지 않도록 형식 고정
+	private static final DateTimeFormatter CREATED_AT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+	private static final String CSV_HEADER = "id,created_at,happy,sad,stress,calm,excited,tired,"
+			+ "music_ids,music_names,action_ids,action_names,book_ids,book_names";
+
+	@Autowired
+	private UserRecordDAO userRecordDAO;
+
+	@Autowired
+	private CatalogNameLookup catalogNameLookup;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	public boolean isSupported(String format) {
+		return FORMAT_NDJSON.equals(format) || FORMAT_CSV.equals(format);
+	}
+
+	public String contentType(String format) {
+		return FORMAT_CSV.equals(format) ? "text/csv; charset=UTF-8" : "application/x-ndjson";
+	}
+
+	/**
+	 * @return 내보낸 기록 수
+	 */
+	public long export(int userNumber, String format, OutputStream out) throws IOException {
+		long start = System.currentTimeMillis();
+		CatalogNameLookup.Names names = catalogNameLookup.current();
+		long rows = FORMAT_CSV.equals(format) ? writeCsv(userNumber, names, out) : writeNdjson(userNumber, names, out);
+		log.info("@# 감정 기록 내보내기 userNumber={}, {} {}건 ({}ms, 스냅샷에 없는 항목 DB 조회 {}번)", userNumber, format,
+				rows, System.currentTimeMillis() - start, names.fallbackQueries());
+		return rows;
+	}
+
+	private long writeNdjson(int userNumber, CatalogNameLookup.Names names, OutputStream out) throws IOException {
+		JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+		gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		gen.setRootValueSeparator(null); // 줄 구분은 직접 '\n'
+		long[] rows = new long[1];
+		stream(userNumber, record -> {
+			gen.writeStartObject();
+			gen.writeNumberField("id", record.getId());
+			gen.writeStringField("created_at", createdAt(record));
+			gen.writeNumberField("happy", record.getHappy());
+			gen.writeNumberField("sad", record.getSad());
+			gen.writeNumberField("stress", record.getStress());
+			gen.writeNumberField("calm", record.getCalm());
+			gen.writeNumberField("excited", record.getExcited());
+			gen.writeNumberField("tired", record.getTired());
+
+			gen.writeArrayFieldStart("recommendedMusics");
+			for (long number : parseIds(record.getMusic_ids())) {
+				gen.writeStartObject();
+				gen.writeNumberField("musicNumber", number);
+				gen.writeStringField("musicName", names.musicName(number));
+				gen.writeStringField("musicAuthor", names.musicAuthor(number));
+				gen.writeEndObject();
+			}
+			gen.writeEndArray();
+
+			gen.writeArrayFieldStart("recommendedActions");
+			for (long number : parseIds(record.getAction_ids())) {
+				gen.writeStartObject();
+				gen.writeNumberField("actingNumber", number);
+				gen.writeStringField("actingName", names.actingName(number));
+				gen.writeEndObject();
+			}
+			gen.writeEndArray();
+
+			gen.writeArrayFieldStart("recommendedBooks");
+			for (long number : parseIds(record.getBook_ids())) {
+				gen.writeStartObject();
+				gen.writeNumberField("bookNumber", number);
+				gen.writeStringField("bookName", names.bookName(number));
+				gen.writeStringField("bookAuthor", names.bookAuthor(number));
+				gen.writeEndObject();
+			}
+			gen.writeEndArray();
+
+			gen.writeEndObject();
+			gen.writeRaw('\n');
+			if (++rows[0] % FLUSH_ROWS == 0) {
+				gen.flush();
+			}
+		});
+		gen.flush();
+		return rows[0];
+	}
+
+	private long writeCsv(int userNumber, CatalogNameLookup.Names names, OutputStream out) throws IOException {
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		writer.write('\uFEFF');
+		writer.write(CSV_HEADER);
+		writer.write("\r\n");
+		long[] rows = new long[1];
+		StringBuilder ids = new StringBuilder();
+		StringBuilder labels = new StringBuilder();
+		stream(userNumber, record -> {
+			writer.write(Long.toString(record.getId()));
+			writer.write(',');
+			writer.write(createdAt(record));
+			for (int score : new int[] { record.getHappy(), record.getSad(), record.getStress(), record.getCalm(),
+					record.getExcited(), record.getTired() }) {
+				writer.write(',');
+				writer.write(Integer.toString(score));
+			}
+
+			long[] musics = parseIds(record.getMusic_ids());
+			ids.setLength(0);
+			labels.setLength(0);
+			for (int i = 0; i < musics.length; i++) {
+				append(ids, labels, i, musics[i], names.musicName(musics[i]));
+			}
+			writeCells(writer, ids, labels);
+
+			long[] actions = parseIds(record.getAction_ids());
+			ids.setLength(0);
+			labels.setLength(0);
+			for (int i = 0; i < actions.length; i++) {
+				append(ids, labels, i, actions[i], names.actingName(actions[i]));
+			}
+			writeCells(writer, ids, labels);
+
+			long[] books = parseIds(record.getBook_ids());
+			ids.setLength(0);
+			labels.setLength(0);
+			for (int i = 0; i < books.length; i++) {
+				append(ids, labels, i, books[i], names.bookName(books[i]));
+			}
+			writeCells(writer, ids, labels);
+
+			writer.write("\r\n");
+			if (++rows[0] % FLUSH_ROWS == 0) {
+				writer.flush();
+			}
+		});
+		writer.flush();
+		return rows[0];
+	}
+
+	// 이름이 없으면 빈 칸으로 두어 번호와 위치를 맞춘다
+	private static void append(StringBuilder ids, StringBuilder labels, int i, long number, String name) {
+		if (i > 0) {
+			ids.append('|');
+			labels.append('|');
+		}
+		ids.append(number);
+		if (name != null) {
+			labels.append(name);
+		}
+	}
+
+	private static void writeCells(Writer writer, CharSequence ids, CharSequence labels) throws IOException {
+		writer.write(',');
+		writer.write(ids.toString());
+		writer.write(',');
+		writer.write(csv(labels.toString()));
+	}
+
+	// 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감싸고 안의 따옴표는 두 번
+	static String csv(String value) {
+		if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private static String createdAt(UserRecordDTO record) {
+		return record.getCreated_at_ts() == null ? "" : CREATED_AT.format(record.getCreated_at_ts().toLocalDateTime());
+	}
+
+	// "1, 2,3" -> [1, 2, 3] (숫자가 아닌 항목은 건너뜀)
+	static long[] parseIds(String ids) {
+		if (ids == null || ids.isBlank()) {
+			return new long[0];
+		}
+		String[] tokens = ids.split(",");
+		long[] numbers = new long[tokens.length];
+		int count = 0;
+		for (String token : tokens) {
+			try {
+				numbers[count] = Long.parseLong(token.trim());
+				count++;
+			} catch (NumberFormatException e) {
+				log.debug("잘못된 추천 번호 건너뜀: {}", token);
+			}
+		}
+		return count == numbers.length ? numbers : Arrays.copyOf(numbers, count);
+	}
+
+	@FunctionalInterface
+	private interface RowWriter {
+		void write(UserRecordDTO record) throws IOException;
+	}
+
+	// ResultHandler 안에서 난 IOException(클라이언트 연결 끊김 등)은 조회를 멈추고 그대로 다시 던진다
+	// (MyBatis/스프링이 PersistenceException 등으로 감싸므로 원인을 따라가서 꺼낸다)
+	private void stream(int userNumber, RowWriter rowWriter) throws IOException {
+		try {
+			userRecordDAO.streamUserRecords(userNumber, context -> {
+				try {
+					rowWriter.write(context.getResultObject());
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (RuntimeException e) {
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if (cause instanceof UncheckedIOException) {
+					throw ((UncheckedIOException) cause).getCause();
+				}
+			}
+			throw e;
+		}
+	}
+}
@@ -0,0 +1,367 @@
+package com.boot.userRecord.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.boot.userRecord.dao.UserRecordDAO;
+import com.boot.userRecord.dto.UserRecordDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 감정 기록(userRecord) 저장 큐 (write-behind)
+ * - 요청 스레드는 크기가 정해진 큐(user-record.ingest.queue-capacity)에 넣고 바로 반환
+ * - 쓰기 스레드 하나가 batch-size 개가 모이거나 flush-interval-ms 가 지나면 JDBC 배치 INSERT 한 번으로 저장
+ * - 큐가 가득 차면 enqueue-timeout-ms 동안만 기다리고 거절 (호출 쪽에서 나중에 다시 시도, 메모리 무한 증가 방지)
+ * - 종료 시 큐에 남은 기록을 모두 저장한 뒤 끝낸다 (shutdown-timeout-ms 까지)
+ * - id 는 USERRECORD_SEQ 시퀀스에서 받는다 (insertUserRecord 의 selectKey)
+ * - 저장 실패 시 같은 배치를 간격을 늘려 가며(retry-backoff-ms, 2배씩, 최대 max-backoff-ms) max-attempts 번까지 다시 시도
+ * - 그래도 실패하면 이미 202 로 받은 기록이므로 버리지 않고 dead-letter-path 파일에 한 줄씩(NDJSON) 남기고
+ *   user_record.ingest{result=failed}, {result=dead_letter} 로 센다
+ * - 시작할 때 dead-letter 파일이 있으면 큐에 다시 넣어 저장을 이어간다 (큐에 못 들어간 나머지는 파일에 그대로 남김)
+ * - 커밋된 배치는 사용자별 감정 추이(EmotionTrendService)에 바로 반영
+ */
+@Slf4j
+@Component
+public class UserRecordIngestQueue {
+
+	@Autowired
+	private SqlSessionFactory sqlSessionFactory;
+
+	@Autowired
+	private EmotionTrendService emotionTrendService;
+
+	@Value("${user-record.ingest.batch-size:500}")
+	private int batchSize;
+
+	@Value("${user-record.ingest.flush-interval-ms:1000}")
+	private long flushIntervalMs;
+
+	@Value("${user-record.ingest.enqueue-timeout-ms:100}")
+	private long enqueueTimeoutMs;
+
+	@Value("${user-record.ingest.shutdown-timeout-ms:10000}")
+	private long shutdownTimeoutMs;
+
+	@Value("${user-record.ingest.max-attempts:5}")
+	private int maxAttempts;
+
+	@Value("${user-record.ingest.retry-backoff-ms:200}")
+	private long retryBackoffMs;
+
+	@Value("${user-record.ingest.max-backoff-ms:5000}")
+	private long maxBackoffMs;
+
+	@Value("${user-record.ingest.dead-letter-path:logs/user-record-dead-letter.ndjson}")
+	private String deadLetterPath;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final BlockingQueue<UserRecordDTO> queue;
+	private final Counter written;
+	private final Counter rejected;
+	private final Counter failed;
+	private final Counter deadLettered;
+	private final Timer flushTimer;
+
+	private volatile boolean running;
+	private Thread writer;
+
+	public UserRecordIngestQueue(MeterRegistry registry,
+			@Value("${user-record.ingest.queue-capacity:20000}") int queueCapacity) {
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.written = Counter.builder("user_record.ingest").tag("result", "written").register(registry);
+		this.rejected = Counter.builder("user_record.ingest").tag("result", "rejected").register(registry);
+		this.failed = Counter.builder("user_record.ingest").tag("result", "failed").register(registry);
+		this.deadLettered = Counter.builder("user_record.ingest").tag("result", "dead_letter").register(registry);
+		this.flushTimer = Timer.builder("user_record.ingest.flush").register(registry);
+		registry.gauge("user_record.ingest.queue.size", queue, BlockingQueue::size);
+	}
+
+	@PostConstruct
+	public void start() {
+		replayDeadLetters();
+		running = true;
+		writer = new Thread(this::runWriter, "user-record-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	/**
+	 * 큐에 넣는다. 가득 차 있으면 enqueue-timeout-ms 까지 기다린다
+	 * @return 큐가 가득 찼거나 종료 중이면 false
+	 */
+	public boolean offer(UserRecordDTO record) {
+		if (!running) {
+			rejected.increment();
+			return false;
+		}
+		try {
+			if (queue.offer(record, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+				return true;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		rejected.increment();
+		return false;
+	}
+
+	public int size() {
+		return queue.size();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		running = false;
+		if (writer == null) {
+			return;
+		}
+		try {
+			writer.join(shutdownTimeoutMs);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (writer.isAlive() || !queue.isEmpty()) {
+			log.warn("감정 기록 저장 큐 종료 시간 초과, 저장하지 못한 기록 {}개", queue.size());
+		} else {
+			log.info("감정 기록 저장 큐 종료 (남은 기록 모두 저장)");
+		}
+	}
+
+	// 종료 요청 후에도 큐가 빌 때까지 계속 저장
+	private void runWriter() {
+		List<UserRecordDTO> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				UserRecordDTO first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+				batch.add(first);
+				fill(batch);
+				flush(batch);
+			} catch (InterruptedException e) {
+				// 인터럽트되면 종료로 보고, 모아 둔 배치와 큐에 남은 것을 저장하고 끝낸다
+				running = false;
+				if (!batch.isEmpty()) {
+					flush(batch);
+				}
+			} catch (RuntimeException e) {
+				log.error("감정 기록 저장 스레드 오류: ", e);
+			} finally {
+				batch.clear();
+			}
+		}
+	}
+
+	// 배치 크기가 찰 때까지 첫 기록부터 최대 flush-interval-ms 기다린다 (종료 중이면 기다리지 않음)
+	private void fill(List<UserRecordDTO> batch) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+		while (batch.size() < batchSize) {
+			queue.drainTo(batch, batchSize - batch.size());
+			long waitNanos = deadline - System.nanoTime();
+			if (batch.size() >= batchSize || !running || waitNanos <= 0) {
+				return;
+			}
+			UserRecordDTO next = queue.poll(waitNanos, TimeUnit.NANOSECONDS);
+			if (next == null) {
+				return;
+			}
+			batch.add(next);
+		}
+	}
+
+	private void flush(List<UserRecordDTO> batch) {
+		long backoff = retryBackoffMs;
+		for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+			long start = System.nanoTime();
+			try {
+				writeBatch(batch);
+				flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+				written.increment(batch.size());
+				updateTrends(batch);
+				return;
+			} catch (RuntimeException e) {
+				log.warn("감정 기록 {}개 저장 실패 ({}/{}): {}", batch.size(), attempt, maxAttempts, e.getMessage());
+				if (attempt < maxAttempts) {
+					pause(backoff);
+					backoff = Math.min(backoff * 2, maxBackoffMs);
+				}
+			}
+		}
+		failed.increment(batch.size());
+		deadLetter(batch);
+	}
+
+	/**
+	 * 끝내 저장하지 못한 배치를 dead-letter 파일 끝에 덧붙인다 (기록 하나에 JSON 한 줄, id 는 재처리 때 새로 받음)
+	 * - 파일에도 못 쓰면 마지막 수단으로 기록 내용을 에러 로그에 남긴다
+	 */
+	void deadLetter(List<UserRecordDTO> batch) {
+		List<String> lines = new ArrayList<>(batch.size());
+		for (UserRecordDTO record : batch) {
+			lines.add(deadLetterLine(record));
+		}
+		Path path = Paths.get(deadLetterPath);
+		try {
+			if (path.getParent() != null) {
+				Files.createDirectories(path.getParent());
+			}
+			try (BufferedWriter out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+					StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+				for (String line : lines) {
+					out.write(line);
+					out.newLine();
+				}
+			}
+			deadLettered.increment(batch.size());
+			log.error("감정 기록 {}개를 저장하지 못해 {} 에 남김", batch.size(), path.toAbsolutePath());
+		} catch (IOException e) {
+			log.error("감정 기록 {}개를 dead-letter 파일({})에도 쓰지 못함: {}", batch.size(), path, e.getMessage());
+			for (String line : lines) {
+				log.error("저장 못한 감정 기록: {}", line);
+			}
+		}
+	}
+
+	// 지난 실행에서 남긴 기록을 큐에 다시 넣는다 (쓰기 스레드 시작 전이라 파일을 읽고 바로 지움)
+	void replayDeadLetters() {
+		Path path = Paths.get(deadLetterPath);
+		if (!Files.exists(path)) {
+			return;
+		}
+		List<UserRecordDTO> leftover = new ArrayList<>();
+		int replayed = 0;
+		List<String> lines;
+		try {
+			lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+			Files.delete(path);
+		} catch (IOException e) {
+			log.error("dead-letter 파일({}) 재처리 실패: {}", path, e.getMessage());
+			return;
+		}
+		for (String line : lines) {
+			if (line.isBlank()) {
+				continue;
+			}
+			UserRecordDTO record;
+			try {
+				record = fromDeadLetterLine(line);
+			} catch (IOException | RuntimeException e) {
+				log.error("dead-letter 기록을 읽지 못함 ({}): {}", e.getMessage(), line);
+				continue;
+			}
+			if (queue.offer(record)) {
+				replayed++;
+			} else {
+				leftover.add(record);
+			}
+		}
+		if (!leftover.isEmpty()) {
+			deadLetter(leftover);
+		}
+		log.info("dead-letter 파일의 감정 기록 {}개를 다시 저장 대기열에 넣음 (남은 기록 {}개)", replayed, leftover.size());
+	}
+
+	private UserRecordDTO fromDeadLetterLine(String line) throws IOException {
+		Map<String, Object> row = objectMapper.readValue(line, Map.class);
+		UserRecordDTO record = new UserRecordDTO();
+		record.setUserNumber(((Number) row.get("userNumber")).intValue());
+		record.setHappy(((Number) row.get("happy")).intValue());
+		record.setSad(((Number) row.get("sad")).intValue());
+		record.setStress(((Number) row.get("stress")).intValue());
+		record.setCalm(((Number) row.get("calm")).intValue());
+		record.setExcited(((Number) row.get("excited")).intValue());
+		record.setTired(((Number) row.get("tired")).intValue());
+		record.setMusic_ids((String) row.get("music_ids"));
+		record.setAction_ids((String) row.get("action_ids"));
+		record.setBook_ids((String) row.get("book_ids"));
+		Object createdAt = row.get("created_at_ts");
+		if (createdAt instanceof Number) {
+			record.setCreated_at_ts(new Timestamp(((Number) createdAt).longValue()));
+		}
+		return record;
+	}
+
+	// insertUserRecord 에 들어가는 값만 (created_at_ts 는 응답용 JSON 에서 빠지므로 epoch millis 로 직접 넣음)
+	private String deadLetterLine(UserRecordDTO record) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("userNumber", record.getUserNumber());
+		row.put("happy", record.getHappy());
+		row.put("sad", record.getSad());
+		row.put("stress", record.getStress());
+		row.put("calm", record.getCalm());
+		row.put("excited", record.getExcited());
+		row.put("tired", record.getTired());
+		row.put("music_ids", record.getMusic_ids());
+		row.put("action_ids", record.getAction_ids());
+		row.put("book_ids", record.getBook_ids());
+		row.put("created_at_ts", record.getCreated_at_ts() == null ? null : record.getCreated_at_ts().getTime());
+		try {
+			return objectMapper.writeValueAsString(row);
+		} catch (IOException e) {
+			return row.toString();
+		}
+	}
+
+	// 저장된 기록만 감정 추이에 반영 (반영 실패는 저장 실패가 아니므로 다시 시도하지 않음, 다음 재계산 때 복구)
+	private void updateTrends(List<UserRecordDTO> batch) {
+		try {
+			emotionTrendService.applyAll(batch);
+		} catch (RuntimeException e) {
+			log.warn("감정 추이 갱신 실패 ({}개): {}", batch.size(), e.getMessage());
+		}
+	}
+
+	private static void pause(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt(); // 다시 시도는 바로, 인터럽트는 다음 poll 에서 처리
+		}
+	}
+
+	/**
+	 * 한 배치를 JDBC 배치 INSERT 로 저장 (한 트랜잭션, 실패하면 전부 롤백)
+	 * - id 는 insertUserRecord 의 selectKey 가 USERRECORD_SEQ 에서 채운다 (다시 시도하면 새 id)
+	 */
+	void writeBatch(List<UserRecordDTO> batch) {
+		try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+			UserRecordDAO dao = session.getMapper(UserRecordDAO.class);
+			for (UserRecordDTO record : batch) {
+				dao.insertUserRecord(record);
+			}
+			session.flushStatements();
+			session.commit();
+		}
+	}
+}
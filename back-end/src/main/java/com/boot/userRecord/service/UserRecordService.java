@@ -2,6 +2,7 @@ package com.boot.userRecord.service;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import com.boot.userRecord.dto.UserRecordDTO;
 
@@ -10,4 +11,6 @@ public interface UserRecordService {
 	public UserRecordDTO findByIdWithVideoId(Long id);
 	public UserRecordDTO findByNumAndDate(int userNumber, LocalDate date);
 	public List<UserRecordDTO> getLatestRecords(int userNumber);
+	public boolean submitRecord(UserRecordDTO record);
+	public Map<String, Object> getHistory(int userNumber, LocalDate from, LocalDate to, String cursor, int size);
 }
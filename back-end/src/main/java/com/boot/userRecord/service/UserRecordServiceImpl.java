@@ -1,20 +1,27 @@
 package com.boot.userRecord.service;
 
-import java.io.IOException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.boot.userRecord.dao.UserRecordDAO;
-import com.boot.userRecord.dao.YoutubeVideoDAO;
+import com.boot.userRecord.dto.ActingExceptEmotionDTO;
+import com.boot.userRecord.dto.BookExceptEmotionDTO;
+import com.boot.userRecord.dto.MusicExceptEmotionDTO;
 import com.boot.userRecord.dto.UserRecordDTO;
 import com.boot.userRecord.dto.YoutubeVideoDTO;
 
@@ -23,12 +30,19 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 @Service("UserRecordService")
 public class UserRecordServiceImpl implements UserRecordService {
+	// Oracle IN 목록 최대 개수
+	private static final int MAX_IN_LIST = 1000;
+	// 기간별 조회 한 페이지 최대 기록 수
+	private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
 	@Autowired
 	private UserRecordDAO userRecordDAO;
 	@Autowired
-	private YoutubeVideoDAO youtubeVideoDAO;
+	private YoutubeVideoIdMap youtubeVideoIdMap;
+	@Autowired
+	private YoutubeVideoResolver youtubeVideoResolver;
 	@Autowired
-	private YoutubeService youtubeService;
+	private UserRecordIngestQueue userRecordIngestQueue;
 
 	// Youtube API search 사용 <- 할당량 부족
 //	@Override
@@ -86,47 +100,7 @@ public class UserRecordServiceImpl implements UserRecordService {
 			return null;
 		}
 		
-		List<Long> actionIds = parseIds(dto.getAction_ids());
-		List<Long> bookIds = parseIds(dto.getBook_ids());
-		List<Long> musicIds = parseIds(dto.getMusic_ids());
-		
-		dto.setRecommendedActions(userRecordDAO.findInfoByActingNumbers(actionIds));
-		dto.setRecommendedBooks(userRecordDAO.findInfoByBookNumbers(bookIds));
-		dto.setRecommendedMusics(userRecordDAO.findInfoByMusicNumbers(musicIds));
-		
-		List<YoutubeVideoDTO> youtubeVideoDTOs = new ArrayList<>();
-		
-	    for (Long musicNumber : musicIds) {
-	        String videoId = youtubeVideoDAO.findVideoIdByMusicNumber(musicNumber); // 새 DAO 메서드
-
-	        Map<String, String> videoData = new HashMap<>();
-	        if (videoId != null && !videoId.isEmpty()) {
-	            try {
-	                videoData = youtubeService.getVideoDetailsById(videoId);
-	            } catch (IOException e) {
-	                e.printStackTrace();
-	                // fallback: videoId 기반 정적 정보 생성
-	                videoData.put("title", "API 실패");
-	                videoData.put("channel", "API 실패");
-	                videoData.put("thumbnail", "https://i.ytimg.com/vi/" + videoId + "/hqdefault.jpg");
-	                videoData.put("videoUrl", "https://www.youtube.com/watch?v=" + videoId);
-	            }
-	        } else {
-	            videoData.put("title", "영상 없음");
-	            videoData.put("channel", "미등록");
-	            videoData.put("thumbnail", "https://dummyimage.com/480x360/cccccc/000000?text=No+Video"); // 대체 이미지
-	            videoData.put("videoUrl", "#"); // 링크 없음 처리
-	        }
-	            
-            YoutubeVideoDTO videoDTO = new YoutubeVideoDTO(
-                videoData.get("title"),
-                videoData.get("channel"),
-                videoData.get("thumbnail"),
-                videoData.get("videoUrl")
-            );
-            youtubeVideoDTOs.add(videoDTO);
-	    }
-		dto.setYoutubeSearchResults(youtubeVideoDTOs);
+		fillRecommendations(Collections.singletonList(dto));
 		
 		log.info("UserRecordServiceImpl : " + dto);
 		
@@ -140,47 +114,7 @@ public class UserRecordServiceImpl implements UserRecordService {
 			return null;
 		}
 		
-		List<Long> actionIds = parseIds(dto.getAction_ids());
-		List<Long> bookIds = parseIds(dto.getBook_ids());
-		List<Long> musicIds = parseIds(dto.getMusic_ids());
-		
-		dto.setRecommendedActions(userRecordDAO.findInfoByActingNumbers(actionIds));
-		dto.setRecommendedBooks(userRecordDAO.findInfoByBookNumbers(bookIds));
-		dto.setRecommendedMusics(userRecordDAO.findInfoByMusicNumbers(musicIds));
-		
-		List<YoutubeVideoDTO> youtubeVideoDTOs = new ArrayList<>();
-		
-	    for (Long musicNumber : musicIds) {
-	        String videoId = youtubeVideoDAO.findVideoIdByMusicNumber(musicNumber); // 새 DAO 메서드
-
-	        Map<String, String> videoData = new HashMap<>();
-	        if (videoId != null && !videoId.isEmpty()) {
-	            try {
-	                videoData = youtubeService.getVideoDetailsById(videoId);
-	            } catch (IOException e) {
-	                e.printStackTrace();
-	                // fallback: videoId 기반 정적 정보 생성
-	                videoData.put("title", "API 실패");
-	                videoData.put("channel", "API 실패");
-	                videoData.put("thumbnail", "https://i.ytimg.com/vi/" + videoId + "/hqdefault.jpg");
-	                videoData.put("videoUrl", "https://www.youtube.com/watch?v=" + videoId);
-	            }
-	        } else {
-	            videoData.put("title", "영상 없음");
-	            videoData.put("channel", "미등록");
-	            videoData.put("thumbnail", "https://dummyimage.com/480x360/cccccc/000000?text=No+Video"); // 대체 이미지
-	            videoData.put("videoUrl", "#"); // 링크 없음 처리
-	        }
-	            
-            YoutubeVideoDTO videoDTO = new YoutubeVideoDTO(
-                videoData.get("title"),
-                videoData.get("channel"),
-                videoData.get("thumbnail"),
-                videoData.get("videoUrl")
-            );
-            youtubeVideoDTOs.add(videoDTO);
-	    }
-		dto.setYoutubeSearchResults(youtubeVideoDTOs);
+		fillRecommendations(Collections.singletonList(dto));
 		
 		log.info("UserRecordServiceImpl : " + dto);
 		
@@ -190,23 +124,152 @@ public class UserRecordServiceImpl implements UserRecordService {
 	
 	@Override
 	public List<UserRecordDTO> getLatestRecords(int userNumber) {
+		// findLatestRecords 는 전체 컬럼을 가져오므로 findById 로 다시 읽지 않는다
 		List<UserRecordDTO> list = userRecordDAO.findLatestRecords(userNumber);
+		list.removeIf(record -> record == null); // 방어적으로 체크
 
+		fillRecommendations(list);
 		for (int i = 0; i < list.size(); i++) {
-			UserRecordDTO record = list.get(i);
-			if (record != null) { // findLatestRecords()에서 가져온 레코드가 null일 가능성은 낮지만, 방어적으로 체크
-//				UserRecordDTO fullRecord = findById(record.getId());
-				UserRecordDTO fullRecord = findByIdWithVideoId(record.getId());
-				if (fullRecord != null) {
-					list.set(i, fullRecord); // 채워진 DTO로 리스트의 요소를 업데이트
-					log.info("list {}: {}", i, list.get(i));
-				}
-			}
+			log.info("list {}: {}", i, list.get(i));
 		}
 		return list;
 	}
 
+	/**
+	 * 감정 기록 저장 요청 (바로 저장하지 않고 UserRecordIngestQueue 에 넣어 모아서 저장)
+	 * - 추천 번호 목록(music_ids/action_ids/book_ids)이 "1,2,3" 형식이 아니면 IllegalArgumentException
+	 * - created_at 은 요청 받은 시각
+	 * @return 큐가 가득 차 받지 못했으면 false (잠시 후 다시 시도)
+	 */
+	@Override
+	public boolean submitRecord(UserRecordDTO record) {
+		parseIds(record.getMusic_ids());
+		parseIds(record.getAction_ids());
+		parseIds(record.getBook_ids());
+		record.setCreated_at_ts(new Timestamp(System.currentTimeMillis()));
+		return userRecordIngestQueue.offer(record);
+	}
+
+	/**
+	 * 기간별 기록 (최신순, 페이지 단위)
+	 * - from ~ to 는 날짜 기준 양 끝 포함, DB 에는 [from, to + 1일) 반열림 구간으로 조회
+	 * - cursor 는 이전 페이지의 nextCursor ("created_at_id"), 없으면 첫 페이지
+	 * - 잘못된 기간/커서/크기면 IllegalArgumentException
+	 * @return records, hasMore, nextCursor (다음 페이지가 없으면 null)
+	 */
+	@Override
+	public Map<String, Object> getHistory(int userNumber, LocalDate from, LocalDate to, String cursor, int size) {
+		if (from.isAfter(to)) {
+			throw new IllegalArgumentException("from 이 to 보다 늦습니다: " + from + " > " + to);
+		}
+		if (size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+			throw new IllegalArgumentException("size 는 1 ~ " + MAX_HISTORY_PAGE_SIZE + " 사이여야 합니다: " + size);
+		}
+		LocalDateTime cursorCreatedAt = null;
+		Long cursorId = null;
+		if (cursor != null && !cursor.isEmpty()) {
+			int separator = cursor.lastIndexOf('_');
+			try {
+				cursorCreatedAt = LocalDateTime.parse(cursor.substring(0, Math.max(separator, 0)));
+				cursorId = Long.parseLong(cursor.substring(separator + 1));
+			} catch (RuntimeException e) {
+				throw new IllegalArgumentException("잘못된 cursor: " + cursor);
+			}
+		}
+
+		// 한 건 더 읽어서 다음 페이지가 있는지 확인
+		List<UserRecordDTO> records = userRecordDAO.findHistoryPage(userNumber, from, to.plusDays(1), cursorCreatedAt,
+				cursorId, size + 1);
+		boolean hasMore = records.size() > size;
+		if (hasMore) {
+			records = new ArrayList<>(records.subList(0, size));
+		}
+		fillRecommendations(records);
+
+		String nextCursor = null;
+		if (hasMore) {
+			UserRecordDTO last = records.get(records.size() - 1);
+			nextCursor = last.getCreated_at_ts().toLocalDateTime() + "_" + last.getId();
+		}
+
+		Map<String, Object> page = new LinkedHashMap<>();
+		page.put("records", records);
+		page.put("hasMore", hasMore);
+		page.put("nextCursor", nextCursor);
+		return page;
+	}
+
+	/**
+	 * 여러 기록의 추천 행동/도서/음악과 유튜브 영상을 채운다
+	 * - 모든 기록의 번호를 모아 종류별로 IN 조회 한 번씩, 유튜브 영상도 한 번에 조회한 뒤 기록별로 나눠 담는다
+	 *   (기록 수와 관계없이 DB 3회 + 유튜브 묶음 조회)
+	 * - 기록별 목록은 그 기록에 저장된 번호 순서, 같은 번호는 한 번만, 카탈로그에 없는 번호는 빠진다
+	 */
+	private void fillRecommendations(List<UserRecordDTO> records) {
+		List<List<Long>> actionIds = new ArrayList<>(records.size());
+		List<List<Long>> bookIds = new ArrayList<>(records.size());
+		List<List<Long>> musicIds = new ArrayList<>(records.size());
+		for (UserRecordDTO dto : records) {
+			actionIds.add(parseIds(dto.getAction_ids()));
+			bookIds.add(parseIds(dto.getBook_ids()));
+			musicIds.add(parseIds(dto.getMusic_ids()));
+		}
+
+		Map<Long, ActingExceptEmotionDTO> actions = findByNumbers(actionIds, userRecordDAO::findInfoByActingNumbers,
+				ActingExceptEmotionDTO::getActingNumber);
+		Map<Long, BookExceptEmotionDTO> books = findByNumbers(bookIds, userRecordDAO::findInfoByBookNumbers,
+				BookExceptEmotionDTO::getBookNumber);
+		Map<Long, MusicExceptEmotionDTO> musics = findByNumbers(musicIds, userRecordDAO::findInfoByMusicNumbers,
+				MusicExceptEmotionDTO::getMusicNumber);
+
+		// 추천 음악의 유튜브 videoId (등록 안 된 곡은 null)
+		List<List<String>> videoIdGroups = new ArrayList<>(records.size());
+		for (int i = 0; i < records.size(); i++) {
+			UserRecordDTO dto = records.get(i);
+			dto.setRecommendedActions(pick(actionIds.get(i), actions));
+			dto.setRecommendedBooks(pick(bookIds.get(i), books));
+			dto.setRecommendedMusics(pick(musicIds.get(i), musics));
+			videoIdGroups.add(youtubeVideoIdMap.videoIds(musicIds.get(i)));
+		}
+
+		List<List<YoutubeVideoDTO>> videos = youtubeVideoResolver.resolveAll(videoIdGroups);
+		for (int i = 0; i < records.size(); i++) {
+			records.get(i).setYoutubeSearchResults(videos.get(i));
+		}
+	}
+
+	// 모든 기록의 번호를 중복 없이 모아 한 번에 조회 (Oracle IN 목록 최대 1000개라 그 이상이면 나눠서)
+	private static <T> Map<Long, T> findByNumbers(List<List<Long>> numberGroups, Function<List<Long>, List<T>> query,
+			Function<T, Long> numberOf) {
+		Set<Long> numbers = new LinkedHashSet<>();
+		for (List<Long> group : numberGroups) {
+			numbers.addAll(group);
+		}
+		Map<Long, T> found = new HashMap<>();
+		List<Long> all = new ArrayList<>(numbers);
+		for (int from = 0; from < all.size(); from += MAX_IN_LIST) {
+			for (T item : query.apply(all.subList(from, Math.min(all.size(), from + MAX_IN_LIST)))) {
+				found.putIfAbsent(numberOf.apply(item), item);
+			}
+		}
+		return found;
+	}
+
+	private static <T> List<T> pick(List<Long> numbers, Map<Long, T> found) {
+		List<T> items = new ArrayList<>();
+		for (Long number : new LinkedHashSet<>(numbers)) {
+			T item = found.get(number);
+			if (item != null) {
+				items.add(item);
+			}
+		}
+		return items;
+	}
+
 	public List<Long> parseIds(String ids) {
+		if (ids == null) {
+			throw new IllegalArgumentException("추천 번호 목록이 없습니다");
+		}
 		return Arrays.stream(ids.split(",")).map(String::trim).map(Long::parseLong).collect(Collectors.toList());
 	}
 }
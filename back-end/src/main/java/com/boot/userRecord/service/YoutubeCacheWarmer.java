@@ -0,0 +1,245 @@
+package com.boot.userRecord.service;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 유튜브 영상 정보 캐시 미리 채우기
+ * - youtubeVideo 에 등록된 모든 videoId 중 캐시에 없는(또는 만료된) 것을 50개씩 묶어 백그라운드 우선순위로 조회
+ *   (첫 사용자가 유튜브 왕복 시간을 치르지 않도록, 배포 직후에도 캐시가 빨리 차도록)
+ * - 하루 할당량 중 youtube.warmup.quota-percent(기본 10%) 까지만 쓴다 (videos 호출 1회 = 1 unit)
+ *   사용량은 YoutubeQuotaGuard 의 백그라운드 사용량(재시작해도 파일에서 이어짐)으로 판단
+ * - 관리자 즉시 실행(start)은 전용 스레드에서 돌리고 바로 상태를 반환
+ * - 할당량 부족/회로 열림으로 거절되면 이번 실행은 멈추고 다음 주기에 이어서
+ * - 진행 상황과 캐시 적중 범위(coverage)는 status() 와 youtube.warmup.* 게이지로 확인
+ */
+@Slf4j
+@Component
+public class YoutubeCacheWarmer {
+
+	private static final int BATCH_SIZE = 50;
+
+	@Autowired
+	private YoutubeService youtubeService;
+
+	@Autowired
+	private YoutubeVideoCache youtubeVideoCache;
+
+	@Autowired
+	private YoutubeVideoIdMap youtubeVideoIdMap;
+
+	@Autowired
+	private YoutubeQuotaGuard youtubeQuotaGuard;
+
+	@Value("${youtube.warmup.enabled:true}")
+	private boolean enabled;
+
+	@Value("${youtube.warmup.quota-percent:10}")
+	private int quotaPercent;
+
+	private final Clock clock = Clock.systemUTC();
+	private final AtomicBoolean running = new AtomicBoolean();
+	// 관리자 즉시 실행용 (running 으로 한 번에 하나만 돌므로 스레드 하나)
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "youtube-warmup");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private volatile int catalogSize;
+	private volatile int warmCount;
+	private volatile long lastStartedAt;
+	private volatile long lastFinishedAt;
+	private volatile int lastWarmed;
+	private volatile int lastFailed;
+	private volatile int lastMissing;
+	private volatile String lastResult = "not-run";
+	private volatile long totalWarmed;
+	private volatile long totalFailed;
+	private volatile long totalMissing;
+
+	public YoutubeCacheWarmer(MeterRegistry registry) {
+		registry.gauge("youtube.warmup.coverage", this, YoutubeCacheWarmer::coverage);
+		registry.gauge("youtube.warmup.cold", this, warmer -> warmer.catalogSize - warmer.warmCount);
+		registry.gauge("youtube.warmup.running", this, warmer -> warmer.running.get() ? 1 : 0);
+	}
+
+	// 기동 후 기본 1분 뒤부터 10분마다
+	@Scheduled(initialDelayString = "${youtube.warmup.initial-delay-ms:60000}", fixedDelayString = "${youtube.warmup.interval-ms:600000}")
+	public void scheduledRun() {
+		if (enabled) {
+			run();
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	/**
+	 * 캐시에 없는 영상을 예산 안에서 조회 (이미 실행 중이면 바로 반환)
+	 * @return 실행 결과 (status 와 같은 형식)
+	 */
+	public Map<String, Object> run() {
+		if (!running.compareAndSet(false, true)) {
+			return status();
+		}
+		return warm();
+	}
+
+	/**
+	 * run 을 전용 스레드에서 시작하고 기다리지 않는다 (이미 실행 중이면 시작하지 않음)
+	 * @return 시작 직후 상태 (running = true), 진행 상황은 status 로 확인
+	 */
+	public Map<String, Object> start() {
+		if (!running.compareAndSet(false, true)) {
+			return status();
+		}
+		try {
+			executor.execute(() -> {
+				try {
+					warm();
+				} catch (RuntimeException e) {
+					log.error("유튜브 캐시 미리 채우기 중 오류 발생: ", e);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			running.set(false);
+			throw e;
+		}
+		return status();
+	}
+
+	// running 을 잡은 쪽에서만 호출, 끝나면 running 을 놓는다
+	private Map<String, Object> warm() {
+		lastStartedAt = clock.millis();
+		int warmed = 0;
+		int failed = 0;
+		int missing = 0;
+		String result = "done";
+		try {
+			List<String> cold = coldVideoIds();
+			if (!cold.isEmpty()) {
+				log.info("유튜브 캐시 미리 채우기 시작: {}/{}개 비어 있음, 남은 예산 {} unit", cold.size(), catalogSize,
+						remainingUnits());
+			}
+			for (int from = 0; from < cold.size(); from += BATCH_SIZE) {
+				// 단일 실행이라 확인 후 호출 사이에 다른 백그라운드 호출이 끼어들지 않는다
+				if (remainingUnits() < YoutubeQuotaGuard.VIDEOS_COST) {
+					result = "budget";
+					break;
+				}
+				List<String> chunk = cold.subList(from, Math.min(cold.size(), from + BATCH_SIZE));
+				try {
+					Map<String, Map<String, String>> fetched = youtubeService.getVideoDetailsByIds(chunk,
+							YoutubeQuotaGuard.Priority.BACKGROUND);
+					// 값이 null 이면 유튜브에서 삭제된 영상 (없는 영상으로 캐시됨), 결과에 없으면 조회 실패
+					for (Map<String, String> data : fetched.values()) {
+						if (data != null) {
+							warmed++;
+						} else {
+							missing++;
+						}
+					}
+					failed += chunk.size() - fetched.size();
+				} catch (YoutubeQuotaGuard.RejectedException e) {
+					result = "rejected: " + e.getMessage();
+					break;
+				} catch (IOException | RuntimeException e) {
+					failed += chunk.size();
+					log.warn("유튜브 캐시 미리 채우기 실패 ({}개): {}", chunk.size(), e.getMessage());
+				}
+			}
+		} finally {
+			lastWarmed = warmed;
+			lastFailed = failed;
+			lastMissing = missing;
+			lastResult = result;
+			totalWarmed += warmed;
+			totalFailed += failed;
+			totalMissing += missing;
+			coldVideoIds(); // 적중 범위 갱신
+			lastFinishedAt = clock.millis();
+			running.set(false);
+		}
+		if (warmed > 0 || failed > 0 || missing > 0) {
+			log.info("유튜브 캐시 미리 채우기 종료 ({}): 채움 {}, 삭제된 영상 {}, 실패 {}, 적중 범위 {}/{}", result, warmed, missing,
+					failed, warmCount, catalogSize);
+		}
+		return status();
+	}
+
+	public Map<String, Object> status() {
+		if (!running.get()) {
+			coldVideoIds(); // 실행 중이 아니면 적중 범위를 지금 기준으로 (사용자 요청으로 채워진 것 포함)
+		}
+		Map<String, Object> status = new LinkedHashMap<>();
+		status.put("enabled", enabled);
+		status.put("running", running.get());
+		status.put("catalogSize", catalogSize);
+		status.put("cached", warmCount);
+		status.put("coverage", coverage());
+		status.put("lastStartedAt", lastStartedAt);
+		status.put("lastFinishedAt", lastFinishedAt);
+		status.put("lastResult", lastResult);
+		status.put("lastWarmed", lastWarmed);
+		status.put("lastFailed", lastFailed);
+		status.put("lastMissing", lastMissing);
+		status.put("totalWarmed", totalWarmed);
+		status.put("totalFailed", totalFailed);
+		status.put("totalMissing", totalMissing);
+		status.put("unitsUsedToday", youtubeQuotaGuard.backgroundUsed());
+		status.put("unitsBudget", budgetUnits());
+		return status;
+	}
+
+	// 캐시 적중 범위 (등록된 영상 중 캐시에 있는 비율, 매핑이 비어 있으면 0)
+	public double coverage() {
+		int size = catalogSize;
+		return size == 0 ? 0.0 : (double) warmCount / size;
+	}
+
+	// 캐시에 없는 videoId 목록, 적중 범위도 함께 갱신
+	private List<String> coldVideoIds() {
+		List<String> videoIds = youtubeVideoIdMap.allVideoIds();
+		Set<String> fresh = youtubeVideoCache.freshIds();
+		List<String> cold = new ArrayList<>();
+		for (String videoId : videoIds) {
+			if (!fresh.contains(videoId)) {
+				cold.add(videoId);
+			}
+		}
+		catalogSize = videoIds.size();
+		warmCount = videoIds.size() - cold.size();
+		return cold;
+	}
+
+	private int budgetUnits() {
+		return youtubeQuotaGuard.dailyUnits() * quotaPercent / 100;
+	}
+
+	private int remainingUnits() {
+		return budgetUnits() - youtubeQuotaGuard.backgroundUsed();
+	}
+}
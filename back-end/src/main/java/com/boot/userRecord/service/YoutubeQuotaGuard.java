@@ -0,0 +1,355 @@
+package com.boot.userRecord.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Properties;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 유튜브 Data API 할당량(unit) 관리 + 서킷 브레이커
+ * - 하루 할당량(youtube.quota.daily-units, 기본 10000)을 토큰 통으로 보고, 호출 전에 엔드포인트 비용만큼 꺼낸다
+ *   (search=100, videos=1). 태평양 시간 자정에 다시 가득 채운다 (유튜브 할당량 초기화 시각)
+ * - 캐시 갱신 같은 백그라운드 호출은 예약분(youtube.quota.user-reserve-percent, 기본 20%)을 남기고 멈춘다
+ * - 응답이 quotaExceeded 면 남은 할당량을 0 으로 보고 초기화 시각까지 바로 거절
+ * - 최근 호출(youtube.circuit.window)의 실패율이 youtube.circuit.failure-rate 이상이면 회로를 열고
+ *   youtube.circuit.open-ms 동안 바로 거절, 이후 한 건만 시험 호출해 성공하면 닫는다
+ * - 오늘 사용량(전체/백그라운드/소진 여부)은 youtube.quota.state-file 에 주기적으로 저장하고 기동 시 다시 읽어,
+ *   재시작해도 같은 날이면 이어서 센다 (캐시 미리 채우기 예산도 여기 백그라운드 사용량으로 판단)
+ * - 거절은 YoutubeQuotaGuard.RejectedException(IOException) 으로, 호출 쪽은 기존 "API 실패" 대체 정보로 처리
+ */
+@Slf4j
+@Component
+public class YoutubeQuotaGuard {
+
+	public static final int SEARCH_COST = 100;
+	public static final int VIDEOS_COST = 1;
+
+	// 유튜브 할당량은 태평양 시간 자정에 초기화
+	static final ZoneId QUOTA_ZONE = ZoneId.of("America/Los_Angeles");
+
+	public enum Priority {
+		USER, BACKGROUND
+	}
+
+	private enum State {
+		CLOSED, OPEN, HALF_OPEN
+	}
+
+	@Value("${youtube.quota.daily-units:10000}")
+	private int dailyUnits;
+
+	@Value("${youtube.quota.user-reserve-percent:20}")
+	private int userReservePercent;
+
+	@Value("${youtube.circuit.window:20}")
+	private int window;
+
+	@Value("${youtube.circuit.min-calls:10}")
+	private int minCalls;
+
+	@Value("${youtube.circuit.failure-rate:0.5}")
+	private double failureRate;
+
+	@Value("${youtube.circuit.open-ms:30000}")
+	private long openMs;
+
+	// 비어 있으면 저장하지 않음
+	@Value("${youtube.quota.state-file:data/youtube-quota.properties}")
+	private String stateFile;
+
+	private final Clock clock;
+	private final Counter rejectedQuota;
+	private final Counter rejectedCircuit;
+
+	private LocalDate quotaDay;
+	private int usedUnits;
+	private int backgroundUnits;
+	private boolean exhausted;
+	private boolean dirty;
+
+	private State state = State.CLOSED;
+	private long openedAt;
+	private boolean probing;
+	// 최근 window 건의 결과 (true = 실패), 원형 버퍼
+	private boolean[] outcomes;
+	private int outcomeCount;
+	private int outcomeIndex;
+	private int failures;
+
+	@Autowired
+	public YoutubeQuotaGuard(MeterRegistry registry) {
+		this(registry, Clock.systemUTC());
+	}
+
+	YoutubeQuotaGuard(MeterRegistry registry, Clock clock) {
+		this.clock = clock;
+		this.rejectedQuota = Counter.builder("youtube.calls.rejected").tag("reason", "quota").register(registry);
+		this.rejectedCircuit = Counter.builder("youtube.calls.rejected").tag("reason", "circuit").register(registry);
+		registry.gauge("youtube.quota.used", this, YoutubeQuotaGuard::used);
+		registry.gauge("youtube.circuit.open", this, guard -> guard.isOpen() ? 1 : 0);
+	}
+
+	@PostConstruct
+	public void init() {
+		load();
+	}
+
+	// 기본 10초마다 변경분이 있으면 파일에 저장
+	@Scheduled(initialDelayString = "${youtube.quota.flush-interval-ms:10000}", fixedDelayString = "${youtube.quota.flush-interval-ms:10000}")
+	public void scheduledFlush() {
+		flush();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		flush();
+	}
+
+	/**
+	 * 호출 전 할당량 확인 및 차감. 거절되면 RejectedException
+	 */
+	public synchronized void acquire(String endpoint, int units, Priority priority) throws RejectedException {
+		rollOver();
+		if (!allowByCircuit()) {
+			rejectedCircuit.increment();
+			throw new RejectedException("유튜브 API 회로 열림 (" + endpoint + ")");
+		}
+		int limit = priority == Priority.USER ? dailyUnits : dailyUnits - dailyUnits * userReservePercent / 100;
+		if (exhausted || usedUnits + units > limit) {
+			if (state == State.HALF_OPEN) {
+				probing = false;
+			}
+			rejectedQuota.increment();
+			throw new RejectedException("유튜브 API 할당량 부족 (" + endpoint + ", 사용 " + usedUnits + "/" + dailyUnits
+					+ ", " + priority + ")");
+		}
+		usedUnits += units;
+		if (priority == Priority.BACKGROUND) {
+			backgroundUnits += units;
+		}
+		dirty = true;
+	}
+
+	public synchronized void recordSuccess() {
+		if (state == State.HALF_OPEN) {
+			log.info("유튜브 API 회로 닫힘 (시험 호출 성공)");
+			state = State.CLOSED;
+			probing = false;
+			resetOutcomes();
+		}
+		recordOutcome(false);
+	}
+
+	public synchronized void recordFailure() {
+		if (state == State.HALF_OPEN) {
+			open("시험 호출 실패");
+			return;
+		}
+		recordOutcome(true);
+		if (state == State.CLOSED && outcomeCount >= minCalls && failures >= failureRate * outcomeCount) {
+			open("실패율 " + failures + "/" + outcomeCount);
+		}
+	}
+
+	// 응답이 quotaExceeded 면 초기화 시각까지 모든 호출 거절
+	public synchronized void recordQuotaExceeded() {
+		rollOver();
+		if (!exhausted) {
+			log.warn("유튜브 API 할당량 소진 응답 - 태평양 시간 자정까지 호출 중단 (사용 추정 {}/{})", usedUnits, dailyUnits);
+		}
+		if (!exhausted) {
+			dirty = true;
+		}
+		exhausted = true;
+		if (state == State.HALF_OPEN) {
+			state = State.CLOSED;
+			probing = false;
+		}
+	}
+
+	public int dailyUnits() {
+		return dailyUnits;
+	}
+
+	public synchronized int used() {
+		rollOver();
+		return exhausted ? dailyUnits : usedUnits;
+	}
+
+	// 오늘(태평양 시간) 백그라운드 호출로 쓴 unit
+	public synchronized int backgroundUsed() {
+		rollOver();
+		return backgroundUnits;
+	}
+
+	public synchronized boolean isOpen() {
+		return state == State.OPEN && clock.millis() - openedAt < openMs;
+	}
+
+	private boolean allowByCircuit() {
+		if (state == State.CLOSED) {
+			return true;
+		}
+		if (state == State.OPEN) {
+			if (clock.millis() - openedAt < openMs) {
+				return false;
+			}
+			state = State.HALF_OPEN;
+			probing = false;
+		}
+		// HALF_OPEN: 시험 호출 한 건만
+		if (probing) {
+			return false;
+		}
+		probing = true;
+		return true;
+	}
+
+	private void open(String reason) {
+		state = State.OPEN;
+		openedAt = clock.millis();
+		probing = false;
+		resetOutcomes();
+		log.warn("유튜브 API 회로 열림 ({}), {}ms 동안 바로 대체 정보로 응답", reason, openMs);
+	}
+
+	private void recordOutcome(boolean failed) {
+		if (outcomes == null || outcomes.length != window) {
+			outcomes = new boolean[window];
+			outcomeCount = 0;
+			outcomeIndex = 0;
+			failures = 0;
+		}
+		if (outcomeCount == window) {
+			if (outcomes[outcomeIndex]) {
+				failures--;
+			}
+		} else {
+			outcomeCount++;
+		}
+		outcomes[outcomeIndex] = failed;
+		if (failed) {
+			failures++;
+		}
+		outcomeIndex = (outcomeIndex + 1) % window;
+	}
+
+	private void resetOutcomes() {
+		outcomes = null;
+		outcomeCount = 0;
+		outcomeIndex = 0;
+		failures = 0;
+	}
+
+	// 태평양 시간 날짜가 바뀌면 할당량 초기화
+	private void rollOver() {
+		LocalDate today = LocalDate.now(clock.withZone(QUOTA_ZONE));
+		if (!today.equals(quotaDay)) {
+			if (quotaDay != null) {
+				log.info("유튜브 API 할당량 초기화 ({} 사용 {}/{})", quotaDay, exhausted ? dailyUnits : usedUnits, dailyUnits);
+			}
+			quotaDay = today;
+			usedUnits = 0;
+			backgroundUnits = 0;
+			exhausted = false;
+			dirty = true;
+		}
+	}
+
+	/**
+	 * 오늘 사용량을 파일에 저장 (임시 파일에 쓴 뒤 교체)
+	 */
+	public void flush() {
+		if (stateFile == null || stateFile.isEmpty()) {
+			return;
+		}
+		Properties state = new Properties();
+		synchronized (this) {
+			if (!dirty) {
+				return;
+			}
+			state.setProperty("day", quotaDay.toString());
+			state.setProperty("used", Integer.toString(usedUnits));
+			state.setProperty("background", Integer.toString(backgroundUnits));
+			state.setProperty("exhausted", Boolean.toString(exhausted));
+			dirty = false;
+		}
+
+		Path path = Paths.get(stateFile);
+		try {
+			if (path.getParent() != null) {
+				Files.createDirectories(path.getParent());
+			}
+			Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+			try (OutputStream out = Files.newOutputStream(temp)) {
+				state.store(out, "youtube quota usage");
+			}
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			log.warn("유튜브 API 사용량 저장 실패 ({}): {}", path, e.getMessage());
+			synchronized (this) {
+				dirty = true;
+			}
+		}
+	}
+
+	// 저장된 날짜가 오늘이면 사용량을 이어서 센다 (파일이 없거나 깨졌으면 0 부터)
+	private synchronized void load() {
+		rollOver();
+		dirty = false;
+		if (stateFile == null || stateFile.isEmpty()) {
+			return;
+		}
+		Path path = Paths.get(stateFile);
+		if (!Files.exists(path)) {
+			return;
+		}
+		Properties state = new Properties();
+		try (InputStream in = Files.newInputStream(path)) {
+			state.load(in);
+			if (!quotaDay.toString().equals(state.getProperty("day"))) {
+				return;
+			}
+			int used = Integer.parseInt(state.getProperty("used", "0"));
+			int background = Integer.parseInt(state.getProperty("background", "0"));
+			usedUnits = used;
+			backgroundUnits = background;
+			exhausted = Boolean.parseBoolean(state.getProperty("exhausted"));
+			log.info("유튜브 API 오늘 사용량 적재: {}/{} (백그라운드 {}{})", usedUnits, dailyUnits, backgroundUnits,
+					exhausted ? ", 소진" : "");
+		} catch (IOException | RuntimeException e) {
+			log.warn("유튜브 API 사용량 파일을 읽지 못해 0 부터 셈 ({}): {}", path, e.getMessage());
+		}
+	}
+
+	/**
+	 * 할당량 부족 또는 회로 열림으로 호출하지 않음
+	 */
+	public static class RejectedException extends IOException {
+		private static final long serialVersionUID = 1L;
+
+		public RejectedException(String message) {
+			super(message);
+		}
+	}
+}
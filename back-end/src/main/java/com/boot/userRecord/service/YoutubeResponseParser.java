@@ -0,0 +1,146 @@
+package com.boot.userRecord.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * 유튜브 Data API(search, videos) 응답에서 items[] 의 영상 정보만 뽑아내는 스트리밍 파서
+ * - 응답 바이트를 그대로 토큰 단위로 읽고 필요 없는 필드(description, 다른 썸네일 등)는 건너뛴다
+ *   (응답 전체를 String 으로 만들거나 JSONObject 트리를 만들지 않음)
+ * - 결과 Map 의 키는 title, channel, thumbnail, videoUrl (기존 JSONObject 파싱과 같음)
+ * - id 는 search 응답이면 {"videoId": ...} 객체, videos 응답이면 문자열
+ */
+final class YoutubeResponseParser {
+
+	// JsonFactory 는 스레드 안전하고 만들기 비싸므로 하나만
+	private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+	private YoutubeResponseParser() {
+	}
+
+	/**
+	 * @return items 순서대로 영상 정보 (videoId 가 없는 항목은 제외)
+	 */
+	static List<Map<String, String>> parseItems(byte[] body) throws IOException {
+		List<Map<String, String>> results = new ArrayList<>();
+		parse(body, (videoId, data) -> results.add(data));
+		return results;
+	}
+
+	// videoId -> 영상 정보 (videos 응답용)
+	static Map<String, Map<String, String>> parseItemsById(byte[] body) throws IOException {
+		Map<String, Map<String, String>> results = new LinkedHashMap<>();
+		parse(body, results::put);
+		return results;
+	}
+
+	private static void parse(byte[] body, BiConsumer<String, Map<String, String>> sink) throws IOException {
+		try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+			if (parser.nextToken() != JsonToken.START_OBJECT) {
+				throw new JsonParseException(parser, "유튜브 응답이 JSON 객체가 아님");
+			}
+			boolean hasItems = false;
+			while (parser.nextToken() == JsonToken.FIELD_NAME) {
+				String field = parser.getCurrentName();
+				JsonToken value = parser.nextToken();
+				if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+					hasItems = true;
+					while (parser.nextToken() == JsonToken.START_OBJECT) {
+						parseItem(parser, sink);
+					}
+				} else {
+					parser.skipChildren();
+				}
+			}
+			if (!hasItems) {
+				throw new JsonParseException(parser, "유튜브 응답에 items 없음");
+			}
+		}
+	}
+
+	// 현재 위치: item 의 START_OBJECT, 끝나면 item 의 END_OBJECT
+	private static void parseItem(JsonParser parser, BiConsumer<String, Map<String, String>> sink) throws IOException {
+		String videoId = null;
+		String title = null;
+		String channel = null;
+		String thumbnail = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if ("id".equals(field)) {
+				if (value == JsonToken.VALUE_STRING) {
+					videoId = parser.getText();
+				} else if (value == JsonToken.START_OBJECT) {
+					videoId = findString(parser, "videoId");
+				} else {
+					parser.skipChildren();
+				}
+			} else if ("snippet".equals(field) && value == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String snippetField = parser.getCurrentName();
+					JsonToken snippetValue = parser.nextToken();
+					if ("title".equals(snippetField) && snippetValue == JsonToken.VALUE_STRING) {
+						title = parser.getText();
+					} else if ("channelTitle".equals(snippetField) && snippetValue == JsonToken.VALUE_STRING) {
+						channel = parser.getText();
+					} else if ("thumbnails".equals(snippetField) && snippetValue == JsonToken.START_OBJECT) {
+						thumbnail = findHighThumbnail(parser);
+					} else {
+						parser.skipChildren();
+					}
+				}
+			} else {
+				parser.skipChildren();
+			}
+		}
+		if (videoId == null) {
+			return;
+		}
+		Map<String, String> data = new HashMap<>();
+		data.put("title", title);
+		data.put("channel", channel);
+		data.put("thumbnail", thumbnail);
+		data.put("videoUrl", "https://www.youtube.com/watch?v=" + videoId);
+		sink.accept(videoId, data);
+	}
+
+	// thumbnails 객체에서 high.url (현재 위치: thumbnails 의 START_OBJECT)
+	private static String findHighThumbnail(JsonParser parser) throws IOException {
+		String url = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if ("high".equals(field) && value == JsonToken.START_OBJECT) {
+				url = findString(parser, "url");
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return url;
+	}
+
+	// 현재 객체에서 name 필드의 문자열 값, 나머지는 건너뛴다 (현재 위치: START_OBJECT, 끝나면 END_OBJECT)
+	private static String findString(JsonParser parser, String name) throws IOException {
+		String result = null;
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken value = parser.nextToken();
+			if (name.equals(field) && value == JsonToken.VALUE_STRING) {
+				result = parser.getText();
+			} else {
+				parser.skipChildren();
+			}
+		}
+		return result;
+	}
+}
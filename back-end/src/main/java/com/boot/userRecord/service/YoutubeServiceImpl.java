@@ -1,131 +1,207 @@
 package com.boot.userRecord.service;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
+import com.boot.z_config.http.OutboundHttpClient;
+import com.boot.z_config.http.SingleFlight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Service("YoutubeService")
 public class YoutubeServiceImpl implements YoutubeService {
 	@Value("${youtube.api}")
 	private String API_KEY;
 
-	private static final String SEARCH_URL = "https://www.googleapis.com/youtube/v3/search";
+	@Autowired
+	private YoutubeVideoCache youtubeVideoCache;
+
+	// 유튜브 Data API 주소 (로컬 스텁 서버로 바꿔 테스트할 수 있도록 설정으로 분리)
+	@Value("${youtube.api-base-url:https://www.googleapis.com/youtube/v3}")
+	private String apiBaseUrl;
+
+	@Autowired
+	private OutboundHttpClient outboundHttpClient;
+
+	@Autowired
+	private YoutubeQuotaGuard youtubeQuotaGuard;
+
+	// videos API 의 id 파라미터 최대 개수
+	private static final int MAX_IDS_PER_REQUEST = 50;
+
+	// 같은 videoId 를 동시에 조회하면 먼저 온 요청만 API 를 부르고 나머지는 그 결과를 기다린다
+	private final SingleFlight<String, Map<String, String>> videoFlight;
+
+	public YoutubeServiceImpl(MeterRegistry registry) {
+		this.videoFlight = new SingleFlight<>("youtube.videos", registry);
+	}
 
 	@Override
 	public List<Map<String, String>> searchVideos(String query) throws IOException {
 		String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
-		String urlStr = SEARCH_URL + "?part=snippet" + "&q=" + encodedQuery + "&type=video" + "&maxResults=1" + "&key="
+		String urlStr = apiBaseUrl + "/search?part=snippet" + "&q=" + encodedQuery + "&type=video" + "&maxResults=1" + "&key="
 				+ API_KEY;
 
-		URL url = new URL(urlStr);
-		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-		conn.setRequestMethod("GET");
-
-		try (BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-			String json = reader.lines().collect(Collectors.joining());
-			JSONObject jsonObj = new JSONObject(json);
-			JSONArray items = jsonObj.getJSONArray("items");
-
-			List<Map<String, String>> results = new ArrayList<>();
-			for (int i = 0; i < items.length(); i++) {
-				JSONObject item = items.getJSONObject(i);
-				JSONObject snippet = item.getJSONObject("snippet");
-				String videoId = item.getJSONObject("id").getString("videoId");
-
-				Map<String, String> data = new HashMap<>();
-				data.put("title", snippet.getString("title"));
-				data.put("channel", snippet.getString("channelTitle"));
-				data.put("thumbnail", snippet.getJSONObject("thumbnails").getJSONObject("high").getString("url"));
-				data.put("videoUrl", "https://www.youtube.com/watch?v=" + videoId);
-				results.add(data);
-			}
-			return results;
-		}
+		byte[] body = callApi("search", urlStr, YoutubeQuotaGuard.SEARCH_COST, YoutubeQuotaGuard.Priority.USER);
+		return YoutubeResponseParser.parseItems(body);
 	}
 
 	@Override
 	public Map<String, String> searchVideo(String query) throws IOException {
 		String encodedQuery = URLEncoder.encode(query, StandardCharsets.UTF_8);
-		String urlStr = SEARCH_URL + "?part=snippet" + "&q=" + encodedQuery + "&type=video" + "&maxResults=1" + "&key=" + API_KEY;
-
-		URL url = new URL(urlStr);
-		HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-		conn.setRequestMethod("GET");
-
-		try (BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-			String json = reader.lines().collect(Collectors.joining());
-			JSONObject jsonObj = new JSONObject(json);
-			JSONArray items = jsonObj.getJSONArray("items");
-
-			if (items.length() > 0) {
-				JSONObject item = items.getJSONObject(0); // Get the first item
-				JSONObject snippet = item.getJSONObject("snippet");
-				String videoId = item.getJSONObject("id").getString("videoId");
-
-				Map<String, String> data = new HashMap<>();
-				data.put("title", snippet.getString("title"));
-				data.put("channel", snippet.getString("channelTitle"));
-				data.put("thumbnail", snippet.getJSONObject("thumbnails").getJSONObject("high").getString("url"));
-				data.put("videoUrl", "https://www.youtube.com/watch?v=" + videoId);
-				return data;
-			} else {
-				return null; // No videos found
-			}
-		}
+		String urlStr = apiBaseUrl + "/search?part=snippet" + "&q=" + encodedQuery + "&type=video" + "&maxResults=1" + "&key=" + API_KEY;
+
+		byte[] body = callApi("search", urlStr, YoutubeQuotaGuard.SEARCH_COST, YoutubeQuotaGuard.Priority.USER);
+		List<Map<String, String>> items = YoutubeResponseParser.parseItems(body);
+		return items.isEmpty() ? null : items.get(0); // 결과 없으면 null
 	}
 	
-	//test videoId로 조회
+	// videoId로 조회 (캐시에 없을 때만 API 호출)
+	@Override
 	public Map<String, String> getVideoDetailsById(String videoId) throws IOException {
-	    String apiUrl = "https://www.googleapis.com/youtube/v3/videos"
-	        + "?part=snippet"
-	        + "&id=" + videoId
-	        + "&key=" + API_KEY;
+	    return getVideoDetailsByIds(Collections.singletonList(videoId)).get(videoId);
+	}
 
-	    URL url = new URL(apiUrl);
-	    HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-	    conn.setRequestMethod("GET");
-
-	    try (BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-	        String json = reader.lines().collect(Collectors.joining());
-	        JSONObject jsonObj = new JSONObject(json);
-	        JSONArray items = jsonObj.getJSONArray("items");
-
-	        if (items.length() > 0) {
-	            JSONObject item = items.getJSONObject(0);
-	            JSONObject snippet = item.getJSONObject("snippet");
-
-	            Map<String, String> data = new HashMap<>();
-	            data.put("title", snippet.getString("title"));
-	            data.put("channel", snippet.getString("channelTitle"));
-	            data.put("thumbnail", snippet.getJSONObject("thumbnails").getJSONObject("high").getString("url"));
-	            data.put("videoUrl", "https://www.youtube.com/watch?v=" + videoId);
-	            return data;
+	/**
+	 * 여러 videoId 를 한 번에 조회
+	 * - 캐시에 없는 id 만 모아 videos API 한 번에 최대 50개씩 조회
+	 * - 결과: videoId -> 영상 정보, 유튜브에 없는 영상은 값이 null
+	 * - 실패한 요청에 들어 있던 id 는 결과에 없음 (모든 요청이 실패하면 IOException)
+	 * - 다른 요청이 같은 id 를 조회 중이면 다시 부르지 않고 그 결과를 함께 쓴다
+	 */
+	@Override
+	public Map<String, Map<String, String>> getVideoDetailsByIds(Collection<String> videoIds) throws IOException {
+	    return getVideoDetailsByIds(videoIds, YoutubeQuotaGuard.Priority.USER);
+	}
+
+	// priority 가 BACKGROUND 면 (캐시 갱신 등) 사용자 요청용 예약 할당량은 쓰지 않는다
+	@Override
+	public Map<String, Map<String, String>> getVideoDetailsByIds(Collection<String> videoIds,
+	        YoutubeQuotaGuard.Priority priority) throws IOException {
+	    Map<String, Map<String, String>> results = new HashMap<>();
+	    List<String> misses = new ArrayList<>();
+	    for (String videoId : new LinkedHashSet<>(videoIds)) {
+	        if (videoId == null || videoId.isEmpty()) {
+	            continue;
+	        }
+	        YoutubeVideoCache.Lookup cached = youtubeVideoCache.get(videoId);
+	        if (cached != null) {
+	            results.put(videoId, cached.getData());
 	        } else {
-	            return null;
+	            misses.add(videoId);
 	        }
 	    }
+
+	    if (misses.isEmpty()) {
+	        return results;
+	    }
+
+	    // 다른 요청이 이미 조회 중인 id 는 기다리고, 나머지만 직접 조회
+	    SingleFlight<String, Map<String, String>>.Batch flight = videoFlight.claim(misses);
+	    List<String> owned = flight.owned();
+	    IOException failure = null;
+	    int resolved = 0;
+	    try {
+	        for (int from = 0; from < owned.size(); from += MAX_IDS_PER_REQUEST) {
+	            List<String> chunk = owned.subList(from, Math.min(owned.size(), from + MAX_IDS_PER_REQUEST));
+	            try {
+	                Map<String, Map<String, String>> fetched = fetchVideoDetailsByIds(chunk, priority);
+	                for (String videoId : chunk) {
+	                    Map<String, String> data = fetched.get(videoId);
+	                    youtubeVideoCache.put(videoId, data);
+	                    results.put(videoId, data);
+	                    flight.complete(videoId, data);
+	                    resolved++;
+	                }
+	            } catch (IOException e) {
+	                flight.fail(chunk, e);
+	                failure = e;
+	            }
+	        }
+	    } finally {
+	        // 예외로 빠져나가도 기다리는 요청이 묶이지 않도록
+	        flight.failRemaining(new IOException("유튜브 영상 조회 중단"));
+	    }
+
+	    for (String videoId : flight.joined()) {
+	        try {
+	            results.put(videoId, flight.await(videoId));
+	            resolved++;
+	        } catch (IOException e) {
+	            failure = e;
+	        }
+	    }
+	    if (failure != null && resolved == 0) {
+	        throw failure;
+	    }
+	    return results;
 	}
 
+	// videos API 한 번 호출 (ids 는 최대 50개), 응답에 있는 영상만 반환
+	private Map<String, Map<String, String>> fetchVideoDetailsByIds(List<String> videoIds, YoutubeQuotaGuard.Priority priority)
+	        throws IOException {
+	    String apiUrl = apiBaseUrl + "/videos"
+	        + "?part=snippet"
+	        + "&id=" + URLEncoder.encode(String.join(",", videoIds), StandardCharsets.UTF_8)
+	        + "&maxResults=" + MAX_IDS_PER_REQUEST
+	        + "&key=" + API_KEY;
+
+	    byte[] body = callApi("videos", apiUrl, YoutubeQuotaGuard.VIDEOS_COST, priority);
+	    return YoutubeResponseParser.parseItemsById(body);
+	}
+
+	/**
+	 * 할당량/회로 확인 후 API 호출, 2xx 응답 본문 반환
+	 * - 할당량 부족이나 회로가 열려 있으면 호출하지 않고 바로 YoutubeQuotaGuard.RejectedException
+	 * - 403 quotaExceeded 응답이면 초기화 시각까지 이후 호출을 막는다
+	 */
+	private byte[] callApi(String endpoint, String url, int units, YoutubeQuotaGuard.Priority priority)
+	        throws IOException {
+	    youtubeQuotaGuard.acquire(endpoint, units, priority);
+
+	    HttpResponse<byte[]> response;
+	    try {
+	        response = outboundHttpClient.send(URI.create(url));
+	    } catch (IOException | RuntimeException e) {
+	        // 결과를 기록해야 HALF_OPEN 시험 호출(probing)이 풀린다 (잘못된 URI 등 런타임 예외 포함)
+	        youtubeQuotaGuard.recordFailure();
+	        throw e;
+	    }
+
+	    int status = response.statusCode();
+	    if (status / 100 == 2) {
+	        youtubeQuotaGuard.recordSuccess();
+	        return response.body();
+	    }
+	    // 오류 응답만 문자열로 (할당량 초과 여부 확인)
+	    String body = new String(response.body(), StandardCharsets.UTF_8);
+	    if (status == 403 && (body.contains("quotaExceeded") || body.contains("dailyLimitExceeded"))) {
+	        youtubeQuotaGuard.recordQuotaExceeded();
+	    } else {
+	        youtubeQuotaGuard.recordFailure();
+	    }
+	    throw new IOException("유튜브 API 오류 HTTP " + status + " (" + endpoint + ")");
+	}
     
     // test YouTube RSS Feed 방식 <- 503 error
 //    @Override
@@ -0,0 +1,242 @@
+package com.boot.userRecord.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * videoId -> 유튜브 영상 정보(title, channel, thumbnail, videoUrl) 캐시
+ * - 영상 정보는 거의 바뀌지 않으므로 TTL(기본 7일) 동안 API 를 다시 부르지 않는다
+ * - 메모리에는 최대 maxEntries 개, 가장 오래 안 쓰인 것부터 제거 (LRU)
+ * - 파일(JSON)에 주기적으로 저장해 두고 기동 시 다시 읽어, 재시작 후에도 캐시가 채워진 상태로 시작
+ * - 없는 영상(API 결과 없음)도 짧은 TTL(기본 1시간) 동안 기억해 같은 videoId 로 반복 호출하지 않는다
+ */
+@Slf4j
+@Component
+public class YoutubeVideoCache {
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${youtube.cache.file:data/youtube-video-cache.json}")
+	private String cacheFile;
+
+	@Value("${youtube.cache.ttl-hours:168}")
+	private long ttlHours;
+
+	@Value("${youtube.cache.negative-ttl-minutes:60}")
+	private long negativeTtlMinutes;
+
+	@Value("${youtube.cache.max-entries:20000}")
+	private int maxEntries;
+
+	private final Counter hits;
+	private final Counter misses;
+
+	private Map<String, Entry> entries;
+	private boolean dirty;
+
+	public YoutubeVideoCache(MeterRegistry registry) {
+		this.hits = Counter.builder("youtube.cache.requests").tag("result", "hit").register(registry);
+		this.misses = Counter.builder("youtube.cache.requests").tag("result", "miss").register(registry);
+		registry.gauge("youtube.cache.size", this, YoutubeVideoCache::size);
+	}
+
+	@PostConstruct
+	public void init() {
+		entries = new LinkedHashMap<String, Entry>(256, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > maxEntries;
+			}
+		};
+		load();
+	}
+
+	/**
+	 * 캐시된 영상 정보 조회
+	 * @return 캐시에 없거나 만료되면 null, 없는 영상으로 기억된 경우 getData() 가 null 인 Lookup
+	 */
+	public Lookup get(String videoId) {
+		synchronized (this) {
+			Entry entry = entries.get(videoId);
+			if (entry != null && !isExpired(entry, System.currentTimeMillis())) {
+				hits.increment();
+				return new Lookup(entry.data == null ? null : new HashMap<>(entry.data));
+			}
+			if (entry != null) {
+				entries.remove(videoId);
+			}
+		}
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * 만료되지 않은 videoId 전체 (캐시 미리 채우기용)
+	 * - get 을 쓰면 접근 순서(LRU)가 바뀌므로 entrySet 을 한 번만 훑는다 (순서, 조회 통계 그대로)
+	 */
+	public synchronized Set<String> freshIds() {
+		Set<String> fresh = new HashSet<>(entries.size() * 2);
+		long now = System.currentTimeMillis();
+		for (Map.Entry<String, Entry> e : entries.entrySet()) {
+			if (!isExpired(e.getValue(), now)) {
+				fresh.add(e.getKey());
+			}
+		}
+		return fresh;
+	}
+
+	// data 가 null 이면 없는 영상으로 기억
+	public void put(String videoId, Map<String, String> data) {
+		Entry entry = new Entry(data == null ? null : new HashMap<>(data), System.currentTimeMillis());
+		synchronized (this) {
+			entries.put(videoId, entry);
+			dirty = true;
+		}
+	}
+
+	public synchronized int size() {
+		return entries == null ? 0 : entries.size();
+	}
+
+	// 기본 1분마다 변경분이 있으면 파일에 저장
+	@Scheduled(initialDelayString = "${youtube.cache.flush-interval-ms:60000}", fixedDelayString = "${youtube.cache.flush-interval-ms:60000}")
+	public void scheduledFlush() {
+		flush();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		flush();
+	}
+
+	/**
+	 * 만료되지 않은 항목을 파일에 저장 (임시 파일에 쓴 뒤 교체하므로 저장 중 종료돼도 이전 파일은 남는다)
+	 */
+	public void flush() {
+		List<Map<String, Object>> rows = new ArrayList<>();
+		synchronized (this) {
+			if (!dirty) {
+				return;
+			}
+			long now = System.currentTimeMillis();
+			for (Map.Entry<String, Entry> e : entries.entrySet()) {
+				if (!isExpired(e.getValue(), now)) {
+					Map<String, Object> row = new LinkedHashMap<>();
+					row.put("videoId", e.getKey());
+					row.put("fetchedAt", e.getValue().fetchedAt);
+					row.put("data", e.getValue().data);
+					rows.add(row);
+				}
+			}
+			dirty = false;
+		}
+
+		Path path = Paths.get(cacheFile);
+		try {
+			if (path.getParent() != null) {
+				Files.createDirectories(path.getParent());
+			}
+			Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+			objectMapper.writeValue(temp.toFile(), rows);
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			log.debug("유튜브 영상 캐시 저장: {}개 -> {}", rows.size(), path);
+		} catch (IOException e) {
+			log.warn("유튜브 영상 캐시 저장 실패 ({}): {}", path, e.getMessage());
+			synchronized (this) {
+				dirty = true;
+			}
+		}
+	}
+
+	// 파일에서 만료되지 않은 항목만 읽는다 (파일이 없거나 깨졌으면 빈 캐시로 시작)
+	private void load() {
+		Path path = Paths.get(cacheFile);
+		if (!Files.exists(path)) {
+			return;
+		}
+		try {
+			List<Map<String, Object>> rows = objectMapper.readValue(path.toFile(),
+					new TypeReference<List<Map<String, Object>>>() {
+					});
+			long now = System.currentTimeMillis();
+			int loaded = 0;
+			synchronized (this) {
+				for (Map<String, Object> row : rows) {
+					Object videoId = row.get("videoId");
+					Object fetchedAt = row.get("fetchedAt");
+					if (!(videoId instanceof String) || !(fetchedAt instanceof Number)) {
+						continue;
+					}
+					@SuppressWarnings("unchecked")
+					Map<String, String> data = (Map<String, String>) row.get("data");
+					Entry entry = new Entry(data, ((Number) fetchedAt).longValue());
+					if (!isExpired(entry, now)) {
+						entries.put((String) videoId, entry);
+						loaded++;
+					}
+				}
+			}
+			log.info("유튜브 영상 캐시 적재: {}개 ({})", loaded, path);
+		} catch (IOException | RuntimeException e) {
+			log.warn("유튜브 영상 캐시 파일을 읽지 못해 빈 캐시로 시작 ({}): {}", path, e.getMessage());
+		}
+	}
+
+	private boolean isExpired(Entry entry, long now) {
+		long ttl = entry.data == null ? TimeUnit.MINUTES.toMillis(negativeTtlMinutes) : TimeUnit.HOURS.toMillis(ttlHours);
+		return now - entry.fetchedAt > ttl;
+	}
+
+	private static final class Entry {
+		private final Map<String, String> data;
+		private final long fetchedAt;
+
+		Entry(Map<String, String> data, long fetchedAt) {
+			this.data = data;
+			this.fetchedAt = fetchedAt;
+		}
+	}
+
+	/**
+	 * 캐시 조회 결과 - data 가 null 이면 API 에 없는 영상
+	 */
+	public static final class Lookup {
+		private final Map<String, String> data;
+
+		Lookup(Map<String, String> data) {
+			this.data = data;
+		}
+
+		public Map<String, String> getData() {
+			return data;
+		}
+	}
+}
@@ -0,0 +1,170 @@
+package com.boot.userRecord.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.boot.userRecord.dao.YoutubeVideoDAO;
+import com.boot.userRecord.dto.YoutubeVideoIdDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 음악 번호 -> 유튜브 videoId 매핑 (youtubeVideo 테이블 전체를 메모리에)
+ * - 추천 곡마다 SELECT 하던 것을 이분 탐색으로 대체 (테이블이 작고 거의 바뀌지 않음)
+ * - 정렬된 long[] / String[] 두 배열로 보관해 Long 박싱이나 HashMap 엔트리를 만들지 않는다
+ * - 주기적으로(youtube.video-map.refresh-interval-ms, 기본 5분) 다시 읽어 내용이 바뀐 경우에만 교체
+ * - 한 번도 적재하지 못했으면(DB 장애 등) 기존처럼 곡마다 조회
+ */
+@Slf4j
+@Component
+public class YoutubeVideoIdMap {
+
+	@Autowired
+	private YoutubeVideoDAO youtubeVideoDAO;
+
+	private volatile Snapshot snapshot;
+
+	public YoutubeVideoIdMap(MeterRegistry registry) {
+		registry.gauge("youtube.video_map.size", this, YoutubeVideoIdMap::size);
+	}
+
+	@PostConstruct
+	public void init() {
+		refresh();
+	}
+
+	@Scheduled(initialDelayString = "${youtube.video-map.refresh-interval-ms:300000}", fixedDelayString = "${youtube.video-map.refresh-interval-ms:300000}")
+	public void scheduledRefresh() {
+		refresh();
+	}
+
+	/**
+	 * 테이블을 다시 읽어 바뀐 경우에만 교체 (실패하면 이전 매핑 유지)
+	 * @return 교체했으면 true
+	 */
+	public synchronized boolean refresh() {
+		try {
+			Snapshot next = load();
+			Snapshot current = snapshot;
+			if (current != null && current.equals(next)) {
+				log.debug("유튜브 videoId 매핑 변경 없음 ({}개)", current.size());
+				return false;
+			}
+			snapshot = next;
+			log.info("유튜브 videoId 매핑 교체: {} -> {}개", current == null ? 0 : current.size(), next.size());
+			return true;
+		} catch (Exception e) {
+			log.warn("유튜브 videoId 매핑 적재 실패, 이전 매핑 유지: {}", e.getMessage());
+			return false;
+		}
+	}
+
+	// 등록된 영상이 없으면 null
+	public String videoId(long musicNumber) {
+		Snapshot current = snapshot;
+		if (current == null) {
+			return youtubeVideoDAO.findVideoIdByMusicNumber(musicNumber);
+		}
+		return current.get(musicNumber);
+	}
+
+	// 음악 번호 목록 -> 같은 순서의 videoId 목록 (등록 안 된 곡은 null)
+	public List<String> videoIds(List<Long> musicNumbers) {
+		List<String> videoIds = new ArrayList<>(musicNumbers.size());
+		for (Long musicNumber : musicNumbers) {
+			videoIds.add(musicNumber == null ? null : videoId(musicNumber));
+		}
+		return videoIds;
+	}
+
+	// 등록된 모든 videoId (중복 제거, 캐시 미리 채우기용), 아직 적재 전이면 빈 목록
+	public List<String> allVideoIds() {
+		Snapshot current = snapshot;
+		if (current == null) {
+			return new ArrayList<>();
+		}
+		return new ArrayList<>(new LinkedHashSet<>(Arrays.asList(current.values)));
+	}
+
+	public int size() {
+		Snapshot current = snapshot;
+		return current == null ? 0 : current.size();
+	}
+
+	// 음악 번호 순으로 읽으므로 바로 정렬된 배열이 된다 (같은 번호가 여러 행이면 첫 행만)
+	private Snapshot load() {
+		Builder builder = new Builder();
+		youtubeVideoDAO.streamVideoIds(context -> builder.add(context.getResultObject()));
+		return builder.build();
+	}
+
+	private static final class Builder {
+		private long[] keys = new long[1024];
+		private String[] values = new String[1024];
+		private int size;
+
+		void add(YoutubeVideoIdDTO row) {
+			long musicNumber = row.getMusicNumber();
+			if (size > 0 && keys[size - 1] >= musicNumber) {
+				if (keys[size - 1] > musicNumber) {
+					throw new IllegalStateException("음악 번호 순으로 정렬되지 않은 결과: " + musicNumber);
+				}
+				return;
+			}
+			if (size == keys.length) {
+				keys = Arrays.copyOf(keys, size * 2);
+				values = Arrays.copyOf(values, size * 2);
+			}
+			keys[size] = musicNumber;
+			values[size] = row.getVideoId();
+			size++;
+		}
+
+		Snapshot build() {
+			return new Snapshot(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+		}
+	}
+
+	private static final class Snapshot {
+		private final long[] keys;
+		private final String[] values;
+
+		Snapshot(long[] keys, String[] values) {
+			this.keys = keys;
+			this.values = values;
+		}
+
+		String get(long musicNumber) {
+			int i = Arrays.binarySearch(keys, musicNumber);
+			return i < 0 ? null : values[i];
+		}
+
+		int size() {
+			return keys.length;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Snapshot)) {
+				return false;
+			}
+			Snapshot other = (Snapshot) o;
+			return Arrays.equals(keys, other.keys) && Arrays.equals(values, other.values);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * Arrays.hashCode(keys) + Arrays.hashCode(values);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.boot.userRecord.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.boot.userRecord.dto.YoutubeVideoDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 추천 곡의 videoId 목록 -> 화면에 보여줄 YoutubeVideoDTO 목록
+ * - 여러 묶음(예: 7일치 기록 x 3곡)의 videoId 를 한 번에 모아 YoutubeService.getVideoDetailsByIds 로 조회
+ * - 등록된 영상이 없거나 유튜브에 없는 영상이면 "영상 없음", API 실패면 "API 실패" 대체 정보
+ */
+@Slf4j
+@Component
+public class YoutubeVideoResolver {
+
+	private static final String NO_VIDEO_THUMBNAIL = "https://dummyimage.com/480x360/cccccc/000000?text=No+Video";
+
+	@Autowired
+	private YoutubeService youtubeService;
+
+	public List<YoutubeVideoDTO> resolve(List<String> videoIds) {
+		return resolveAll(Collections.singletonList(videoIds)).get(0);
+	}
+
+	/**
+	 * 묶음별 videoId 목록을 같은 모양의 YoutubeVideoDTO 목록으로 (videoId 는 null 가능)
+	 */
+	public List<List<YoutubeVideoDTO>> resolveAll(List<List<String>> groups) {
+		List<String> videoIds = new ArrayList<>();
+		for (List<String> group : groups) {
+			videoIds.addAll(group);
+		}
+
+		Map<String, Map<String, String>> details;
+		try {
+			details = youtubeService.getVideoDetailsByIds(videoIds);
+		} catch (YoutubeQuotaGuard.RejectedException e) {
+			// 할당량 부족/회로 열림 - 호출 없이 바로 대체 정보 (매 요청 경고를 남기지 않음)
+			log.debug("유튜브 영상 조회 생략 ({}개): {}", videoIds.size(), e.getMessage());
+			details = Collections.emptyMap();
+		} catch (IOException e) {
+			log.warn("유튜브 영상 조회 실패 ({}개): {}", videoIds.size(), e.getMessage());
+			details = Collections.emptyMap();
+		}
+
+		List<List<YoutubeVideoDTO>> results = new ArrayList<>(groups.size());
+		for (List<String> group : groups) {
+			List<YoutubeVideoDTO> videos = new ArrayList<>(group.size());
+			for (String videoId : group) {
+				videos.add(toDTO(videoId, details));
+			}
+			results.add(videos);
+		}
+		return results;
+	}
+
+	private YoutubeVideoDTO toDTO(String videoId, Map<String, Map<String, String>> details) {
+		if (videoId == null || videoId.isEmpty()) {
+			return noVideo();
+		}
+		if (!details.containsKey(videoId)) {
+			return failed(videoId);
+		}
+		Map<String, String> videoData = details.get(videoId);
+		if (videoData == null) {
+			return noVideo();
+		}
+		return new YoutubeVideoDTO(
+			videoData.get("title"),
+			videoData.get("channel"),
+			videoData.get("thumbnail"),
+			videoData.get("videoUrl")
+		);
+	}
+
+	public static YoutubeVideoDTO noVideo() {
+		return new YoutubeVideoDTO("영상 없음", "미등록", NO_VIDEO_THUMBNAIL, "#"); // 링크 없음 처리
+	}
+
+	// videoId 를 알면 썸네일/링크는 videoId 로 만든 정적 정보
+	public static YoutubeVideoDTO failed(String videoId) {
+		if (videoId == null) {
+			return new YoutubeVideoDTO("API 실패", "API 실패", NO_VIDEO_THUMBNAIL, "#");
+		}
+		return new YoutubeVideoDTO("API 실패", "API 실패",
+				"https://i.ytimg.com/vi/" + videoId + "/hqdefault.jpg",
+				"https://www.youtube.com/watch?v=" + videoId);
+	}
+}
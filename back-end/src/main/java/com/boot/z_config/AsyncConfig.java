@@ -0,0 +1,40 @@
+package com.boot.z_config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * 추천 요청 단계(행동/음악/도서/유튜브)를 병렬로 돌리는 전용 스레드 풀
+ * - 스레드 수와 대기열 크기를 제한하고, 가득 차면 거절 (호출 쪽에서 폴백 처리)
+ * - executor.* 지표(active, queued, completed, pool.size 등)를 actuator 로 노출
+ */
+@Configuration
+public class AsyncConfig {
+
+	@Bean(name = "recommendExecutor", destroyMethod = "shutdown")
+	public ExecutorService recommendExecutor(MeterRegistry meterRegistry,
+			@Value("${recommend.executor.pool-size:16}") int poolSize,
+			@Value("${recommend.executor.queue-capacity:256}") int queueCapacity) {
+		AtomicInteger seq = new AtomicInteger();
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, "recommend-" + seq.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return ExecutorServiceMetrics.monitor(meterRegistry, executor, "recommendExecutor");
+	}
+}
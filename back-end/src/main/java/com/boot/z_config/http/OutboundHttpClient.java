@@ -0,0 +1,172 @@
+package com.boot.z_config.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 외부 API(유튜브, 국립중앙도서관 등) 호출용 공용 HTTP 클라이언트
+ * - java.net.http.HttpClient 하나를 공유해 keep-alive 연결을 재사용하고, https 는 가능하면 HTTP/2 로 통신
+ * - 연결 제한 시간(http.client.connect-timeout-ms), 응답 제한 시간(http.client.read-timeout-ms)
+ * - 호스트별 동시 요청 수 제한(http.client.max-per-host), 한도를 넘으면 기다리지 않고 바로 실패
+ * - outbound.http.requests{host, outcome} 타이머, outbound.http.inflight{host} 게이지를 actuator 로 노출
+ *   (스프링 RestTemplate/WebClient 의 http.client.requests 와 이름이 겹치지 않게)
+ * - 응답 코드가 2xx 가 아니면 IOException (HttpURLConnection.getInputStream 과 같은 처리)
+ */
+@Slf4j
+@Component
+public class OutboundHttpClient {
+
+	private final HttpClient client;
+	private final Duration readTimeout;
+	private final int maxPerHost;
+	private final MeterRegistry registry;
+	private final ConcurrentMap<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+	public OutboundHttpClient(MeterRegistry registry,
+			@Value("${http.client.connect-timeout-ms:3000}") long connectTimeoutMs,
+			@Value("${http.client.read-timeout-ms:5000}") long readTimeoutMs,
+			@Value("${http.client.max-per-host:32}") int maxPerHost) {
+		this.registry = registry;
+		this.readTimeout = Duration.ofMillis(readTimeoutMs);
+		this.maxPerHost = maxPerHost;
+		this.client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_2) // 서버가 지원하지 않으면 HTTP/1.1
+				.connectTimeout(Duration.ofMillis(connectTimeoutMs))
+				.followRedirects(HttpClient.Redirect.NORMAL)
+				.build();
+	}
+
+	/**
+	 * GET 요청, 응답 본문(2xx) 을 비동기로 반환
+	 */
+	public CompletableFuture<byte[]> getAsync(URI uri) {
+		return sendAsync(HttpRequest.newBuilder(uri).GET().build()).thenCompose(response -> {
+			if (response.statusCode() / 100 != 2) {
+				return CompletableFuture.failedFuture(
+						new IOException("HTTP " + response.statusCode() + " (" + uri.getHost() + uri.getPath() + ")"));
+			}
+			return CompletableFuture.completedFuture(response.body());
+		});
+	}
+
+	public byte[] get(URI uri) throws IOException {
+		return await(getAsync(uri));
+	}
+
+	public String getString(URI uri) throws IOException {
+		return new String(get(uri), StandardCharsets.UTF_8);
+	}
+
+	// 응답 코드와 관계없이 응답 그대로 (오류 응답 본문을 봐야 할 때)
+	public HttpResponse<byte[]> send(URI uri) throws IOException {
+		return await(sendAsync(HttpRequest.newBuilder(uri).GET().build()));
+	}
+
+	/**
+	 * 요청을 보내고 응답 코드와 관계없이 응답을 반환 (timeout 이 없으면 기본 응답 제한 시간 적용)
+	 * - 호스트별 동시 요청 한도를 넘으면 IOException 으로 바로 실패
+	 */
+	public CompletableFuture<HttpResponse<byte[]>> sendAsync(HttpRequest request) {
+		boolean plainHttp = "http".equalsIgnoreCase(request.uri().getScheme());
+		if (request.timeout().isEmpty() || (plainHttp && request.version().isEmpty())) {
+			HttpRequest.Builder builder = HttpRequest.newBuilder(request, (name, value) -> true);
+			if (request.timeout().isEmpty()) {
+				builder.timeout(readTimeout);
+			}
+			// 평문 http 는 h2c 업그레이드 헤더를 보내지 않고 HTTP/1.1 keep-alive 로 (업그레이드 요청을 잘못 처리하는 서버가 있음)
+			if (plainHttp && request.version().isEmpty()) {
+				builder.version(HttpClient.Version.HTTP_1_1);
+			}
+			request = builder.build();
+		}
+		String host = request.uri().getHost();
+		Semaphore permits = permits(host);
+		if (!permits.tryAcquire()) {
+			record(host, "rejected", 0L);
+			return CompletableFuture.failedFuture(new IOException("호스트별 동시 요청 한도 초과: " + host));
+		}
+
+		long start = System.nanoTime();
+		CompletableFuture<HttpResponse<byte[]>> future;
+		try {
+			future = client.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+		} catch (RuntimeException e) {
+			permits.release();
+			record(host, "error", System.nanoTime() - start);
+			return CompletableFuture.failedFuture(e);
+		}
+		return future.whenComplete((response, error) -> {
+			permits.release();
+			record(host, outcome(response, error), System.nanoTime() - start);
+			if (error != null) {
+				log.debug("외부 API 호출 실패 {}: {}", host, error.toString());
+			}
+		});
+	}
+
+	private Semaphore permits(String host) {
+		return hostPermits.computeIfAbsent(host, h -> {
+			Semaphore semaphore = new Semaphore(maxPerHost);
+			registry.gauge("outbound.http.inflight", Tags.of("host", h), semaphore,
+					s -> maxPerHost - s.availablePermits());
+			return semaphore;
+		});
+	}
+
+	private void record(String host, String outcome, long elapsedNanos) {
+		Timer.builder("outbound.http.requests").tag("host", host).tag("outcome", outcome)
+				.publishPercentiles(0.5, 0.99).register(registry).record(elapsedNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private static String outcome(HttpResponse<?> response, Throwable error) {
+		if (error != null || response == null) {
+			return "error";
+		}
+		int status = response.statusCode();
+		if (status >= 500) {
+			return "server_error";
+		}
+		if (status >= 400) {
+			return "client_error";
+		}
+		return "success";
+	}
+
+	// 블로킹 호출용 - 실패 원인이 IOException 이면 그대로 던진다
+	private static <T> T await(CompletableFuture<T> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("외부 API 호출 중 인터럽트");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+}
@@ -0,0 +1,179 @@
+package com.boot.z_config.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 같은 키에 대한 동시 외부 조회를 하나로 합친다 (single-flight)
+ * - 처음 온 호출(leader)만 실제로 조회하고, 그 사이 같은 키로 온 호출은 같은 CompletableFuture 를 기다린다
+ * - 조회가 끝나면 키를 지우므로 결과를 보관하지 않는다 (캐시는 따로)
+ * - singleflight.calls{name, result=leader|coalesced} 카운터로 합쳐진 호출 수를 노출
+ */
+public final class SingleFlight<K, V> {
+
+	@FunctionalInterface
+	public interface Call<V> {
+		V call() throws IOException;
+	}
+
+	private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+	private final Counter leaders;
+	private final Counter coalesced;
+
+	public SingleFlight(String name, MeterRegistry registry) {
+		this.leaders = Counter.builder("singleflight.calls").tag("name", name).tag("result", "leader")
+				.register(registry);
+		this.coalesced = Counter.builder("singleflight.calls").tag("name", name).tag("result", "coalesced")
+				.register(registry);
+	}
+
+	/**
+	 * 비동기 조회 - 같은 키로 진행 중인 조회가 있으면 그 future 를 반환
+	 */
+	public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call) {
+		CompletableFuture<V> mine = new CompletableFuture<>();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+		if (existing != null) {
+			coalesced.increment();
+			return existing;
+		}
+		leaders.increment();
+		try {
+			call.get().whenComplete((value, error) -> finish(key, mine, value, error));
+		} catch (RuntimeException e) {
+			finish(key, mine, null, e);
+		}
+		return mine;
+	}
+
+	/**
+	 * 블로킹 조회 - leader 는 호출한 스레드에서 바로 조회하고, 나머지는 결과를 기다린다
+	 */
+	public V run(K key, Call<V> call) throws IOException {
+		CompletableFuture<V> mine = new CompletableFuture<>();
+		CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+		if (existing != null) {
+			coalesced.increment();
+			return await(existing);
+		}
+		leaders.increment();
+		try {
+			V value = call.call();
+			finish(key, mine, value, null);
+			return value;
+		} catch (IOException | RuntimeException e) {
+			finish(key, mine, null, e);
+			throw e;
+		}
+	}
+
+	/**
+	 * 여러 키를 한 번에 조회할 때 (예: 유튜브 videos API 묶음 조회)
+	 * - 아무도 조회 중이 아닌 키는 이 호출이 맡고(owned), 이미 조회 중인 키는 기다린다(joined)
+	 * - 맡은 키는 반드시 complete/fail 해야 하며, 남은 키는 finally 에서 failRemaining 으로 정리
+	 */
+	public Batch claim(Collection<K> keys) {
+		return new Batch(keys);
+	}
+
+	private void finish(K key, CompletableFuture<V> future, V value, Throwable error) {
+		inFlight.remove(key, future);
+		if (error != null) {
+			future.completeExceptionally(error);
+		} else {
+			future.complete(value);
+		}
+	}
+
+	private static <V> V await(CompletableFuture<V> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("동시 조회 결과 대기 중 인터럽트");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	public final class Batch {
+		private final Map<K, CompletableFuture<V>> owned = new LinkedHashMap<>();
+		private final Map<K, CompletableFuture<V>> joined = new LinkedHashMap<>();
+
+		private Batch(Collection<K> keys) {
+			for (K key : keys) {
+				if (owned.containsKey(key) || joined.containsKey(key)) {
+					continue;
+				}
+				CompletableFuture<V> mine = new CompletableFuture<>();
+				CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+				if (existing == null) {
+					leaders.increment();
+					owned.put(key, mine);
+				} else {
+					coalesced.increment();
+					joined.put(key, existing);
+				}
+			}
+		}
+
+		// 이 호출이 조회해야 하는 키
+		public List<K> owned() {
+			return new ArrayList<>(owned.keySet());
+		}
+
+		// 다른 호출이 조회 중이라 기다리는 키
+		public List<K> joined() {
+			return new ArrayList<>(joined.keySet());
+		}
+
+		public void complete(K key, V value) {
+			CompletableFuture<V> future = owned.remove(key);
+			if (future != null) {
+				finish(key, future, value, null);
+			}
+		}
+
+		public void fail(Collection<K> keys, Throwable error) {
+			for (K key : keys) {
+				CompletableFuture<V> future = owned.remove(key);
+				if (future != null) {
+					finish(key, future, null, error);
+				}
+			}
+		}
+
+		// 완료하지 못한 맡은 키를 모두 실패 처리 (기다리는 호출이 영원히 묶이지 않도록)
+		public void failRemaining(Throwable error) {
+			fail(new ArrayList<>(owned.keySet()), error);
+		}
+
+		public V await(K key) throws IOException {
+			CompletableFuture<V> future = joined.get(key);
+			if (future == null) {
+				throw new IllegalArgumentException("기다리는 키가 아닙니다: " + key);
+			}
+			return SingleFlight.await(future);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package com.boot.analize.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.SplittableRandom;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.mybatis.spring.transaction.SpringManagedTransactionFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 이탈 학습 데이터를 features / labels 두 번의 조회로 나눠 써도 같은 행끼리 짝이 맞는지 (H2, MODE=Oracle)
+ */
+class ChurnDetectionServiceTest {
+
+	private static final String MAPPER = "mybatis/mappers/userChurnMapper.xml";
+	private static final long SEED = 20240613L;
+	private static final int ROWS = 2000;
+
+	private ChurnDetectionService service;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		UnpooledDataSource dataSource = new UnpooledDataSource("org.h2.Driver",
+				"jdbc:h2:mem:churn" + System.nanoTime() + ";MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", "");
+		try (Connection connection = dataSource.getConnection()) {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("CREATE TABLE USER_CHURN_TRAIN (feedbackScore NUMBER(5, 2), "
+						+ "recommendCount NUMBER(10), recentActivityCount NUMBER(10), churn NUMBER(1))");
+			}
+			// 라벨은 최근 활동이 없으면 1 -> 응답에서 같은 위치의 features 로 다시 계산해 짝을 확인
+			SplittableRandom random = new SplittableRandom(SEED);
+			try (PreparedStatement insert = connection.prepareStatement(
+					"INSERT INTO USER_CHURN_TRAIN VALUES (?, ?, ?, ?)")) {
+				for (int i = 0; i < ROWS; i++) {
+					int recent = random.nextInt(4);
+					insert.setDouble(1, random.nextInt(500) / 100.0);
+					insert.setInt(2, random.nextInt(30));
+					insert.setInt(3, recent);
+					insert.setInt(4, recent == 0 ? 1 : 0);
+					insert.addBatch();
+				}
+				insert.executeBatch();
+			}
+		}
+
+		Configuration configuration = new Configuration(
+				new Environment("test", new SpringManagedTransactionFactory(), dataSource));
+		try (InputStream in = Resources.getResourceAsStream(MAPPER)) {
+			new XMLMapperBuilder(in, configuration, MAPPER, configuration.getSqlFragments()).parse();
+		}
+		service = new ChurnDetectionService();
+		ReflectionTestUtils.setField(service, "session",
+				new SqlSessionTemplate(new SqlSessionFactoryBuilder().build(configuration)));
+		ReflectionTestUtils.setField(service, "transactionManager", new DataSourceTransactionManager(dataSource));
+	}
+
+	@Test
+	void labelsFromSecondPassLineUpWithFeatures() throws Exception {
+		JsonNode json = new ObjectMapper().readTree(new ObjectMapper().writeValueAsString(service.getChurnTrainingJson()));
+
+		JsonNode features = json.get("features");
+		JsonNode labels = json.get("labels");
+		assertEquals(ROWS, json.get("count").asInt());
+		assertEquals(ROWS, features.size());
+		assertEquals(ROWS, labels.size());
+		for (int i = 0; i < ROWS; i++) {
+			int expected = features.get(i).get(2).asDouble() == 0.0 ? 1 : 0;
+			assertEquals(expected, labels.get(i).asInt(), "row " + i);
+		}
+	}
+}
@@ -0,0 +1,173 @@
+package com.boot.analize.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 한 번에 누적한 상관계수/응집 구간이 기존 계산(점수 목록 + 합/제곱합 피어슨)과 같은지 무작위 비교 (시드 고정)
+ */
+class EmotionMomentsTest {
+
+	private static final long SEED = 20240613L;
+	private static final int D = EmotionMoments.DIMENSIONS;
+	// 합/제곱합 방식과 편차 누적 방식의 반올림 차이 (실측 최대 약 4e-15)
+	private static final double TOLERANCE = 1e-14;
+
+	@Test
+	void matchesListBasedPearsonAndBins() {
+		SplittableRandom random = new SplittableRandom(SEED);
+		for (int round = 0; round < 300; round++) {
+			List<int[]> rows = rows(random, random.nextInt(3001));
+			EmotionMoments moments = new EmotionMoments();
+			rows.forEach(moments::add);
+
+			assertEquals(rows.size(), moments.count());
+			for (int i = 0; i < D; i++) {
+				for (int j = 0; j < D; j++) {
+					double expected = pearson(column(rows, i), column(rows, j));
+					assertEquals(expected, moments.correlation(i, j), TOLERANCE, "round " + round + " (" + i + "," + j + ")");
+				}
+				assertEquals(mostCohesive(column(rows, i)), moments.mostCohesiveValue(i), "round " + round + " " + i);
+			}
+		}
+	}
+
+	@Test
+	void mergeMatchesSinglePass() {
+		SplittableRandom random = new SplittableRandom(SEED);
+		for (int round = 0; round < 100; round++) {
+			List<int[]> rows = rows(random, random.nextInt(2000));
+			EmotionMoments single = new EmotionMoments();
+			rows.forEach(single::add);
+
+			// 빈 파티션이 섞이도록 세 구간으로 나눠 누적 후 합치기
+			int a = random.nextInt(rows.size() + 1);
+			int b = a + random.nextInt(rows.size() - a + 1);
+			EmotionMoments first = new EmotionMoments();
+			EmotionMoments second = new EmotionMoments();
+			EmotionMoments third = new EmotionMoments();
+			rows.subList(0, a).forEach(first::add);
+			rows.subList(a, b).forEach(second::add);
+			rows.subList(b, rows.size()).forEach(third::add);
+			EmotionMoments merged = new EmotionMoments().merge(third).merge(first).merge(second);
+
+			assertEquals(single.count(), merged.count());
+			for (int i = 0; i < D; i++) {
+				assertEquals(single.mean(i), merged.mean(i), 1e-9);
+				for (int j = 0; j < D; j++) {
+					assertEquals(single.correlation(i, j), merged.correlation(i, j), TOLERANCE, "round " + round);
+				}
+				assertEquals(single.mostCohesiveValue(i), merged.mostCohesiveValue(i));
+			}
+		}
+	}
+
+	@Test
+	void zeroVarianceGivesZeroCorrelation() {
+		EmotionMoments moments = new EmotionMoments();
+		for (int k = 0; k < 50; k++) {
+			moments.add(new int[] { 70, k, k * 2, 100 - k, 70, 0 });
+		}
+		assertEquals(0.0, moments.correlation(0, 1));
+		assertEquals(0.0, moments.correlation(1, 0));
+		assertEquals(0.0, moments.correlation(0, 4));
+		assertEquals(0.0, moments.correlation(5, 5));
+		assertEquals(1.0, moments.correlation(1, 2), 1e-15);
+		assertEquals(-1.0, moments.correlation(1, 3), 1e-15);
+		assertEquals(75, moments.mostCohesiveValue(0));
+	}
+
+	@Test
+	void emptyGivesZeroCorrelationAndClusterFour() {
+		EmotionMoments moments = new EmotionMoments();
+		assertEquals(0, moments.count());
+		for (int i = 0; i < D; i++) {
+			for (int j = 0; j < D; j++) {
+				assertEquals(0.0, moments.correlation(i, j));
+			}
+			assertEquals(4, moments.mostCohesiveValue(i));
+		}
+		assertEquals(4, new EmotionMoments().merge(new EmotionMoments()).mostCohesiveValue(0));
+	}
+
+	// 점수 0~100 위주, 동점 구간과 범위 밖(음수, 100 초과) 값도 섞는다
+	private static List<int[]> rows(SplittableRandom random, int n) {
+		List<int[]> rows = new ArrayList<>(n);
+		int coarse = 1 + random.nextInt(10);
+		for (int r = 0; r < n; r++) {
+			int[] row = new int[D];
+			for (int i = 0; i < D; i++) {
+				int kind = random.nextInt(50);
+				if (kind == 0) {
+					row[i] = -random.nextInt(30);
+				} else if (kind == 1) {
+					row[i] = 101 + random.nextInt(30);
+				} else {
+					row[i] = random.nextInt(101 / coarse + 1) * coarse;
+				}
+			}
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	private static List<Double> column(List<int[]> rows, int i) {
+		List<Double> values = new ArrayList<>(rows.size());
+		for (int[] row : rows) {
+			values.add((double) row[i]);
+		}
+		return values;
+	}
+
+	// 기존 UserClusteringService.calculatePearsonCorrelation
+	private static double pearson(List<Double> x, List<Double> y) {
+		if (x.size() != y.size() || x.size() == 0) return 0.0;
+
+		int n = x.size();
+		double sumX = 0, sumY = 0, sumXY = 0;
+		double sumX2 = 0, sumY2 = 0;
+
+		for (int i = 0; i < n; i++) {
+			double xi = x.get(i);
+			double yi = y.get(i);
+			sumX += xi;
+			sumY += yi;
+			sumXY += xi * yi;
+			sumX2 += xi * xi;
+			sumY2 += yi * yi;
+		}
+
+		double numerator = n * sumXY - sumX * sumY;
+		double denominator = Math.sqrt((n * sumX2 - sumX * sumX) * (n * sumY2 - sumY * sumY));
+
+		if (denominator == 0) return 0.0;
+		return numerator / denominator;
+	}
+
+	// 기존 UserClusteringService.findMostCohesiveCluster (HashMap 순서 대신 동점이면 낮은 구간)
+	private static int mostCohesive(List<Double> values) {
+		Map<Integer, Integer> countMap = new TreeMap<>();
+		for (double value : values) {
+			int bin = ((int) value / 10) * 10;
+			countMap.put(bin, countMap.getOrDefault(bin, 0) + 1);
+		}
+
+		int maxBin = -1;
+		int maxCount = -1;
+		for (Map.Entry<Integer, Integer> entry : countMap.entrySet()) {
+			if (entry.getValue() > maxCount) {
+				maxCount = entry.getValue();
+				maxBin = entry.getKey();
+			}
+		}
+
+		return maxBin + 5;
+	}
+}
@@ -0,0 +1,161 @@
+package com.boot.tensor.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.boot.tensor.dto.MusicDTO;
+
+/**
+ * k-d 트리 후보 구간 + TopKSelector 가 전수 조사와 같은 결과를 내는지 무작위 비교 (시드 고정)
+ */
+class EmotionIndexTest {
+
+	private static final long SEED = 20240613L;
+
+	@Test
+	void topKSelectorMatchesFullSort() {
+		SplittableRandom random = new SplittableRandom(SEED);
+		for (int round = 0; round < 200; round++) {
+			int n = 1 + random.nextInt(300);
+			int k = 1 + random.nextInt(n + 20); // 전체보다 큰 k 포함
+			double[] scores = new double[n];
+			for (int i = 0; i < n; i++) {
+				scores[i] = random.nextInt(20) / 10.0; // 동점이 많도록
+			}
+
+			TopKSelector selector = new TopKSelector(k);
+			for (int i = 0; i < n; i++) {
+				selector.offer(i, scores[i]);
+			}
+			int[] expected = IntStream.range(0, n).boxed()
+					.sorted(Comparator.<Integer>comparingDouble(i -> -scores[i]).thenComparingInt(i -> i))
+					.limit(k).mapToInt(Integer::intValue).toArray();
+
+			assertArrayEquals(expected, selector.drainDescending(), "round " + round);
+			assertEquals(0, selector.size());
+		}
+	}
+
+	@Test
+	void candidatesContainEveryRowThatCanReachTopKWithJitter() {
+		SplittableRandom random = new SplittableRandom(SEED);
+		for (int round = 0; round < 60; round++) {
+			EmotionMatrix matrix = EmotionMatrix.of(catalog(random, 50 + random.nextInt(2000)), CatalogAdapters.MUSIC);
+			EmotionIndex index = EmotionIndex.build(matrix);
+			assertEquals(matrix.size(), index.size());
+
+			for (int q = 0; q < 20; q++) {
+				float[] user = userVector(random);
+				int k = 1 + random.nextInt(matrix.size() + 10); // 전체보다 큰 k 포함
+				int[] candidates = index.candidates(user, k, RecommendationEngine.JITTER);
+
+				float[] cosine = matrix.cosine(user);
+				TopKSelector top = new TopKSelector(Math.min(k, cosine.length));
+				for (int i = 0; i < cosine.length; i++) {
+					top.offer(i, cosine[i]);
+				}
+				double threshold = top.minScore() - RecommendationEngine.JITTER;
+				for (int i = 0; i < cosine.length; i++) {
+					if (cosine[i] > threshold) {
+						assertTrue(Arrays.binarySearch(candidates, i) >= 0,
+								"round " + round + " row " + i + " cos " + cosine[i] + " 누락");
+					}
+				}
+			}
+		}
+	}
+
+	// 행마다 고정된 지터를 더한 상위 k개가 후보 구간만 봐도 전체를 본 것과 같아야 한다
+	@Test
+	void jitteredTopKFromCandidatesMatchesBruteForce() {
+		SplittableRandom random = new SplittableRandom(SEED);
+		for (int round = 0; round < 60; round++) {
+			EmotionMatrix matrix = EmotionMatrix.of(catalog(random, 100 + random.nextInt(3000)), CatalogAdapters.MUSIC);
+			EmotionIndex index = EmotionIndex.build(matrix);
+			double[] jitter = new double[matrix.size()];
+			for (int i = 0; i < jitter.length; i++) {
+				jitter[i] = random.nextDouble() * RecommendationEngine.JITTER;
+			}
+
+			for (int q = 0; q < 20; q++) {
+				float[] user = userVector(random);
+				int k = 1 + random.nextInt(40);
+				float[] cosine = matrix.cosine(user);
+
+				TopKSelector all = new TopKSelector(Math.min(k, cosine.length));
+				for (int i = 0; i < cosine.length; i++) {
+					all.offer(i, cosine[i] + jitter[i]);
+				}
+				TopKSelector fromIndex = new TopKSelector(Math.min(k, cosine.length));
+				for (int row : index.candidates(user, k, RecommendationEngine.JITTER)) {
+					fromIndex.offer(row, cosine[row] + jitter[row]);
+				}
+
+				assertArrayEquals(all.drainDescending(), fromIndex.drainDescending(), "round " + round + " k " + k);
+			}
+		}
+	}
+
+	@Test
+	void zeroUserVectorOrEmptyTreeFallsBackToFullScan() {
+		SplittableRandom random = new SplittableRandom(SEED);
+		EmotionIndex index = EmotionIndex.build(EmotionMatrix.of(catalog(random, 100), CatalogAdapters.MUSIC));
+		assertNull(index.candidates(new float[6], 3, RecommendationEngine.JITTER));
+
+		List<MusicDTO> zeros = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			zeros.add(music(i, 0, 0, 0, 0, 0, 0));
+		}
+		EmotionIndex zeroIndex = EmotionIndex.build(EmotionMatrix.of(zeros, CatalogAdapters.MUSIC));
+		assertEquals(10, zeroIndex.size());
+		assertNull(zeroIndex.candidates(userVector(random), 3, RecommendationEngine.JITTER));
+	}
+
+	// 무작위 항목 + 같은 벡터 중복 + 영벡터가 섞인 카탈로그
+	private static List<MusicDTO> catalog(SplittableRandom random, int n) {
+		List<MusicDTO> items = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			int kind = random.nextInt(10);
+			if (kind == 0 && i > 0) {
+				MusicDTO copy = items.get(random.nextInt(i));
+				items.add(music(i, copy.getHappy(), copy.getSad(), copy.getStress(), copy.getCalm(), copy.getExcited(),
+						copy.getTired()));
+			} else if (kind == 1) {
+				items.add(music(i, 0, 0, 0, 0, 0, 0));
+			} else {
+				items.add(music(i, random.nextInt(101), random.nextInt(101), random.nextInt(101), random.nextInt(101),
+						random.nextInt(101), random.nextInt(101)));
+			}
+		}
+		return items;
+	}
+
+	private static MusicDTO music(int number, int happy, int sad, int stress, int calm, int excited, int tired) {
+		return new MusicDTO(number, 1, "music" + number, "author", happy, sad, stress, calm, excited, tired);
+	}
+
+	private static float[] userVector(SplittableRandom random) {
+		float[] user = new float[6];
+		for (int d = 0; d < user.length; d++) {
+			user[d] = random.nextInt(4) == 0 ? 0f : random.nextInt(101);
+		}
+		if (random.nextInt(10) == 0) {
+			user[random.nextInt(6)] = 100f; // 한 감정이 두드러진 경우
+		}
+		if (user[0] == 0f && user[1] == 0f && user[2] == 0f && user[3] == 0f && user[4] == 0f && user[5] == 0f) {
+			user[0] = 1f; // 영벡터 사용자는 zeroUserVectorOrEmptyTreeFallsBackToFullScan 에서 확인
+		}
+		return user;
+	}
+}
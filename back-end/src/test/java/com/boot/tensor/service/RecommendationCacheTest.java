@@ -0,0 +1,61 @@
+package com.boot.tensor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 캐시 키는 정규화한 벡터 기준 (점수 크기와 관계없이 방향으로 칸을 나눈다)
+ */
+class RecommendationCacheTest {
+
+	private final RecommendationCache cache = new RecommendationCache("music", 0.05, 100, new SimpleMeterRegistry());
+
+	@Test
+	void sameDirectionSharesCell() {
+		assertEquals(cache.key(new float[] { 10, 20, 0, 5, 0, 40 }), cache.key(new float[] { 20, 40, 0, 10, 0, 80 }));
+	}
+
+	// 정규화 전에는 51 이상 값이 모두 같은 칸으로 잘렸다
+	@Test
+	void largeScoresAreNotClamped() {
+		assertNotEquals(cache.key(new float[] { 100, 60, 0, 0, 0, 0 }), cache.key(new float[] { 60, 100, 0, 0, 0, 0 }));
+		assertNotEquals(cache.key(new float[] { 100, 0, 0, 0, 0, 0 }), cache.key(new float[] { 100, 100, 0, 0, 0, 0 }));
+	}
+
+	@Test
+	void centerIsNearUnitVector() {
+		float[] user = { 90, 10, 30, 70, 50, 20 };
+		float[] center = cache.center(cache.key(user));
+		double norm = 0;
+		for (float value : user) {
+			norm += value * value;
+		}
+		norm = Math.sqrt(norm);
+		for (int d = 0; d < user.length; d++) {
+			assertEquals(user[d] / norm, center[d], 0.025 + 1e-6);
+		}
+	}
+
+	@Test
+	void zeroVectorUsesZeroCell() {
+		assertEquals(0L, cache.key(new float[6]));
+	}
+
+	@Test
+	void invalidVectorHasNoKey() {
+		assertEquals(RecommendationCache.NO_KEY, cache.key(new float[] { 10, -1, 0, 0, 0, 0 }));
+		assertEquals(RecommendationCache.NO_KEY, cache.key(new float[] { 10, Float.NaN, 0, 0, 0, 0 }));
+		assertEquals(RecommendationCache.NO_KEY, cache.key(new float[] { Float.POSITIVE_INFINITY, 0, 0, 0, 0, 0 }));
+	}
+
+	@Test
+	void rejectsStepTooSmallForKeyBits() {
+		assertThrows(IllegalArgumentException.class, () -> new RecommendationCache("music", 0.0001, 10, new SimpleMeterRegistry()));
+		assertThrows(IllegalArgumentException.class, () -> new RecommendationCache("music", 0, 10, new SimpleMeterRegistry()));
+	}
+}
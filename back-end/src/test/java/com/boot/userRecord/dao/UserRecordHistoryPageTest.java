@@ -0,0 +1,190 @@
+package com.boot.userRecord.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.InputStream;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.datasource.unpooled.UnpooledDataSource;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.boot.userRecord.dto.UserRecordDTO;
+
+/**
+ * findHistoryPage 를 H2(MODE=Oracle)에서 실행
+ * - (created_at, id) 커서로 같은 시각의 기록이 페이지 경계에 걸쳐도 빠지거나 겹치지 않는지
+ * - [from, to) 반열림 구간, 마지막 페이지 다음 커서는 빈 결과
+ * - CAST(#{cursorCreatedAt} AS DATE), FETCH FIRST #{limit} ROWS ONLY 가 그대로 실행되는지
+ */
+class UserRecordHistoryPageTest {
+
+	private static final String MAPPER = "mybatis/mappers/userRecordMapper.xml";
+	private static final int USER = 1;
+	private static final int OTHER_USER = 2;
+
+	private static final LocalDate FROM = LocalDate.of(2024, 6, 10);
+	// 서비스와 같이 to 는 마지막 날 + 1일 (제외)
+	private static final LocalDate TO = LocalDate.of(2024, 6, 13);
+
+	private SqlSession session;
+	private UserRecordDAO dao;
+	private final List<UserRecordDTO> inserted = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws Exception {
+		UnpooledDataSource dataSource = new UnpooledDataSource("org.h2.Driver",
+				"jdbc:h2:mem:history" + System.nanoTime() + ";MODE=Oracle;DB_CLOSE_DELAY=-1", "sa", "");
+		Configuration configuration = new Configuration(
+				new Environment("test", new JdbcTransactionFactory(), dataSource));
+		try (InputStream in = Resources.getResourceAsStream(MAPPER)) {
+			new XMLMapperBuilder(in, configuration, MAPPER, configuration.getSqlFragments()).parse();
+		}
+		SqlSessionFactory factory = new SqlSessionFactoryBuilder().build(configuration);
+		session = factory.openSession(true);
+		// 세션 연결은 닫지 않고 Statement 만 닫는다
+		try (Statement statement = session.getConnection().createStatement()) {
+			statement.execute("CREATE TABLE userRecord (id NUMBER(19) PRIMARY KEY, userNumber NUMBER(10), "
+					+ "happy NUMBER(3), sad NUMBER(3), stress NUMBER(3), calm NUMBER(3), excited NUMBER(3), "
+					+ "tired NUMBER(3), music_ids VARCHAR2(200), action_ids VARCHAR2(200), "
+					+ "book_ids VARCHAR2(200), created_at DATE)");
+			statement.execute("CREATE SEQUENCE USERRECORD_SEQ START WITH 1");
+		}
+		dao = session.getMapper(UserRecordDAO.class);
+
+		// 구간 시작 시각 (포함)
+		insert(USER, FROM.atStartOfDay());
+		// 같은 시각 기록 다섯 개 (페이지 크기 2 로 나누면 경계에 걸린다)
+		LocalDateTime tied = LocalDateTime.of(2024, 6, 11, 9, 30, 15);
+		for (int i = 0; i < 5; i++) {
+			insert(USER, tied);
+		}
+		insert(USER, tied.minusSeconds(1));
+		insert(USER, tied.plusSeconds(1));
+		insert(OTHER_USER, tied);
+		// 같은 시각 세 개가 id 순서와 반대로 저장된 경우도 섞는다
+		LocalDateTime late = LocalDateTime.of(2024, 6, 12, 23, 59, 59);
+		insert(USER, late);
+		insert(USER, late);
+		insert(USER, late.minusHours(3));
+		insert(USER, late);
+		// 구간 밖 (시작 1초 전, 끝 시각 정각)
+		insert(USER, FROM.atStartOfDay().minusSeconds(1));
+		insert(USER, TO.atStartOfDay());
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		try (Statement statement = session.getConnection().createStatement()) {
+			statement.execute("SHUTDOWN");
+		}
+		session.close();
+	}
+
+	@Test
+	void pagesThroughTiedCreatedAtWithoutGapsOrDuplicates() {
+		List<Long> expected = expectedIds(FROM, TO);
+		assertEquals(12, expected.size());
+
+		for (int size = 1; size <= 13; size++) {
+			List<Long> ids = new ArrayList<>();
+			LocalDateTime cursorCreatedAt = null;
+			Long cursorId = null;
+			int pages = 0;
+			while (true) {
+				// 서비스와 같이 한 건 더 읽어서 다음 페이지 확인
+				List<UserRecordDTO> page = dao.findHistoryPage(USER, FROM, TO, cursorCreatedAt, cursorId, size + 1);
+				assertTrue(page.size() <= size + 1, "FETCH FIRST 가 적용되어야 한다");
+				pages++;
+				boolean hasMore = page.size() > size;
+				List<UserRecordDTO> records = hasMore ? page.subList(0, size) : page;
+				records.forEach(record -> ids.add(record.getId()));
+				if (!hasMore) {
+					break;
+				}
+				UserRecordDTO last = records.get(records.size() - 1);
+				cursorCreatedAt = last.getCreated_at_ts().toLocalDateTime();
+				cursorId = last.getId();
+			}
+			assertEquals(expected, ids, "size " + size);
+			assertEquals((expected.size() + size - 1) / size, pages, "size " + size);
+		}
+	}
+
+	@Test
+	void cursorAfterLastRowGivesEmptyPage() {
+		List<UserRecordDTO> all = dao.findHistoryPage(USER, FROM, TO, null, null, 100);
+		UserRecordDTO last = all.get(all.size() - 1);
+		assertEquals(FROM.atStartOfDay(), last.getCreated_at_ts().toLocalDateTime());
+
+		List<UserRecordDTO> next = dao.findHistoryPage(USER, FROM, TO, last.getCreated_at_ts().toLocalDateTime(),
+				last.getId(), 100);
+		assertEquals(0, next.size());
+	}
+
+	@Test
+	void rangeIsHalfOpen() {
+		List<Long> ids = ids(dao.findHistoryPage(USER, FROM, TO, null, null, 100));
+		assertEquals(expectedIds(FROM, TO), ids);
+
+		// 하루만: 6/11 09:30:14 ~ 09:30:16 사이 일곱 개
+		assertEquals(7, dao.findHistoryPage(USER, LocalDate.of(2024, 6, 11), LocalDate.of(2024, 6, 12), null, null, 100)
+				.size());
+		// 끝 시각 정각 기록만 있는 날
+		assertEquals(1, dao.findHistoryPage(USER, TO, TO.plusDays(1), null, null, 100).size());
+		// 빈 구간
+		assertEquals(0, dao.findHistoryPage(USER, FROM, FROM, null, null, 100).size());
+	}
+
+	@Test
+	void tiedRowsAreOrderedByIdDescending() {
+		LocalDateTime tied = LocalDateTime.of(2024, 6, 11, 9, 30, 15);
+		List<UserRecordDTO> page = dao.findHistoryPage(USER, FROM, TO, tied, Long.MAX_VALUE, 3);
+		assertEquals(3, page.size());
+		assertTrue(page.stream().allMatch(r -> r.getCreated_at_ts().toLocalDateTime().equals(tied)));
+		assertTrue(page.get(0).getId() > page.get(1).getId() && page.get(1).getId() > page.get(2).getId());
+	}
+
+	private void insert(int userNumber, LocalDateTime createdAt) {
+		UserRecordDTO dto = new UserRecordDTO();
+		dto.setUserNumber(userNumber);
+		dto.setHappy(50);
+		dto.setMusic_ids("1,2,3");
+		dto.setCreated_at_ts(Timestamp.valueOf(createdAt));
+		assertEquals(1, dao.insertUserRecord(dto));
+		inserted.add(dto);
+	}
+
+	// created_at DESC, id DESC
+	private List<Long> expectedIds(LocalDate from, LocalDate to) {
+		return inserted.stream()
+				.filter(r -> r.getUserNumber() == USER)
+				.filter(r -> !r.getCreated_at_ts().toLocalDateTime().isBefore(from.atStartOfDay())
+						&& r.getCreated_at_ts().toLocalDateTime().isBefore(to.atStartOfDay()))
+				.sorted(Comparator.comparing(UserRecordDTO::getCreated_at_ts).thenComparing(UserRecordDTO::getId)
+						.reversed())
+				.map(UserRecordDTO::getId)
+				.collect(Collectors.toList());
+	}
+
+	private static List<Long> ids(List<UserRecordDTO> records) {
+		return records.stream().map(UserRecordDTO::getId).collect(Collectors.toList());
+	}
+}
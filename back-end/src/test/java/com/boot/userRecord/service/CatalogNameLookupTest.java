@@ -0,0 +1,116 @@
+package com.boot.userRecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.boot.tensor.dto.MusicDTO;
+import com.boot.tensor.service.CatalogAdapters;
+import com.boot.tensor.service.CatalogSnapshot;
+import com.boot.tensor.service.CatalogSnapshotService;
+import com.boot.tensor.service.EmotionMatrix;
+import com.boot.userRecord.dao.UserRecordDAO;
+import com.boot.userRecord.dto.ActingExceptEmotionDTO;
+import com.boot.userRecord.dto.BookExceptEmotionDTO;
+import com.boot.userRecord.dto.MusicExceptEmotionDTO;
+
+/**
+ * 스냅샷에 있는 번호는 스냅샷에서, 없는 번호(옛 항목, 첫 적재 전)는 DB 에서 한 번만 찾는지
+ */
+class CatalogNameLookupTest {
+
+	// DB 에 있는 항목 (스냅샷에는 감정 번호 1~6 인 항목만 들어간다)
+	private final List<MusicExceptEmotionDTO> musicTable = List.of(
+			new MusicExceptEmotionDTO(1L, "봄날", "방탄소년단"),
+			new MusicExceptEmotionDTO(2L, "옛 노래", "가수"));
+	private final List<BookExceptEmotionDTO> bookTable = List.of(new BookExceptEmotionDTO(5L, "옛 책", "저자"));
+	private final List<ActingExceptEmotionDTO> actingTable = List.of(new ActingExceptEmotionDTO(9L, "산책"));
+	// DAO 에 넘어온 번호 목록 (호출 한 번에 하나)
+	private final List<List<Long>> queries = new ArrayList<>();
+
+	private CatalogSnapshotService snapshots;
+	private CatalogNameLookup lookup;
+
+	@BeforeEach
+	void setUp() {
+		snapshots = new CatalogSnapshotService();
+		lookup = new CatalogNameLookup();
+		ReflectionTestUtils.setField(lookup, "catalogSnapshotService", snapshots);
+		ReflectionTestUtils.setField(lookup, "userRecordDAO", fakeDao());
+	}
+
+	@Test
+	void beforeFirstSnapshotLoadNamesComeFromDatabaseOncePerNumber() {
+		CatalogNameLookup.Names names = lookup.current();
+
+		assertEquals("봄날", names.musicName(1));
+		assertEquals("방탄소년단", names.musicAuthor(1));
+		assertEquals("봄날", names.musicName(1));
+		assertEquals("옛 책", names.bookName(5));
+		assertEquals("저자", names.bookAuthor(5));
+		assertEquals("산책", names.actingName(9));
+		// DB 에도 없는 번호는 null, 없다는 결과도 기억
+		assertNull(names.musicName(404));
+		assertNull(names.musicAuthor(404));
+
+		assertEquals(List.of(List.of(1L), List.of(5L), List.of(9L), List.of(404L)), queries);
+		assertEquals(4, names.fallbackQueries());
+	}
+
+	@Test
+	void snapshotItemsNeedNoQueryAndFilteredItemsFallBack() {
+		// 스냅샷에는 1번만 (2번은 감정 번호가 1~6 이 아니라 걸러진 옛 항목)
+		List<MusicDTO> items = List.of(new MusicDTO(1, 3, "봄날", "방탄소년단", 10, 20, 30, 40, 50, 60));
+		@SuppressWarnings("unchecked")
+		AtomicReference<CatalogSnapshot<MusicDTO>> music =
+				(AtomicReference<CatalogSnapshot<MusicDTO>>) ReflectionTestUtils.getField(snapshots, "music");
+		music.set(new CatalogSnapshot<>(items, EmotionMatrix.of(items, CatalogAdapters.MUSIC), null, 1L,
+				items.hashCode(), System.currentTimeMillis()));
+
+		CatalogNameLookup.Names names = lookup.current();
+		assertEquals("봄날", names.musicName(1));
+		assertEquals("방탄소년단", names.musicAuthor(1));
+		assertEquals("옛 노래", names.musicName(2));
+		assertEquals("가수", names.musicAuthor(2));
+
+		assertEquals(List.of(List.of(2L)), queries);
+		// 내보내기마다 새 조회 묶음 (없는 번호 기억도 새로)
+		lookup.current().musicName(2);
+		assertEquals(2, queries.size());
+	}
+
+	private UserRecordDAO fakeDao() {
+		return (UserRecordDAO) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { UserRecordDAO.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "findInfoByMusicNumbers":
+						return find(musicTable, args[0], MusicExceptEmotionDTO::getMusicNumber);
+					case "findInfoByBookNumbers":
+						return find(bookTable, args[0], BookExceptEmotionDTO::getBookNumber);
+					case "findInfoByActingNumbers":
+						return find(actingTable, args[0], ActingExceptEmotionDTO::getActingNumber);
+					case "toString":
+						return "fakeUserRecordDAO";
+					default:
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> List<T> find(List<T> table, Object numbers, Function<T, Long> number) {
+		List<Long> wanted = (List<Long>) numbers;
+		queries.add(wanted);
+		return table.stream().filter(row -> wanted.contains(number.apply(row))).collect(Collectors.toList());
+	}
+}
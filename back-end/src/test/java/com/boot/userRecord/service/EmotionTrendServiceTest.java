@@ -0,0 +1,175 @@
+package com.boot.userRecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.reflect.Proxy;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.boot.userRecord.dao.UserRecordDAO;
+import com.boot.userRecord.dto.UserRecordDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 감정 추이 재계산 중 저장된 기록이 한 번만 반영되는지, 7일/30일 이동 평균이 기간 안의 기록만 보는지
+ */
+class EmotionTrendServiceTest {
+
+	private static final int USER = 7;
+
+	// DB 대신 사용하는 기록 (id 순)
+	private final List<UserRecordDTO> table = new ArrayList<>();
+	// 재계산이 n 번째 행을 읽은 직후 실행할 동작 (재계산 중 커밋 흉내)
+	private int hookAfterRow = -1;
+	private Consumer<EmotionTrendService> hook;
+
+	private EmotionTrendService service;
+	private LocalDate today;
+
+	@BeforeEach
+	void setUp() {
+		service = new EmotionTrendService(new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(service, "userRecordDAO", fakeDao());
+		ReflectionTestUtils.setField(service, "alpha", 0.5);
+		today = LocalDate.now();
+	}
+
+	@Test
+	void recordCommittedDuringRebuildIsCountedOnce() {
+		for (int i = 1; i <= 5; i++) {
+			table.add(record(i, today, 10 * i));
+		}
+		service.rebuild();
+		assertEquals(5L, trend().get("records"));
+
+		// 재계산이 3번째 행을 읽은 뒤 id 6 이 커밋되어 바로 반영된다 (findMaxId 이후라 재계산 범위 밖)
+		hookAfterRow = 3;
+		hook = s -> {
+			UserRecordDTO committed = record(6, today, 60);
+			table.add(committed);
+			s.apply(committed);
+		};
+		Map<String, Object> result = service.rebuild();
+
+		assertEquals("done", result.get("status"));
+		assertEquals(5L, result.get("records"));
+		Map<String, Object> trend = trend();
+		assertEquals(6L, trend.get("records"));
+		assertEquals(35.0, avg(trend, "avg7", "happy"), 1e-9); // (10+20+30+40+50+60)/6
+	}
+
+	@Test
+	void duplicateOrOutOfOrderApplyIsIgnored() {
+		UserRecordDTO first = record(1, today, 10);
+		UserRecordDTO second = record(2, today, 30);
+		service.apply(first);
+		service.apply(second);
+		service.apply(second); // 중복
+		service.apply(first); // 순서 어긋남
+
+		Map<String, Object> trend = trend();
+		assertEquals(2L, trend.get("records"));
+		assertEquals(20.0, avg(trend, "avg7", "happy"), 1e-9);
+	}
+
+	@Test
+	void movingAveragesCoverOnlyTheirWindow() {
+		// 오래된 순으로 저장 (30일 전 기록은 오늘 기록과 원형 버퍼 자리가 같아 덮어써진다)
+		table.add(record(1, today.minusDays(30), 999));
+		table.add(record(2, today.minusDays(29), 50));
+		table.add(record(3, today.minusDays(7), 100));
+		table.add(record(4, today.minusDays(6), 30));
+		table.add(record(5, today, 10));
+		service.rebuild();
+
+		Map<String, Object> trend = trend();
+		assertEquals(5L, trend.get("records"));
+		assertEquals(20.0, avg(trend, "avg7", "happy"), 1e-9); // 오늘 포함 7일: 30, 10
+		assertEquals(47.5, avg(trend, "avg30", "happy"), 1e-9); // 30일: 50, 100, 30, 10
+		assertEquals(1.0, avg(trend, "avg30", "sad"), 1e-9);
+
+		// 지수 가중 평균 (alpha 0.5): 999 -> 524.5 -> 312.25 -> 171.125 -> 90.5625
+		@SuppressWarnings("unchecked")
+		Map<String, Double> ewma = (Map<String, Double>) trend.get("ewma");
+		assertEquals(90.5625, ewma.get("happy"), 1e-9);
+	}
+
+	@Test
+	void noRecentRecordsGivesNullAverages() {
+		table.add(record(1, today.minusDays(10), 40));
+		service.rebuild();
+
+		Map<String, Object> trend = trend();
+		assertEquals(1L, trend.get("records"));
+		assertNull(trend.get("avg7"));
+		assertEquals(40.0, avg(trend, "avg30", "happy"), 1e-9);
+	}
+
+	private Map<String, Object> trend() {
+		return service.getTrend(USER);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static double avg(Map<String, Object> trend, String window, String emotion) {
+		return ((Map<String, Double>) trend.get(window)).get(emotion);
+	}
+
+	// happy 만 바꾸고 나머지 감정은 1
+	private static UserRecordDTO record(long id, LocalDate day, int happy) {
+		UserRecordDTO dto = new UserRecordDTO();
+		dto.setId(id);
+		dto.setUserNumber(USER);
+		dto.setHappy(happy);
+		dto.setSad(1);
+		dto.setStress(1);
+		dto.setCalm(1);
+		dto.setExcited(1);
+		dto.setTired(1);
+		dto.setCreated_at_ts(Timestamp.valueOf(day.atTime(12, 0)));
+		return dto;
+	}
+
+	@SuppressWarnings("unchecked")
+	private UserRecordDAO fakeDao() {
+		return (UserRecordDAO) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { UserRecordDAO.class },
+				(proxy, method, args) -> {
+					switch (method.getName()) {
+					case "findMaxId":
+						return table.stream().mapToLong(UserRecordDTO::getId).max().orElse(0L);
+					case "streamEmotionHistory": {
+						long upToId = (Long) args[0];
+						ResultHandler<UserRecordDTO> handler = (ResultHandler<UserRecordDTO>) args[1];
+						DefaultResultContext<UserRecordDTO> context = new DefaultResultContext<>();
+						List<UserRecordDTO> rows = new ArrayList<>(table);
+						int read = 0;
+						for (UserRecordDTO row : rows) {
+							if (row.getId() <= upToId) {
+								context.nextResultObject(row);
+								handler.handleResult(context);
+								if (++read == hookAfterRow && hook != null) {
+									hook.accept(service);
+								}
+							}
+						}
+						return null;
+					}
+					case "toString":
+						return "fakeUserRecordDAO";
+					default:
+						throw new UnsupportedOperationException(method.getName());
+					}
+				});
+	}
+}
@@ -0,0 +1,42 @@
+package com.boot.userRecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * CSV 칸 따옴표 처리와 추천 번호 목록 파싱 (잘못된 번호는 건너뜀)
+ */
+class UserRecordExportServiceTest {
+
+	@Test
+	void csvQuotesOnlyWhenNeeded() {
+		assertEquals("", UserRecordExportService.csv(""));
+		assertEquals("Dynamite|봄날", UserRecordExportService.csv("Dynamite|봄날"));
+		assertEquals("\"Love, Maybe\"", UserRecordExportService.csv("Love, Maybe"));
+		assertEquals("\"12\"\" Single\"", UserRecordExportService.csv("12\" Single"));
+		assertEquals("\"\"\"quoted\"\", again\"", UserRecordExportService.csv("\"quoted\", again"));
+		assertEquals("\"line1\nline2\"", UserRecordExportService.csv("line1\nline2"));
+		assertEquals("\"line1\r\nline2\"", UserRecordExportService.csv("line1\r\nline2"));
+	}
+
+	@Test
+	void parseIdsKeepsOrderAndTrimsSpaces() {
+		assertArrayEquals(new long[] { 1, 2, 3 }, UserRecordExportService.parseIds("1, 2,3"));
+		assertArrayEquals(new long[] { 30, 10, 20 }, UserRecordExportService.parseIds(" 30 ,10,20 "));
+		assertArrayEquals(new long[] { 7 }, UserRecordExportService.parseIds("7"));
+	}
+
+	@Test
+	void parseIdsSkipsBadTokens() {
+		assertArrayEquals(new long[0], UserRecordExportService.parseIds(null));
+		assertArrayEquals(new long[0], UserRecordExportService.parseIds(""));
+		assertArrayEquals(new long[0], UserRecordExportService.parseIds("  "));
+		assertArrayEquals(new long[0], UserRecordExportService.parseIds("a,b"));
+		assertArrayEquals(new long[] { 1, 3 }, UserRecordExportService.parseIds("1,x,3"));
+		assertArrayEquals(new long[] { 4, 5 }, UserRecordExportService.parseIds("4,,5,"));
+		assertArrayEquals(new long[] { 1, 2 }, UserRecordExportService.parseIds("1,2.5,99999999999999999999,2"));
+		assertArrayEquals(new long[] { -1 }, UserRecordExportService.parseIds("-1"));
+	}
+}
@@ -0,0 +1,198 @@
+package com.boot.userRecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.boot.userRecord.dto.UserRecordDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 감정 기록 저장 큐: 크기/시간 기준 저장, 가득 찼을 때 거절, 종료 시 남은 기록 저장, 저장 실패 기록의 dead-letter 보관/재처리
+ */
+class UserRecordIngestQueueTest {
+
+	@TempDir
+	Path tempDir;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	// 저장된 배치 (쓰기 스레드에서 추가)
+	private final List<List<UserRecordDTO>> batches = new CopyOnWriteArrayList<>();
+
+	private volatile CountDownLatch gate = new CountDownLatch(0);
+	private volatile boolean failWrites;
+
+	private UserRecordIngestQueue queue;
+
+	@AfterEach
+	void tearDown() {
+		gate.countDown();
+		if (queue != null) {
+			queue.shutdown();
+		}
+	}
+
+	@Test
+	void flushesWhenBatchIsFull() throws Exception {
+		queue = newQueue(100, 5, 60_000);
+		queue.start();
+		for (int i = 0; i < 5; i++) {
+			assertTrue(queue.offer(record(i)));
+		}
+
+		// flush-interval 이 1분이어도 배치 크기가 차면 바로 저장
+		waitUntil(() -> written() == 5);
+		assertEquals(1, batches.size());
+		assertEquals(5, batches.get(0).size());
+		assertEquals(5.0, count("written"));
+	}
+
+	@Test
+	void flushesPartialBatchAfterInterval() throws Exception {
+		queue = newQueue(100, 500, 100);
+		queue.start();
+		long start = System.nanoTime();
+		for (int i = 0; i < 3; i++) {
+			assertTrue(queue.offer(record(i)));
+		}
+
+		waitUntil(() -> written() == 3);
+		assertEquals(1, batches.size());
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+	}
+
+	@Test
+	void rejectsWhenQueueIsFull() {
+		queue = newQueue(2, 500, 1_000);
+		// 쓰기 스레드 없이 받기만 하는 상태
+		ReflectionTestUtils.setField(queue, "running", true);
+
+		assertTrue(queue.offer(record(1)));
+		assertTrue(queue.offer(record(2)));
+		assertFalse(queue.offer(record(3)));
+		assertEquals(2, queue.size());
+		assertEquals(1.0, count("rejected"));
+	}
+
+	@Test
+	void drainsQueueOnShutdown() throws Exception {
+		queue = newQueue(100, 1, 60_000);
+		gate = new CountDownLatch(1);
+		queue.start();
+
+		// 첫 기록을 저장하는 동안 쓰기 스레드를 붙잡아 두고 나머지를 큐에 쌓는다
+		assertTrue(queue.offer(record(0)));
+		waitUntil(() -> queue.size() == 0);
+		for (int i = 1; i < 5; i++) {
+			assertTrue(queue.offer(record(i)));
+		}
+		assertEquals(4, queue.size());
+
+		Thread stopper = new Thread(queue::shutdown);
+		stopper.start();
+		waitUntil(() -> !(Boolean) ReflectionTestUtils.getField(queue, "running"));
+		assertFalse(queue.offer(record(5)));
+		gate.countDown();
+		stopper.join(5_000);
+
+		assertEquals(5, written());
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	void failedBatchGoesToDeadLetterFileAndIsReplayedOnStart() throws Exception {
+		failWrites = true;
+		queue = newQueue(100, 2, 60_000);
+		queue.start();
+		assertTrue(queue.offer(record(1)));
+		assertTrue(queue.offer(record(2)));
+
+		Path deadLetter = tempDir.resolve("dead-letter.ndjson");
+		waitUntil(() -> count("dead_letter") == 2.0);
+		assertEquals(0, written());
+		assertEquals(2.0, count("failed"));
+		assertEquals(2, Files.readAllLines(deadLetter, StandardCharsets.UTF_8).size());
+		queue.shutdown();
+
+		// 다음 실행에서는 저장이 되면 파일의 기록이 다시 저장된다
+		failWrites = false;
+		queue = newQueue(100, 2, 60_000);
+		queue.start();
+		waitUntil(() -> written() == 2);
+		assertFalse(Files.exists(deadLetter));
+		UserRecordDTO replayed = batches.get(0).get(0);
+		assertEquals(1, replayed.getUserNumber());
+		assertEquals(Timestamp.valueOf("2024-06-13 09:30:00"), replayed.getCreated_at_ts());
+		assertEquals("1,2,3", replayed.getMusic_ids());
+	}
+
+	private UserRecordIngestQueue newQueue(int capacity, int batchSize, long flushIntervalMs) {
+		UserRecordIngestQueue created = new UserRecordIngestQueue(registry, capacity) {
+			@Override
+			void writeBatch(List<UserRecordDTO> batch) {
+				try {
+					gate.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				if (failWrites) {
+					throw new IllegalStateException("DB 연결 실패");
+				}
+				batches.add(List.copyOf(batch));
+			}
+		};
+		ReflectionTestUtils.setField(created, "emotionTrendService", new EmotionTrendService(new SimpleMeterRegistry()));
+		ReflectionTestUtils.setField(created, "batchSize", batchSize);
+		ReflectionTestUtils.setField(created, "flushIntervalMs", flushIntervalMs);
+		ReflectionTestUtils.setField(created, "enqueueTimeoutMs", 10L);
+		ReflectionTestUtils.setField(created, "shutdownTimeoutMs", 5_000L);
+		ReflectionTestUtils.setField(created, "maxAttempts", 2);
+		ReflectionTestUtils.setField(created, "retryBackoffMs", 1L);
+		ReflectionTestUtils.setField(created, "maxBackoffMs", 2L);
+		ReflectionTestUtils.setField(created, "deadLetterPath", tempDir.resolve("dead-letter.ndjson").toString());
+		return created;
+	}
+
+	private int written() {
+		return batches.stream().mapToInt(List::size).sum();
+	}
+
+	private double count(String result) {
+		return registry.get("user_record.ingest").tag("result", result).counter().count();
+	}
+
+	private static UserRecordDTO record(int userNumber) {
+		UserRecordDTO record = new UserRecordDTO();
+		record.setUserNumber(userNumber);
+		record.setHappy(50);
+		record.setMusic_ids("1,2,3");
+		record.setCreated_at_ts(Timestamp.valueOf("2024-06-13 09:30:00"));
+		return record;
+	}
+
+	private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline) {
+				throw new AssertionError("5초 안에 조건을 만족하지 않음");
+			}
+			Thread.sleep(5);
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package com.boot.userRecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.boot.userRecord.service.YoutubeQuotaGuard.Priority;
+import com.boot.userRecord.service.YoutubeQuotaGuard.RejectedException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 회로 CLOSED -> OPEN -> HALF_OPEN 전이와 할당량 차감, 재시작 후 사용량 이어 세기 (시계 주입)
+ */
+class YoutubeQuotaGuardTest {
+
+	private static final long OPEN_MS = 30_000L;
+
+	// 태평양 시간 정오 (자정 초기화와 겹치지 않도록)
+	private final TestClock clock = new TestClock(
+			ZonedDateTime.of(2024, 6, 13, 12, 0, 0, 0, YoutubeQuotaGuard.QUOTA_ZONE).toInstant());
+	private YoutubeQuotaGuard guard;
+
+	@TempDir
+	Path dir;
+
+	@BeforeEach
+	void setUp() {
+		guard = newGuard();
+	}
+
+	private YoutubeQuotaGuard newGuard() {
+		YoutubeQuotaGuard guard = new YoutubeQuotaGuard(new SimpleMeterRegistry(), clock);
+		ReflectionTestUtils.setField(guard, "dailyUnits", 10000);
+		ReflectionTestUtils.setField(guard, "userReservePercent", 20);
+		ReflectionTestUtils.setField(guard, "window", 20);
+		ReflectionTestUtils.setField(guard, "minCalls", 10);
+		ReflectionTestUtils.setField(guard, "failureRate", 0.5);
+		ReflectionTestUtils.setField(guard, "openMs", OPEN_MS);
+		ReflectionTestUtils.setField(guard, "stateFile", dir.resolve("quota.properties").toString());
+		guard.init();
+		return guard;
+	}
+
+	@Test
+	void opensWhenFailureRateReachesThresholdAfterMinCalls() throws Exception {
+		for (int i = 0; i < 9; i++) {
+			call();
+			guard.recordFailure();
+		}
+		assertFalse(guard.isOpen(), "min-calls 전에는 열지 않는다");
+
+		call();
+		guard.recordFailure();
+		assertTrue(guard.isOpen());
+		assertThrows(RejectedException.class, this::call);
+	}
+
+	@Test
+	void staysClosedBelowFailureRate() throws Exception {
+		for (int i = 0; i < 40; i++) {
+			call();
+			if (i % 3 == 0) {
+				guard.recordFailure();
+			} else {
+				guard.recordSuccess();
+			}
+		}
+		assertFalse(guard.isOpen());
+		assertDoesNotThrow(this::call);
+	}
+
+	@Test
+	void halfOpenAllowsSingleProbeAndClosesOnSuccess() throws Exception {
+		open();
+		clock.advance(OPEN_MS - 1);
+		assertThrows(RejectedException.class, this::call);
+
+		clock.advance(1);
+		assertFalse(guard.isOpen());
+		call(); // 시험 호출
+		assertThrows(RejectedException.class, this::call, "시험 호출 중에는 한 건만");
+
+		guard.recordSuccess();
+		assertDoesNotThrow(this::call);
+		assertDoesNotThrow(this::call);
+	}
+
+	@Test
+	void failedProbeReopensForAnotherPeriod() throws Exception {
+		open();
+		clock.advance(OPEN_MS);
+		call();
+		guard.recordFailure();
+
+		assertTrue(guard.isOpen());
+		clock.advance(OPEN_MS - 1);
+		assertThrows(RejectedException.class, this::call);
+		clock.advance(1);
+		assertDoesNotThrow(this::call);
+	}
+
+	@Test
+	void quotaRejectionDuringProbeReleasesProbe() throws Exception {
+		open();
+		clock.advance(OPEN_MS);
+		ReflectionTestUtils.setField(guard, "dailyUnits", 0);
+		assertThrows(RejectedException.class, this::call);
+
+		ReflectionTestUtils.setField(guard, "dailyUnits", 10000);
+		assertDoesNotThrow(this::call, "할당량으로 거절된 시험 호출은 다음 호출이 다시 시험");
+	}
+
+	@Test
+	void backgroundCallsStopAtUserReserve() throws Exception {
+		for (int i = 0; i < 80; i++) {
+			guard.acquire("search", YoutubeQuotaGuard.SEARCH_COST, Priority.BACKGROUND);
+		}
+		assertEquals(8000, guard.used());
+		assertThrows(RejectedException.class,
+				() -> guard.acquire("videos", YoutubeQuotaGuard.VIDEOS_COST, Priority.BACKGROUND));
+		assertDoesNotThrow(() -> guard.acquire("search", YoutubeQuotaGuard.SEARCH_COST, Priority.USER));
+	}
+
+	@Test
+	void quotaExceededBlocksUntilPacificMidnight() throws Exception {
+		call();
+		guard.recordQuotaExceeded();
+		assertEquals(10000, guard.used());
+		assertThrows(RejectedException.class, this::call);
+
+		clock.advance(12 * 60 * 60 * 1000L - 1); // 23:59:59.999
+		assertThrows(RejectedException.class, this::call);
+		clock.advance(1);
+		assertDoesNotThrow(this::call);
+		assertEquals(1, guard.used());
+	}
+
+	@Test
+	void usageSurvivesRestartOnSameDay() throws Exception {
+		guard.acquire("videos", YoutubeQuotaGuard.VIDEOS_COST, Priority.BACKGROUND);
+		guard.acquire("videos", YoutubeQuotaGuard.VIDEOS_COST, Priority.BACKGROUND);
+		guard.acquire("search", YoutubeQuotaGuard.SEARCH_COST, Priority.USER);
+		assertEquals(2, guard.backgroundUsed());
+		guard.shutdown();
+
+		YoutubeQuotaGuard restarted = newGuard();
+		assertEquals(102, restarted.used());
+		assertEquals(2, restarted.backgroundUsed());
+
+		// 다음 날 기동이면 저장된 사용량은 버린다
+		clock.advance(24 * 60 * 60 * 1000L);
+		assertEquals(0, newGuard().backgroundUsed());
+		assertEquals(0, restarted.used());
+	}
+
+	@Test
+	void exhaustedSurvivesRestart() throws Exception {
+		guard.recordQuotaExceeded();
+		guard.flush();
+
+		YoutubeQuotaGuard restarted = newGuard();
+		assertEquals(10000, restarted.used());
+		assertThrows(RejectedException.class,
+				() -> restarted.acquire("videos", YoutubeQuotaGuard.VIDEOS_COST, Priority.USER));
+	}
+
+	private void open() throws Exception {
+		for (int i = 0; i < 10; i++) {
+			call();
+			guard.recordFailure();
+		}
+		assertTrue(guard.isOpen());
+	}
+
+	private void call() throws RejectedException {
+		guard.acquire("videos", YoutubeQuotaGuard.VIDEOS_COST, Priority.USER);
+	}
+
+	private static final class TestClock extends Clock {
+		private Instant now;
+
+		TestClock(Instant now) {
+			this.now = now;
+		}
+
+		void advance(long millis) {
+			now = now.plusMillis(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			TestClock outer = this;
+			return new Clock() {
+				@Override
+				public ZoneId getZone() {
+					return zone;
+				}
+
+				@Override
+				public Clock withZone(ZoneId other) {
+					return outer.withZone(other);
+				}
+
+				@Override
+				public Instant instant() {
+					return outer.now;
+				}
+			};
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.boot.userRecord.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 실제 search / videos 응답 모양으로 스트리밍 파서 확인 (src/test/resources/youtube)
+ * - search 의 id 는 객체, videos 의 id 는 문자열
+ * - thumbnails.high 가 없으면 thumbnail null, 그 밖의 중첩 객체/배열은 건너뛴다
+ * - 필드가 다 있는 항목은 기존 org.json 파싱과 같은 결과
+ */
+class YoutubeResponseParserTest {
+
+	@Test
+	void parsesSearchResponse() throws IOException {
+		List<Map<String, String>> items = YoutubeResponseParser.parseItems(resource("search.json"));
+
+		// 채널 결과(id 에 videoId 없음)는 빠진다
+		assertEquals(2, items.size());
+		assertEquals(video("PSY - GANGNAM STYLE(강남스타일) M/V", "officialpsy",
+				"https://i.ytimg.com/vi/9bZkp7q19f0/hqdefault.jpg", "9bZkp7q19f0"), items.get(0));
+		// thumbnails.high 없음, id 안의 필드 순서가 달라도 된다
+		assertEquals(video("BTS (방탄소년단) 'Dynamite' Official MV", "HYBE LABELS", null, "gdZLi9oWNZg"), items.get(1));
+	}
+
+	@Test
+	void parsesVideosResponseById() throws IOException {
+		Map<String, Map<String, String>> items = YoutubeResponseParser.parseItemsById(resource("videos.json"));
+
+		assertEquals(Arrays.asList("9bZkp7q19f0", "noHigh00001", "noSnippet01"), List.copyOf(items.keySet()));
+		assertEquals(video("PSY - GANGNAM STYLE(강남스타일) M/V", "officialpsy",
+				"https://i.ytimg.com/vi/9bZkp7q19f0/hqdefault.jpg", "9bZkp7q19f0"), items.get("9bZkp7q19f0"));
+		// snippet 이 id 보다 먼저 와도, tags 안에 객체/배열이 중첩되어도 된다
+		assertEquals(video("썸네일 high 없음", "채널", null, "noHigh00001"), items.get("noHigh00001"));
+		Map<String, String> noSnippet = items.get("noSnippet01");
+		assertNull(noSnippet.get("title"));
+		assertNull(noSnippet.get("thumbnail"));
+		assertEquals("https://www.youtube.com/watch?v=noSnippet01", noSnippet.get("videoUrl"));
+	}
+
+	@Test
+	void matchesOrgJsonForCompleteItems() throws IOException {
+		byte[] search = resource("search.json");
+		assertEquals(orgJsonSearchFirst(search), YoutubeResponseParser.parseItems(search).get(0));
+
+		byte[] videos = resource("videos.json");
+		assertEquals(orgJsonVideosFirst(videos), YoutubeResponseParser.parseItemsById(videos).get("9bZkp7q19f0"));
+	}
+
+	@Test
+	void emptyItemsGiveEmptyResult() throws IOException {
+		byte[] body = "{\"kind\":\"youtube#videoListResponse\",\"items\":[],\"pageInfo\":{\"totalResults\":0}}"
+				.getBytes(StandardCharsets.UTF_8);
+		assertEquals(0, YoutubeResponseParser.parseItemsById(body).size());
+	}
+
+	@Test
+	void missingItemsOrNonObjectIsIOException() {
+		assertThrows(IOException.class, () -> YoutubeResponseParser.parseItems(
+				"{\"error\":{\"code\":403,\"errors\":[{\"reason\":\"quotaExceeded\"}]}}".getBytes(StandardCharsets.UTF_8)));
+		assertThrows(IOException.class, () -> YoutubeResponseParser.parseItems("[]".getBytes(StandardCharsets.UTF_8)));
+		assertThrows(IOException.class,
+				() -> YoutubeResponseParser.parseItems("{\"items\":[{\"id\":".getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static Map<String, String> video(String title, String channel, String thumbnail, String videoId) {
+		Map<String, String> data = new HashMap<>();
+		data.put("title", title);
+		data.put("channel", channel);
+		data.put("thumbnail", thumbnail);
+		data.put("videoUrl", "https://www.youtube.com/watch?v=" + videoId);
+		return data;
+	}
+
+	// 기존 YoutubeServiceImpl 의 search 응답 파싱 (첫 항목)
+	private static Map<String, String> orgJsonSearchFirst(byte[] body) {
+		JSONObject item = new JSONObject(new String(body, StandardCharsets.UTF_8)).getJSONArray("items").getJSONObject(0);
+		JSONObject snippet = item.getJSONObject("snippet");
+		String videoId = item.getJSONObject("id").getString("videoId");
+		return orgJsonData(snippet, videoId);
+	}
+
+	// 기존 YoutubeServiceImpl 의 videos 응답 파싱 (첫 항목)
+	private static Map<String, String> orgJsonVideosFirst(byte[] body) {
+		JSONObject item = new JSONObject(new String(body, StandardCharsets.UTF_8)).getJSONArray("items").getJSONObject(0);
+		return orgJsonData(item.getJSONObject("snippet"), item.getString("id"));
+	}
+
+	private static Map<String, String> orgJsonData(JSONObject snippet, String videoId) {
+		Map<String, String> data = new HashMap<>();
+		data.put("title", snippet.getString("title"));
+		data.put("channel", snippet.getString("channelTitle"));
+		data.put("thumbnail", snippet.getJSONObject("thumbnails").getJSONObject("high").getString("url"));
+		data.put("videoUrl", "https://www.youtube.com/watch?v=" + videoId);
+		return data;
+	}
+
+	private static byte[] resource(String name) throws IOException {
+		try (InputStream in = YoutubeResponseParserTest.class.getResourceAsStream("/youtube/" + name)) {
+			return in.readAllBytes();
+		}
+	}
+}
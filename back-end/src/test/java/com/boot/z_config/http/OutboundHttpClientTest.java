@@ -0,0 +1,152 @@
+package com.boot.z_config.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 로컬 HttpServer 로 2xx 본문, 2xx 가 아닌 응답의 IOException, 응답 제한 시간, 호스트별 동시 요청 한도를 확인
+ */
+class OutboundHttpClientTest {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	// /hold 요청을 붙잡아 두는 문
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final CountDownLatch held = new CountDownLatch(2);
+
+	private HttpServer server;
+	private ExecutorService serverThreads;
+	private String base;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/ok", exchange -> respond(exchange, 200, "hello"));
+		server.createContext("/missing", exchange -> respond(exchange, 404, "not found"));
+		server.createContext("/slow", exchange -> {
+			await(release, 5);
+			respond(exchange, 200, "late");
+		});
+		server.createContext("/hold", exchange -> {
+			held.countDown();
+			await(release, 5);
+			respond(exchange, 200, "released");
+		});
+		serverThreads = Executors.newCachedThreadPool();
+		server.setExecutor(serverThreads);
+		server.start();
+		base = "http://localhost:" + server.getAddress().getPort();
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		server.stop(0);
+		serverThreads.shutdownNow();
+	}
+
+	@Test
+	void returnsBodyOn2xx() throws IOException {
+		OutboundHttpClient client = new OutboundHttpClient(registry, 1000, 2000, 4);
+
+		assertEquals("hello", client.getString(URI.create(base + "/ok")));
+		assertEquals(1, timerCount("success"));
+	}
+
+	@Test
+	void non2xxIsIOException() {
+		OutboundHttpClient client = new OutboundHttpClient(registry, 1000, 2000, 4);
+
+		IOException e = assertThrows(IOException.class, () -> client.get(URI.create(base + "/missing")));
+		assertTrue(e.getMessage().startsWith("HTTP 404"), e.getMessage());
+		assertEquals(1, timerCount("client_error"));
+		// 응답 그대로 받는 send 는 실패로 보지 않는다
+		assertEquals(404, status(client, base + "/missing"));
+	}
+
+	@Test
+	void readTimeoutFailsWithoutWaitingForServer() {
+		OutboundHttpClient client = new OutboundHttpClient(registry, 1000, 200, 4);
+
+		long start = System.nanoTime();
+		assertThrows(HttpTimeoutException.class, () -> client.get(URI.create(base + "/slow")));
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 3000);
+		assertEquals(1, timerCount("error"));
+	}
+
+	@Test
+	void rejectsRequestsOverPerHostLimit() throws Exception {
+		OutboundHttpClient client = new OutboundHttpClient(registry, 1000, 5000, 2);
+		URI hold = URI.create(base + "/hold");
+
+		CompletableFuture<byte[]> first = client.getAsync(hold);
+		CompletableFuture<byte[]> second = client.getAsync(hold);
+		assertTrue(held.await(5, TimeUnit.SECONDS), "서버가 두 요청을 받지 못함");
+		assertEquals(2.0, registry.get("outbound.http.inflight").gauge().value());
+
+		// 한도(2)를 넘는 요청은 기다리지 않고 바로 실패
+		CompletableFuture<byte[]> third = client.getAsync(hold);
+		assertTrue(third.isCompletedExceptionally());
+		ExecutionException e = assertThrows(ExecutionException.class, third::get);
+		assertTrue(e.getCause() instanceof IOException, e.getCause().toString());
+		assertEquals(1, timerCount("rejected"));
+
+		release.countDown();
+		assertEquals("released", new String(first.get(5, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+		assertEquals("released", new String(second.get(5, TimeUnit.SECONDS), StandardCharsets.UTF_8));
+		// 끝난 요청의 자리는 반납된다
+		assertEquals("hello", client.getString(URI.create(base + "/ok")));
+		assertEquals(0.0, registry.get("outbound.http.inflight").gauge().value());
+	}
+
+	private static int status(OutboundHttpClient client, String uri) {
+		try {
+			return client.send(URI.create(uri)).statusCode();
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private long timerCount(String outcome) {
+		return registry.get("outbound.http.requests").tag("host", "localhost").tag("outcome", outcome).timer().count();
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	private static void await(CountDownLatch latch, long seconds) {
+		try {
+			latch.await(seconds, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package com.boot.z_config.http;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * 같은 키의 동시 호출이 한 번의 조회로 합쳐지는지, 조회가 실패하거나 중단되어도 기다리는 호출이 풀려나는지
+ */
+class SingleFlightTest {
+
+	private static final int CALLERS = 16;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final SingleFlight<String, String> flight = new SingleFlight<>("test", registry);
+	private final ExecutorService threads = Executors.newFixedThreadPool(CALLERS);
+
+	@AfterEach
+	void tearDown() {
+		threads.shutdownNow();
+	}
+
+	@Test
+	void concurrentCallersWithSameKeyShareOneCall() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < CALLERS; i++) {
+			results.add(threads.submit(() -> {
+				start.await();
+				return flight.run("video", () -> {
+					calls.incrementAndGet();
+					// 나머지 호출이 모두 합류할 때까지 조회를 끝내지 않는다
+					waitUntil(() -> count("coalesced") == CALLERS - 1);
+					return "result";
+				});
+			}));
+		}
+		start.countDown();
+
+		for (Future<String> result : results) {
+			assertEquals("result", result.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, calls.get());
+		assertEquals(1.0, count("leader"));
+		assertEquals(CALLERS - 1.0, count("coalesced"));
+
+		// 끝난 조회는 보관하지 않는다
+		assertEquals("again", flight.run("video", () -> {
+			calls.incrementAndGet();
+			return "again";
+		}));
+		assertEquals(2, calls.get());
+		assertEquals(2.0, count("leader"));
+	}
+
+	@Test
+	void asyncCallersJoinTheInFlightFuture() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CompletableFuture<String> pending = new CompletableFuture<>();
+
+		CompletableFuture<String> first = flight.execute("video", () -> {
+			calls.incrementAndGet();
+			return pending;
+		});
+		CompletableFuture<String> second = flight.execute("video", () -> {
+			calls.incrementAndGet();
+			return CompletableFuture.completedFuture("other");
+		});
+		assertSame(first, second);
+		assertEquals(1, calls.get());
+
+		pending.complete("result");
+		assertEquals("result", second.get(5, TimeUnit.SECONDS));
+		assertEquals(1.0, count("coalesced"));
+	}
+
+	@Test
+	void leaderFailureIsDeliveredToWaiters() throws Exception {
+		CountDownLatch joined = new CountDownLatch(1);
+		Future<String> leader = threads.submit(() -> flight.run("video", () -> {
+			joined.countDown();
+			waitUntil(() -> count("coalesced") == 1.0);
+			throw new IOException("quota exceeded");
+		}));
+		assertTrue(joined.await(5, TimeUnit.SECONDS));
+		Future<String> waiter = threads.submit(() -> flight.run("video", () -> "never"));
+
+		ExecutionException e = assertThrows(ExecutionException.class, () -> waiter.get(5, TimeUnit.SECONDS));
+		assertEquals("quota exceeded", e.getCause().getMessage());
+		assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void batchSplitsOwnedAndJoinedKeys() throws Exception {
+		SingleFlight<String, String>.Batch owner = flight.claim(List.of("a", "b", "c"));
+		SingleFlight<String, String>.Batch other = flight.claim(List.of("b", "c", "d", "d"));
+		assertEquals(List.of("a", "b", "c"), owner.owned());
+		assertEquals(List.of("d"), other.owned());
+		assertEquals(List.of("b", "c"), other.joined());
+		assertEquals(4.0, count("leader"));
+		assertEquals(2.0, count("coalesced"));
+
+		Future<String> waitB = threads.submit(() -> other.await("b"));
+		owner.complete("b", "B");
+		assertEquals("B", waitB.get(5, TimeUnit.SECONDS));
+		assertThrows(IllegalArgumentException.class, () -> other.await("a"));
+	}
+
+	// YoutubeServiceImpl.getVideoDetailsByIds 처럼 조회 도중 예외가 나도 finally 의 failRemaining 으로 풀려나야 한다
+	@Test
+	void abandonedOwnerReleasesWaitersThroughFailRemaining() throws Exception {
+		SingleFlight<String, String>.Batch owner = flight.claim(List.of("a", "b", "c"));
+		SingleFlight<String, String>.Batch other = flight.claim(List.of("a", "c"));
+		Future<String> waitA = threads.submit(() -> other.await("a"));
+		Future<String> waitC = threads.submit(() -> other.await("c"));
+
+		assertThrows(IllegalStateException.class, () -> {
+			try {
+				owner.complete("a", "A");
+				throw new IllegalStateException("응답 파싱 실패");
+			} finally {
+				owner.failRemaining(new IOException("유튜브 영상 조회 중단"));
+			}
+		});
+
+		assertEquals("A", waitA.get(5, TimeUnit.SECONDS));
+		ExecutionException e = assertThrows(ExecutionException.class, () -> waitC.get(5, TimeUnit.SECONDS));
+		assertTrue(e.getCause() instanceof IOException, e.getCause().toString());
+		assertEquals("유튜브 영상 조회 중단", e.getCause().getMessage());
+
+		// 실패로 정리된 키는 다음 호출이 다시 맡는다
+		assertEquals(List.of("b", "c"), flight.claim(List.of("b", "c")).owned());
+	}
+
+	private double count(String result) {
+		return registry.get("singleflight.calls").tag("name", "test").tag("result", result).counter().count();
+	}
+
+	private static void waitUntil(BooleanSupplier condition) {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condition.getAsBoolean()) {
+			if (System.nanoTime() > deadline) {
+				throw new AssertionError("5초 안에 조건을 만족하지 않음");
+			}
+			Thread.onSpinWait();
+		}
+	}
+}
@@ -56,22 +56,66 @@ async function loadModelPureJS(dirPath) {
   const modelJson = JSON.parse(
     fs.readFileSync(path.join(dirPath, 'model.json'), 'utf8')
   );
-  // 2) weights.bin 로드
+  // 2) weights.bin 로드 (float32, 레이어 순서대로 kernel, bias)
   const weightData = fs.readFileSync(path.join(dirPath, 'weights.bin'));
-  // 3) 메모리 핸들러 생성
-  const handler = tf.io.fromMemory(modelJson, weightData.buffer);
-  // 4) 모델 로드
-  return await tf.loadLayersModel(handler);
+  const weights = new Float32Array(
+    weightData.buffer.slice(weightData.byteOffset, weightData.byteOffset + weightData.byteLength)
+  );
+  // 3) 구조로 모델 생성 후 가중치 주입
+  //    (fromMemory(modelJson, buffer) 는 buffer 를 weightSpecs 로 받아서 학습된 가중치가 적용되지 않았음)
+  const model = await tf.models.modelFromJSON({ modelTopology: modelJson });
+  let offset = 0;
+  const tensors = model.weights.map((w) => {
+    const size = w.shape.reduce((a, b) => a * b, 1);
+    const t = tf.tensor(weights.subarray(offset, offset + size), w.shape);
+    offset += size;
+    return t;
+  });
+  if (offset !== weights.length) {
+    throw new Error(`weights.bin 크기가 모델 구조와 맞지 않습니다: ${dirPath}`);
+  }
+  model.setWeights(tensors);
+  tensors.forEach((t) => t.dispose());
+  return model;
 }
 
 
 // ========== 모델 학습 함수 ===========
 // 훈련 API
+// 훈련/검증 분할용 셔플 시드 (같은 데이터면 항상 같은 분할)
+const SPLIT_SEED = 20240613;
+
+// 시드 고정 난수 (mulberry32)
+function seededRandom(seed) {
+  let state = seed >>> 0;
+  return () => {
+    state = (state + 0x6D2B79F5) >>> 0;
+    let t = state;
+    t = Math.imul(t ^ (t >>> 15), t | 1);
+    t ^= t + Math.imul(t ^ (t >>> 7), t | 61);
+    return ((t ^ (t >>> 14)) >>> 0) / 4294967296;
+  };
+}
+
+// features/labels 를 같은 순서로 섞기 (Fisher-Yates)
+function shuffleRows(features, labels, seed) {
+  const random = seededRandom(seed);
+  const order = features.map((_, i) => i);
+  for (let i = order.length - 1; i > 0; i--) {
+    const j = Math.floor(random() * (i + 1));
+    [order[i], order[j]] = [order[j], order[i]];
+  }
+  return {
+    features: order.map(i => features[i]),
+    labels: order.map(i => labels[i])
+  };
+}
+
 async function ModelTraining(response, modelType = 'default') {
   console.log(`${modelType} 모델 학습 시작`);
 
-  // 1. 데이터 불러오기
-  const { features, labels } = response.data;
+  // 1. 데이터 불러오기 (DB 행 순서(번호순)에 분할이 좌우되지 않도록 시드 고정 셔플)
+  const { features, labels } = shuffleRows(response.data.features, response.data.labels, SPLIT_SEED);
   console.log(`${modelType} 데이터 크기: ${features.length}개`);
 
   // 늘리면
@@ -254,6 +298,31 @@ async function getCachedData(type, url) {
   return response;
 }
 
+// 학습 데이터 바이너리(format=bin) 조회 -> 기존 JSON 응답과 같은 { data: { features, labels } } 형태로 변환
+// 헤더 16바이트(magic "MSEX", 버전, 차원 수, 예약, 행 수, 카탈로그 지문) + 감정 6열 + 라벨 1열 (각 1바이트)
+async function fetchTrainingData(url) {
+  const response = await axios.get(`${url}?format=bin`, { responseType: 'arraybuffer' });
+  const bytes = new Uint8Array(response.data);
+  const view = new DataView(bytes.buffer, bytes.byteOffset, bytes.byteLength);
+  const magic = String.fromCharCode(bytes[0], bytes[1], bytes[2], bytes[3]);
+  if (magic !== 'MSEX' || bytes[4] !== 1) {
+    throw new Error(`알 수 없는 학습 데이터 형식: ${url}`);
+  }
+  const dims = bytes[5];
+  const count = view.getUint32(8);
+  const features = new Array(count);
+  const labels = new Array(count);
+  for (let row = 0; row < count; row++) {
+    const feature = new Array(dims);
+    for (let d = 0; d < dims; d++) {
+      feature[d] = bytes[16 + d * count + row];
+    }
+    features[row] = feature;
+    labels[row] = bytes[16 + dims * count + row];
+  }
+  return { data: { features, labels, count } };
+}
+
 // ========== 음악, 행동, 도서에 대해 학습 및 저장 =========== -> 메인
 app.get('/train', async (req, res) => {
   try {
@@ -262,9 +331,9 @@ app.get('/train', async (req, res) => {
 
     // 데이터 병렬 로딩
     const [act_response, music_response, book_response] = await Promise.all([
-      axios.get('http://localhost:8485/api/act-data'),
-      axios.get('http://localhost:8485/api/music-data'),
-      axios.get('http://localhost:8485/api/book-data')
+      fetchTrainingData('http://localhost:8485/api/act-data'),
+      fetchTrainingData('http://localhost:8485/api/music-data'),
+      fetchTrainingData('http://localhost:8485/api/book-data')
     ]);
 
     console.log('모든 데이터 로딩 완료');